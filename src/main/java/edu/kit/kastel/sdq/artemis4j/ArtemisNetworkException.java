@@ -1,16 +1,55 @@
-/* Licensed under EPL-2.0 2024. */
+/* Licensed under EPL-2.0 2024-2026. */
 package edu.kit.kastel.sdq.artemis4j;
 
+import java.io.IOException;
+import java.util.OptionalInt;
+
+import com.fasterxml.jackson.core.JacksonException;
+
 public class ArtemisNetworkException extends ArtemisClientException {
+    // The HTTP status code of an unsuccessful response, or -1 if the failure wasn't a response
+    private final int statusCode;
+
     public ArtemisNetworkException(String message) {
         super(message);
+        this.statusCode = -1;
     }
 
     public ArtemisNetworkException(Throwable cause) {
         super(cause);
+        this.statusCode = -1;
     }
 
     public ArtemisNetworkException(String message, Throwable cause) {
         super(message, cause);
+        this.statusCode = -1;
+    }
+
+    /**
+     * @param statusCode the HTTP status code of the unsuccessful response
+     */
+    public ArtemisNetworkException(String message, int statusCode) {
+        super(message);
+        this.statusCode = statusCode;
+    }
+
+    /**
+     * @return the HTTP status code if Artemis answered with an unsuccessful response, or empty if the request failed
+     *     for another reason (e.g. a connection failure)
+     */
+    public OptionalInt getStatusCode() {
+        return this.statusCode < 0 ? OptionalInt.empty() : OptionalInt.of(this.statusCode);
+    }
+
+    /**
+     * @return true if sending the same request again may succeed, i.e. for timeouts, rate limiting, server errors and
+     *     connection failures, but not for client errors or responses that couldn't be decoded
+     */
+    public boolean isTransient() {
+        if (this.statusCode >= 0) {
+            return this.statusCode == 408 || this.statusCode == 429 || this.statusCode >= 500;
+        }
+        var cause = this.getCause();
+        return cause instanceof IOException && !(cause instanceof JacksonException);
     }
 }
@@ -1,12 +1,16 @@
-/* Licensed under EPL-2.0 2024-2025. */
+/* Licensed under EPL-2.0 2024-2026. */
 package edu.kit.kastel.sdq.artemis4j;
 
+import java.time.Instant;
+import java.util.Optional;
+
 import org.jspecify.annotations.Nullable;
 
 public class LazyNetworkValue<T> {
     private final NetworkSupplier<T> supplier;
     // Must be volatile to avoid reordering of the checks in get()
     private volatile @Nullable T value;
+    private volatile @Nullable Instant loadedAt;
 
     public LazyNetworkValue(NetworkSupplier<T> supplier) {
         this.supplier = supplier;
@@ -22,6 +26,7 @@ public class LazyNetworkValue<T> {
                 // Second synchronized check to avoid double initialization
                 if (this.value == null) {
                     this.value = this.supplier.get();
+                    this.loadedAt = Instant.now();
                 }
                 localValue = this.value;
             }
@@ -31,9 +36,24 @@ public class LazyNetworkValue<T> {
         return localValue;
     }
 
+    /**
+     * Returns the value if it has already been fetched, without fetching it.
+     */
+    public Optional<T> getIfLoaded() {
+        return Optional.ofNullable(this.value);
+    }
+
+    /**
+     * @return when the current value was fetched, or null if it has not been fetched (since the last invalidation)
+     */
+    public @Nullable Instant getLoadedAt() {
+        return this.value == null ? null : this.loadedAt;
+    }
+
     public void invalidate() {
         synchronized (this) {
             this.value = null;
+            this.loadedAt = null;
         }
     }
 
@@ -0,0 +1,145 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Runs independent (network) tasks concurrently with a bounded parallelism.
+ * <p>
+ * The tasks are executed on virtual threads, since they mostly block on network IO.
+ * All methods wait for every task to finish and return the results in the order of the input.
+ */
+public final class ParallelTasks {
+    private ParallelTasks() {}
+
+    /**
+     * Applies the task to all items concurrently, with at most {@code parallelism} tasks running at once.
+     * If a task fails, the remaining tasks still run to completion, and then the first failure (in input order)
+     * is rethrown.
+     *
+     * @return the results, in the order of the items
+     * @throws E the first exception thrown by a task
+     */
+    public static <I, O, E extends Exception> List<O> map(
+            Collection<? extends I> items, int parallelism, ItemTask<? super I, ? extends O, E> task) throws E {
+        var outcomes = mapSettled(items, parallelism, task);
+
+        List<O> results = new ArrayList<>(outcomes.size());
+        for (var outcome : outcomes) {
+            if (!outcome.isSuccessful()) {
+                throw ParallelTasks.<E>rethrow(outcome.failure());
+            }
+            results.add(outcome.value());
+        }
+        return results;
+    }
+
+    /**
+     * Applies the task to all items concurrently, with at most {@code parallelism} tasks running at once.
+     * Failures of individual tasks are captured in the returned outcomes instead of being thrown.
+     *
+     * @return one outcome per item, in the order of the items
+     */
+    public static <I, O> List<Outcome<O>> mapSettled(
+            Collection<? extends I> items, int parallelism, ItemTask<? super I, ? extends O, ?> task) {
+        return mapSettled(items, permits(parallelism), task);
+    }
+
+    /**
+     * Applies the task to all items concurrently, with each task holding one of the permits while it runs. Sharing
+     * the permits between several calls bounds the number of tasks running at once across all of them.
+     *
+     * @return one outcome per item, in the order of the items
+     */
+    public static <I, O> List<Outcome<O>> mapSettled(
+            Collection<? extends I> items, Semaphore permits, ItemTask<? super I, ? extends O, ?> task) {
+        List<Future<O>> futures = new ArrayList<>(items.size());
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (I item : items) {
+                futures.add(executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        return task.apply(item);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+
+            List<Outcome<O>> outcomes = new ArrayList<>(futures.size());
+            for (var future : futures) {
+                outcomes.add(await(future));
+            }
+            return outcomes;
+        }
+    }
+
+    /**
+     * Creates the permits for at most {@code parallelism} concurrent tasks.
+     */
+    public static Semaphore permits(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1, but was " + parallelism);
+        }
+
+        // Fair, so that the tasks are started roughly in the order of the items
+        return new Semaphore(parallelism, true);
+    }
+
+    private static <O> Outcome<O> await(Future<O> future) {
+        try {
+            return Outcome.success(future.get());
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            return Outcome.failure((Exception) e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for parallel tasks", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E extends Exception> E rethrow(Exception exception) {
+        if (exception instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+
+        // The compiler ensures that a task can only throw checked exceptions of type E
+        return (E) exception;
+    }
+
+    @FunctionalInterface
+    public interface ItemTask<I, O, E extends Exception> {
+        O apply(I item) throws E;
+    }
+
+    /**
+     * The outcome of a single task, either its result or the exception it failed with.
+     *
+     * @param value   the result, null if the task failed (or returned null)
+     * @param failure the exception, null if the task was successful
+     */
+    public record Outcome<T>(@Nullable T value, @Nullable Exception failure) {
+        public static <T> Outcome<T> success(@Nullable T value) {
+            return new Outcome<>(value, null);
+        }
+
+        public static <T> Outcome<T> failure(Exception failure) {
+            return new Outcome<>(null, failure);
+        }
+
+        public boolean isSuccessful() {
+            return this.failure == null;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spaces out operations (e.g. write requests in bulk operations) so that at most a fixed number of them is started
+ * per second, regardless of how many threads are issuing them.
+ */
+public final class RateLimiter {
+    private static final RateLimiter UNLIMITED = new RateLimiter(0);
+
+    private final long intervalNanos;
+    private long nextFreeSlot = System.nanoTime();
+
+    private RateLimiter(long intervalNanos) {
+        this.intervalNanos = intervalNanos;
+    }
+
+    /**
+     * @param permitsPerSecond the maximum number of operations per second, must be positive
+     */
+    public static RateLimiter perSecond(double permitsPerSecond) {
+        if (!(permitsPerSecond > 0)) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive, but was " + permitsPerSecond);
+        }
+        return new RateLimiter((long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+    }
+
+    public static RateLimiter unlimited() {
+        return UNLIMITED;
+    }
+
+    /**
+     * Blocks until the caller may start the next operation.
+     */
+    public void acquire() throws InterruptedException {
+        if (this.intervalNanos == 0) {
+            return;
+        }
+
+        long wait = this.reserve();
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+
+    /**
+     * @return the minimum time between two operations
+     */
+    public Duration getInterval() {
+        return Duration.ofNanos(this.intervalNanos);
+    }
+
+    private synchronized long reserve() {
+        long now = System.nanoTime();
+        long slot = Math.max(now, this.nextFreeSlot);
+        this.nextFreeSlot = slot + this.intervalNanos;
+        return slot - now;
+    }
+}
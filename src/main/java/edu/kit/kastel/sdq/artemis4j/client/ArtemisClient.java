@@ -2,10 +2,19 @@
 package edu.kit.kastel.sdq.artemis4j.client;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.JsonInclude;
@@ -41,15 +50,34 @@ public class ArtemisClient {
     private final String jwtToken;
     private final @Nullable String password;
     private final OkHttpClient client;
+    private volatile @Nullable ResponseCache responseCache;
+    private volatile Consumer<HttpUrl> responseCacheChangeListener = url -> {};
+    // Cached responses are revalidated at most once per client, i.e. once per session
+    private final Set<String> revalidatedKeys = ConcurrentHashMap.newKeySet();
+    private final LongAdder responseCacheHits = new LongAdder();
+    private final LongAdder responseCacheMisses = new LongAdder();
+    private final AtomicLong nextRequestId = new AtomicLong();
+    private final Map<Long, PendingRequest> inFlightRequests = new ConcurrentHashMap<>();
+    private final LongFeedbackCache longFeedbackCache = new LongFeedbackCache(LongFeedbackCache.DEFAULT_MAX_ENTRIES);
 
     public static ArtemisClient fromUsernamePassword(ArtemisInstance artemis, String username, String password)
             throws ArtemisNetworkException {
+        // The client is just used for login
+        return fromUsernamePassword(artemis, username, password, new OkHttpClient());
+    }
+
+    /**
+     * Logs in and creates a client that shares the connection pool and dispatcher of the given transport.
+     * This is useful if many clients (e.g. for different users) talk to the same Artemis instance.
+     */
+    public static ArtemisClient fromUsernamePassword(
+            ArtemisInstance artemis, String username, String password, OkHttpClient transport)
+            throws ArtemisNetworkException {
         if (username == null || password == null) {
             throw new IllegalArgumentException("Username and password must not be null");
         }
 
-        // The client is just used for login
-        var client = new OkHttpClient();
+        var client = transport;
 
         var payload = ArtemisClient.encodeJSON(new AuthenticationDTO(username, password));
         var request = new Request.Builder()
@@ -75,7 +103,7 @@ public class ArtemisClient {
             throw new ArtemisNetworkException(ex);
         }
 
-        return new ArtemisClient(artemis, jwtToken, password);
+        return new ArtemisClient(artemis, jwtToken, password, transport);
     }
 
     /**
@@ -87,10 +115,23 @@ public class ArtemisClient {
      *                 for auth via Shibboleth).
      */
     public ArtemisClient(ArtemisInstance artemis, String jwtToken, @Nullable String password) {
+        this(artemis, jwtToken, password, new OkHttpClient());
+    }
+
+    /**
+     * Creates a new ArtemisClient that shares the connection pool and dispatcher of the given transport.
+     *
+     * @param artemis   The artemis instance to which to connect to
+     * @param jwtToken  The token to be used for requests
+     * @param password  (optional) an Artemis password. May be null if not used
+     * @param transport The http client whose sockets and threads should be reused
+     */
+    public ArtemisClient(
+            ArtemisInstance artemis, String jwtToken, @Nullable String password, OkHttpClient transport) {
         this.artemis = Objects.requireNonNull(artemis);
         this.jwtToken = Objects.requireNonNull(jwtToken);
         this.password = password;
-        this.client = buildHttpClient(artemis, jwtToken);
+        this.client = buildHttpClient(artemis, jwtToken, transport);
     }
 
     public String getJWTToken() {
@@ -105,8 +146,79 @@ public class ArtemisClient {
         return this.artemis;
     }
 
+    LongFeedbackCache getLongFeedbackCache() {
+        return this.longFeedbackCache;
+    }
+
+    /**
+     * Configures a cache for requests marked with {@link ArtemisRequest#cacheable(boolean)}.
+     * Cached responses are returned immediately, and revalidated once in the background.
+     *
+     * @param responseCache  the cache, or null to disable caching
+     * @param changeListener called (on a background thread) with the URL of a request whose cached response
+     *                       turned out to be outdated during revalidation
+     */
+    public void setResponseCache(@Nullable ResponseCache responseCache, Consumer<HttpUrl> changeListener) {
+        this.responseCache = responseCache;
+        this.responseCacheChangeListener = Objects.requireNonNull(changeListener);
+        this.revalidatedKeys.clear();
+    }
+
+    /**
+     * Drops the cached response for the URL, e.g. after the data behind it has been changed via this client, so
+     * that the next request fetches it from Artemis instead of serving the outdated response.
+     */
+    public void invalidateCachedResponse(HttpUrl url) {
+        String key = url.toString();
+        var cache = this.responseCache;
+        if (cache != null) {
+            cache.remove(key);
+        }
+        // A new cache hit must be revalidated again
+        this.revalidatedKeys.remove(key);
+    }
+
     public <R> @Nullable R call(Request request, @Nullable Class<R> resultClass) throws ArtemisNetworkException {
+        return this.call(request, resultClass, false);
+    }
+
+    <R> @Nullable R call(Request request, @Nullable Class<R> resultClass, boolean cacheable)
+            throws ArtemisNetworkException {
+        var cache = this.responseCache;
+        if (!cacheable || cache == null || resultClass == null) {
+            return this.callUncached(request, resultClass);
+        }
+
+        String key = request.url().toString();
+        var cached = cache.get(key);
+        if (cached.isPresent()) {
+            try {
+                var decoded = this.decodeJSON(cached.get(), resultClass);
+                this.responseCacheHits.increment();
+                log.info("Serving {} request to '{}' from cache", request.method(), request.url());
+                if (this.revalidatedKeys.add(key)) {
+                    this.revalidateInBackground(request, cache, cached.get());
+                }
+                return decoded;
+            } catch (ArtemisNetworkException e) {
+                // E.g. the DTO has changed since the response was cached
+                log.warn("Discarding cached response to '{}' that can't be decoded", request.url(), e);
+                cache.remove(key);
+            }
+        }
+
+        this.responseCacheMisses.increment();
+        String body = this.callUncached(request, String.class);
+        cache.put(key, body);
+        this.revalidatedKeys.add(key);
+        return this.decodeJSON(body, resultClass);
+    }
+
+    private <R> @Nullable R callUncached(Request request, @Nullable Class<R> resultClass)
+            throws ArtemisNetworkException {
         log.info("{} request to '{}'", request.method(), request.url());
+        long requestId = this.nextRequestId.incrementAndGet();
+        this.inFlightRequests.put(requestId, new PendingRequest(request, System.nanoTime()));
         try (var response = client.newCall(request).execute()) {
             log.info("Got response code {}", response.code());
             throwIfStatusUnsuccessful(response);
@@ -117,9 +229,54 @@ public class ArtemisClient {
             return this.decodeJSON(response.body().string(), resultClass);
         } catch (IOException e) {
             throw new ArtemisNetworkException(e);
+        } finally {
+            this.inFlightRequests.remove(requestId);
         }
     }
 
+    /**
+     * Takes a snapshot of the transport and the requests of this client. This only reads counters, so it is cheap
+     * enough to be called frequently.
+     */
+    public ClientDiagnostics diagnostics() {
+        long now = System.nanoTime();
+        List<ClientDiagnostics.InFlightRequest> pending = new ArrayList<>();
+        for (var request : this.inFlightRequests.values()) {
+            pending.add(new ClientDiagnostics.InFlightRequest(
+                    request.request().method(),
+                    request.request().url().toString(),
+                    Duration.ofNanos(now - request.startedAt())));
+        }
+        pending.sort(Comparator.comparing(ClientDiagnostics.InFlightRequest::elapsed).reversed());
+
+        var pool = this.client.connectionPool();
+        var dispatcher = this.client.dispatcher();
+        return new ClientDiagnostics(
+                pool.connectionCount(),
+                pool.idleConnectionCount(),
+                dispatcher.runningCallsCount(),
+                dispatcher.queuedCallsCount(),
+                pending,
+                this.responseCacheHits.sum(),
+                this.responseCacheMisses.sum());
+    }
+
+    private void revalidateInBackground(Request request, ResponseCache cache, String cachedBody) {
+        Thread.ofVirtual().name("artemis4j-revalidate").start(() -> {
+            try {
+                String body = this.callUncached(request, String.class);
+                cache.put(request.url().toString(), body);
+                if (!body.equals(cachedBody)) {
+                    log.info("Cached response for '{}' was outdated", request.url());
+                    this.responseCacheChangeListener.accept(request.url());
+                }
+            } catch (ArtemisNetworkException e) {
+                // Keep serving the cached response, the next session will try again
+                log.warn("Failed to revalidate the cached response for '{}'", request.url(), e);
+            }
+        });
+    }
+
     @SuppressWarnings("unchecked")
     public <R> R decodeJSON(String json, Class<R> resultClass) throws ArtemisNetworkException {
         if (resultClass == String.class) {
@@ -149,11 +306,13 @@ public class ArtemisClient {
     public static void throwIfStatusUnsuccessful(Response response) throws ArtemisNetworkException {
         if (!response.isSuccessful()) {
             try {
-                throw new ArtemisNetworkException("Got response code " + response.code() + " with body "
-                        + response.body().string());
+                throw new ArtemisNetworkException(
+                        "Got response code " + response.code() + " with body " + response.body().string(),
+                        response.code());
             } catch (IOException e) {
                 log.error("Failed to decode the Artemis error response body", e);
-                throw new ArtemisNetworkException("Got response code " + response.code() + " with an unreadable body");
+                throw new ArtemisNetworkException(
+                        "Got response code " + response.code() + " with an unreadable body", response.code());
             }
         }
     }
@@ -179,8 +338,10 @@ public class ArtemisClient {
         return oom;
     }
 
-    private static OkHttpClient buildHttpClient(ArtemisInstance artemis, String jwtToken) {
-        var builder = new OkHttpClient.Builder()
+    private static OkHttpClient buildHttpClient(ArtemisInstance artemis, String jwtToken, OkHttpClient transport) {
+        // newBuilder() shares the connection pool and dispatcher with the transport
+        var builder = transport
+                .newBuilder()
                 .connectTimeout(5, TimeUnit.SECONDS)
                 .callTimeout(20, TimeUnit.SECONDS)
                 .readTimeout(20, TimeUnit.SECONDS)
@@ -211,4 +372,6 @@ public class ArtemisClient {
 
         return builder.build();
     }
+
+    private record PendingRequest(Request request, long startedAt) {}
 }
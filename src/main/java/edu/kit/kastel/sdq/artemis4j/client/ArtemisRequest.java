@@ -14,6 +14,7 @@ public class ArtemisRequest {
     private final String method;
     private List<Object> path;
     private boolean managementRequest = false;
+    private boolean cacheable = false;
     private final Map<String, Object> requestParams = new HashMap<>();
     private Object body;
 
@@ -53,6 +54,22 @@ public class ArtemisRequest {
         return this;
     }
 
+    /**
+     *
+     * @param cacheable whether the response may be served from the client's
+     *                  {@link ResponseCache} (if one is configured). Only use this
+     *                  for rarely changing metadata, since cached responses are
+     *                  returned before they are revalidated.
+     */
+    public ArtemisRequest cacheable(boolean cacheable) {
+        if (!this.method.equals("GET")) {
+            throw new IllegalArgumentException("Only GET requests can be cached");
+        }
+
+        this.cacheable = cacheable;
+        return this;
+    }
+
     public <E> ArtemisRequest body(E entity) {
         if (this.method.equals("GET")) {
             throw new IllegalArgumentException("GET requests cannot have a body");
@@ -77,7 +94,16 @@ public class ArtemisRequest {
         }
 
         request.url(client.getInstance().url(this.path, this.requestParams, this.managementRequest));
-        return client.call(request.build(), resultClass);
+        return client.call(request.build(), resultClass, this.cacheable);
+    }
+
+    /**
+     * Drops the cached response of this request from the client's {@link ResponseCache}, e.g. after changing the
+     * data behind it.
+     */
+    public void invalidateCached(ArtemisClient client) {
+        client.invalidateCachedResponse(
+                client.getInstance().url(this.path, this.requestParams, this.managementRequest));
     }
 
     public <R> Optional<R> executeAndDecodeMaybe(ArtemisClient client, Class<R> resultClass)
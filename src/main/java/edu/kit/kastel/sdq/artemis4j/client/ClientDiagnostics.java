@@ -0,0 +1,38 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j.client;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * A snapshot of the HTTP transport and request activity of an {@link ArtemisClient}.
+ * <p>
+ * The connection and call counts describe the underlying transport, which might be shared with other clients
+ * (see {@link ArtemisClient#ArtemisClient(ArtemisInstance, String, String, okhttp3.OkHttpClient)}).
+ *
+ * @param connections         the number of open connections in the connection pool
+ * @param idleConnections     the number of connections in the pool that are currently not used
+ * @param runningCalls        the number of calls that are currently executed by the transport
+ * @param queuedCalls         the number of asynchronous calls waiting for execution
+ * @param inFlightRequests    the requests of this client that have not finished yet, longest-running first
+ * @param responseCacheHits   the number of cacheable requests that were answered from the response cache
+ * @param responseCacheMisses the number of cacheable requests that had to be sent to Artemis
+ */
+public record ClientDiagnostics(
+        int connections,
+        int idleConnections,
+        int runningCalls,
+        int queuedCalls,
+        List<InFlightRequest> inFlightRequests,
+        long responseCacheHits,
+        long responseCacheMisses) {
+    /**
+     * @return the share of cacheable requests that were answered from the response cache, 0 if there were none
+     */
+    public double responseCacheHitRatio() {
+        long total = this.responseCacheHits + this.responseCacheMisses;
+        return total == 0 ? 0.0 : (double) this.responseCacheHits / total;
+    }
+
+    public record InFlightRequest(String method, String url, Duration elapsed) {}
+}
@@ -66,12 +66,19 @@ public record CourseDTO(
     }
 
     public static List<CourseDTO> fetchAll(ArtemisClient client) throws ArtemisNetworkException {
-        var courses = ArtemisRequest.get()
-                .path(List.of("core", "courses", "with-user-stats"))
-                .executeAndDecode(client, CourseDTO[].class);
+        var courses = fetchAllRequest().executeAndDecode(client, CourseDTO[].class);
         return Arrays.asList(courses);
     }
 
+    /**
+     * Drops the cached responses of {@link #fetchAll(ArtemisClient)} and
+     * {@link #fetchForDashboard(ArtemisClient)}, e.g. after creating or deleting a course.
+     */
+    public static void invalidateCached(ArtemisClient client) {
+        fetchAllRequest().invalidateCached(client);
+        fetchForDashboardRequest().invalidateCached(client);
+    }
+
     public static List<CourseDTO> fetchForEnrollment(ArtemisClient client) throws ArtemisNetworkException {
         var courses = ArtemisRequest.get()
                 .path(List.of("core", "courses", "for-enrollment"))
@@ -80,12 +87,22 @@ public record CourseDTO(
     }
 
     public static List<CourseDTO> fetchForDashboard(ArtemisClient client) throws ArtemisNetworkException {
-        var courses = ArtemisRequest.get()
-                .path(List.of("core", "courses", "for-dashboard"))
-                .executeAndDecode(client, CoursesForDashboardDTO.class);
+        var courses = fetchForDashboardRequest().executeAndDecode(client, CoursesForDashboardDTO.class);
         return courses.courses().stream().map(CourseForDashboardDTO::course).toList();
     }
 
+    private static ArtemisRequest fetchAllRequest() {
+        return ArtemisRequest.get()
+                .path(List.of("core", "courses", "with-user-stats"))
+                .cacheable(true);
+    }
+
+    private static ArtemisRequest fetchForDashboardRequest() {
+        return ArtemisRequest.get()
+                .path(List.of("core", "courses", "for-dashboard"))
+                .cacheable(true);
+    }
+
     private record CoursesForDashboardDTO(
             @JsonProperty List<CourseForDashboardDTO> courses,
             @JsonProperty List<ExamDTO> activeExams) {}
@@ -153,8 +170,13 @@ public record CourseDTO(
 
     public static void removeTutor(ArtemisClient client, long courseId, String tutorLogin)
             throws ArtemisNetworkException {
+        removeUserFromCourse(client, courseId, tutorLogin, CourseRole.TUTOR);
+    }
+
+    public static void removeUserFromCourse(ArtemisClient client, long courseId, String userLogin, CourseRole role)
+            throws ArtemisNetworkException {
         ArtemisRequest.delete()
-                .path(List.of("core", "courses", courseId, "tutors", tutorLogin))
+                .path(List.of("core", "courses", courseId, role.toString(), userLogin))
                 .execute(client);
     }
 
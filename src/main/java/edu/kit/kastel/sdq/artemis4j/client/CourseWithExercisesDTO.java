@@ -0,0 +1,36 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j.client;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import edu.kit.kastel.sdq.artemis4j.ArtemisNetworkException;
+
+/**
+ * Artemis doesn't return the list of exercises directly, but only the list a
+ * specific course with the exercises attached. We don't care about the course
+ * here, so this wrapper class exists.
+ */
+record CourseWithExercisesDTO(@JsonProperty List<ExerciseDTO> exercises) {
+    CourseWithExercisesDTO {
+        if (exercises == null) {
+            exercises = List.of();
+        }
+    }
+
+    static List<ExerciseDTO> fetch(ArtemisClient client, long courseId) throws ArtemisNetworkException {
+        return request(courseId)
+                .executeAndDecode(client, CourseWithExercisesDTO.class)
+                .exercises();
+    }
+
+    static void invalidateCached(ArtemisClient client, long courseId) {
+        request(courseId).invalidateCached(client);
+    }
+
+    private static ArtemisRequest request(long courseId) {
+        return ArtemisRequest.get()
+                .path(List.of("core", "courses", courseId, "with-exercises"))
+                .cacheable(true);
+    }
+}
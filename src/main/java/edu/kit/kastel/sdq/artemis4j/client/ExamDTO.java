@@ -21,14 +21,26 @@ public record ExamDTO(
      * full exam.
      */
     public static List<ExamDTO> fetchAll(ArtemisClient client, long courseId) throws ArtemisNetworkException {
-        return List.of(ArtemisRequest.get()
+        return List.of(fetchAllRequest(courseId).executeAndDecode(client, ExamDTO[].class));
+    }
+
+    /**
+     * Drops the cached response of {@link #fetchAll(ArtemisClient, long)}, e.g. after deleting the course.
+     */
+    public static void invalidateCachedForCourse(ArtemisClient client, long courseId) {
+        fetchAllRequest(courseId).invalidateCached(client);
+    }
+
+    private static ArtemisRequest fetchAllRequest(long courseId) {
+        return ArtemisRequest.get()
                 .path(List.of("exam", "courses", courseId, "exams"))
-                .executeAndDecode(client, ExamDTO[].class));
+                .cacheable(true);
     }
 
     public static ExamDTO fetch(ArtemisClient client, long courseId, long examId) throws ArtemisNetworkException {
         return ArtemisRequest.get()
                 .path(List.of("exam", "courses", courseId, "exams", examId, "exam-for-assessment-dashboard"))
+                .cacheable(true)
                 .executeAndDecode(client, ExamDTO.class);
     }
 }
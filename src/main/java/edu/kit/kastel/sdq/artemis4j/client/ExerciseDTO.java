@@ -1,8 +1,11 @@
 /* Licensed under EPL-2.0 2026. */
 package edu.kit.kastel.sdq.artemis4j.client;
 
+import java.util.List;
+
 import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import edu.kit.kastel.sdq.artemis4j.ArtemisNetworkException;
 
 @JsonTypeInfo(
         use = JsonTypeInfo.Id.NAME,
@@ -14,4 +17,24 @@ import com.fasterxml.jackson.annotation.JsonTypeInfo;
     @JsonSubTypes.Type(value = ProgrammingExerciseDTO.class, name = "programming"),
     @JsonSubTypes.Type(value = TextExerciseDTO.class, name = "text"),
 })
-public sealed interface ExerciseDTO permits ProgrammingExerciseDTO, TextExerciseDTO, UnknownExerciseDTO {}
+public sealed interface ExerciseDTO permits ProgrammingExerciseDTO, TextExerciseDTO, UnknownExerciseDTO {
+    /**
+     * Fetch all exercises of a course, regardless of their type, with a single request.
+     *
+     * @param client   the artemis client to use
+     * @param courseId the id of the course
+     * @return the exercises, including exercises of unknown types
+     * @throws ArtemisNetworkException if the request fails
+     */
+    static List<ExerciseDTO> fetchAllForCourse(ArtemisClient client, long courseId) throws ArtemisNetworkException {
+        return CourseWithExercisesDTO.fetch(client, courseId);
+    }
+
+    /**
+     * Drops the cached response of {@link #fetchAllForCourse(ArtemisClient, long)}, e.g. after creating or deleting
+     * an exercise.
+     */
+    static void invalidateCachedForCourse(ArtemisClient client, long courseId) {
+        CourseWithExercisesDTO.invalidateCached(client, courseId);
+    }
+}
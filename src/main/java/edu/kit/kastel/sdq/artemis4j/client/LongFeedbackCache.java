@@ -0,0 +1,54 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j.client;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Caches the long detail texts of feedbacks by feedback id, so that reopening an assessment doesn't fetch them again.
+ * <p>
+ * The texts of a feedback never change, but saving an assessment replaces its feedbacks. So when the client saves
+ * an assessment, all texts of the participation are dropped. The least recently used texts are dropped once the
+ * cache holds more than the maximum number of texts.
+ */
+final class LongFeedbackCache {
+    static final int DEFAULT_MAX_ENTRIES = 2048;
+
+    private final int maxEntries;
+    // Guarded by this, in access order for the LRU eviction
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    LongFeedbackCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    synchronized Optional<String> get(long feedbackId) {
+        return Optional.ofNullable(this.entries.get(feedbackId)).map(Entry::text);
+    }
+
+    synchronized void put(long feedbackId, long participationId, String text) {
+        this.entries.put(feedbackId, new Entry(participationId, text));
+        if (this.entries.size() > this.maxEntries) {
+            Iterator<Long> eldest = this.entries.keySet().iterator();
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    synchronized void invalidateParticipation(long participationId) {
+        Iterator<Map.Entry<Long, Entry>> iterator = this.entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getValue().participationId() == participationId) {
+                iterator.remove();
+            }
+        }
+    }
+
+    synchronized int size() {
+        return this.entries.size();
+    }
+
+    private record Entry(long participationId, String text) {}
+}
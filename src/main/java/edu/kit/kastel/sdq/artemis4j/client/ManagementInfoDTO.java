@@ -17,6 +17,7 @@ public record ManagementInfoDTO(@JsonProperty @Nullable String sshCloneURLTempla
         return ArtemisRequest.get()
                 .path(List.of("management", "info"))
                 .managementRequest(true)
+                .cacheable(true)
                 .executeAndDecode(client, ManagementInfoDTO.class);
     }
 }
@@ -0,0 +1,311 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j.client;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import edu.kit.kastel.sdq.artemis4j.ArtemisClientException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link ResponseCache} that persists the responses on disk, so that they survive restarts of the tool.
+ * <p>
+ * Each instance+user pair gets its own directory below a versioned root, so that a format change or a
+ * different account never sees foreign entries. The directory of a user is named after the hash of their
+ * login, so that logins that only differ in special characters don't share one. Every entry is a single
+ * file containing a small binary header (magic, format version, key, CRC) followed by the gzip-compressed
+ * body. Entries that can't be read are deleted and treated as missing. The total size of the entries is
+ * kept as a running sum, and once it exceeds the configured limit, the directory is scanned and the least
+ * recently written entries are evicted.
+ */
+public final class PersistentResponseCache implements ResponseCache {
+    private static final Logger log = LoggerFactory.getLogger(PersistentResponseCache.class);
+
+    public static final long DEFAULT_MAX_BYTES = 16L * 1024 * 1024;
+
+    private static final int MAGIC = 0x41344A43; // "A4JC"
+    private static final short FORMAT_VERSION = 1;
+    private static final String ENTRY_SUFFIX = ".bin";
+
+    private final Path directory;
+    private final long maxBytes;
+    // Updated on every write and delete, and recounted when the size limit is enforced. Guarded by this.
+    private int knownEntries = 0;
+    private long knownBytes = 0;
+
+    private PersistentResponseCache(Path directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Opens (and creates if necessary) the cache for the user of the given client.
+     *
+     * @param root     the root directory for all caches, e.g. a folder in the IDE's system directory
+     * @param client   the client whose instance and user determine the cache directory
+     * @param maxBytes the maximum size of all entries of this user, must be positive
+     * @throws ArtemisClientException if the directory can't be created
+     */
+    public static PersistentResponseCache open(Path root, ArtemisClient client, long maxBytes)
+            throws ArtemisClientException {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes must be positive, but was " + maxBytes);
+        }
+
+        Path directory = root.resolve("v" + FORMAT_VERSION)
+                .resolve(sanitize(client.getInstance().getDomain()))
+                .resolve(sha256(userOf(client)));
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new ArtemisClientException("Failed to create the cache directory " + directory, e);
+        }
+        var cache = new PersistentResponseCache(directory, maxBytes);
+        try {
+            cache.enforceSizeLimit();
+        } catch (IOException e) {
+            log.warn("Failed to check the size of the cache {}", directory, e);
+        }
+        return cache;
+    }
+
+    @Override
+    public Optional<String> get(String key) {
+        Path file = this.entryFile(key);
+        if (!Files.exists(file)) {
+            return Optional.empty();
+        }
+
+        try (var input = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(file)))) {
+            if (input.readInt() != MAGIC || input.readShort() != FORMAT_VERSION) {
+                throw new IOException("Unknown entry format");
+            }
+            if (!input.readUTF().equals(key)) {
+                throw new IOException("Entry belongs to a different key");
+            }
+
+            long checksum = input.readLong();
+            byte[] payload = input.readNBytes(input.readInt());
+            var crc = new CRC32();
+            crc.update(payload);
+            if (crc.getValue() != checksum) {
+                throw new IOException("Checksum mismatch");
+            }
+
+            try (var gzip = new GZIPInputStream(new ByteArrayInputStream(payload))) {
+                return Optional.of(new String(gzip.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        } catch (IOException e) {
+            log.warn("Discarding corrupt cache entry {} for {}", file, key, e);
+            this.deleteQuietly(file);
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void put(String key, String body) {
+        Path file = this.entryFile(key);
+        try {
+            var compressed = new ByteArrayOutputStream();
+            try (var gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+            byte[] payload = compressed.toByteArray();
+            var crc = new CRC32();
+            crc.update(payload);
+
+            var entry = new ByteArrayOutputStream(payload.length + key.length() + 32);
+            try (var output = new DataOutputStream(entry)) {
+                output.writeInt(MAGIC);
+                output.writeShort(FORMAT_VERSION);
+                output.writeUTF(key);
+                output.writeLong(crc.getValue());
+                output.writeInt(payload.length);
+                output.write(payload);
+            }
+
+            // Write to a temporary file first, so that a crash never leaves a half-written entry behind
+            Path temporary = Files.createTempFile(this.directory, "entry", ".tmp");
+            Files.write(temporary, entry.toByteArray());
+            long replacedBytes = sizeOrZero(file);
+            try {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            if (this.recordChange(replacedBytes == 0 ? 1 : 0, entry.size() - replacedBytes)) {
+                this.enforceSizeLimit();
+            }
+        } catch (IOException e) {
+            // The cache is only an optimization, so failing to write it is not fatal
+            log.warn("Failed to write cache entry for {}", key, e);
+        }
+    }
+
+    @Override
+    public void remove(String key) {
+        this.deleteQuietly(this.entryFile(key));
+    }
+
+    /**
+     * Deletes all entries of this cache.
+     */
+    public void clear() throws ArtemisClientException {
+        try {
+            for (Path entry : this.listEntries()) {
+                Files.deleteIfExists(entry);
+            }
+            synchronized (this) {
+                this.knownEntries = 0;
+                this.knownBytes = 0;
+            }
+        } catch (IOException e) {
+            throw new ArtemisClientException("Failed to clear the cache " + this.directory, e);
+        }
+    }
+
+    public Path getDirectory() {
+        return this.directory;
+    }
+
+    /**
+     * @return the number of entries, as counted by this cache. Doesn't touch the disk.
+     */
+    public synchronized int getEntryCount() {
+        return this.knownEntries;
+    }
+
+    /**
+     * @return the total size of all entries in bytes, as counted by this cache. Doesn't touch the disk.
+     */
+    public synchronized long getSizeInBytes() {
+        return this.knownBytes;
+    }
+
+    /**
+     * @return true if the running total exceeds the size limit
+     */
+    private synchronized boolean recordChange(int entries, long bytes) {
+        this.knownEntries += entries;
+        this.knownBytes += bytes;
+        return this.knownBytes > this.maxBytes;
+    }
+
+    /**
+     * Recounts the entries on disk, and evicts the least recently written ones while the limit is exceeded.
+     */
+    private synchronized void enforceSizeLimit() throws IOException {
+        List<Path> entries = new ArrayList<>(this.listEntries());
+        long total = 0;
+        for (Path entry : entries) {
+            total += Files.size(entry);
+        }
+        if (total > this.maxBytes) {
+            entries.sort(Comparator.comparing(PersistentResponseCache::lastModified));
+            while (total > this.maxBytes && !entries.isEmpty()) {
+                Path entry = entries.removeFirst();
+                total -= Files.size(entry);
+                log.info("Evicting cache entry {} to stay below {} bytes", entry, this.maxBytes);
+                Files.deleteIfExists(entry);
+            }
+        }
+
+        this.knownEntries = entries.size();
+        this.knownBytes = total;
+    }
+
+    private List<Path> listEntries() throws IOException {
+        try (var files = Files.list(this.directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(ENTRY_SUFFIX))
+                    .toList();
+        }
+    }
+
+    private Path entryFile(String key) {
+        return this.directory.resolve(sha256(key) + ENTRY_SUFFIX);
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            long bytes = sizeOrZero(file);
+            if (Files.deleteIfExists(file)) {
+                this.recordChange(-1, -bytes);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to delete cache entry {}", file, e);
+        }
+    }
+
+    private static long sizeOrZero(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            // Most likely, the file doesn't exist
+            return 0;
+        }
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Artemis JWTs contain the login of the user as the subject. If the token can't be parsed, the hash of
+     * the token is used instead, which is safe but only stable for the lifetime of the token.
+     */
+    private static String userOf(ArtemisClient client) {
+        String[] parts = client.getJWTToken().split("\\.");
+        if (parts.length == 3) {
+            try {
+                byte[] payload = Base64.getUrlDecoder().decode(parts[1]);
+                var claims = ArtemisClient.MAPPER.readValue(payload, Map.class);
+                if (claims.get("sub") instanceof String subject && !subject.isBlank()) {
+                    return subject;
+                }
+            } catch (IllegalArgumentException | IOException e) {
+                log.debug("Failed to parse the JWT, falling back to the token hash", e);
+            }
+        }
+        return "token-" + sha256(client.getJWTToken());
+    }
+
+    private static String sanitize(String name) {
+        return name.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    private static String sha256(String value) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            // Every JVM is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -23,11 +23,8 @@ public record ProgrammingExerciseDTO(
 
     public static List<ProgrammingExerciseDTO> fetchAll(ArtemisClient client, long courseId)
             throws ArtemisNetworkException {
-        var exercises = ArtemisRequest.get()
-                .path(List.of("core", "courses", courseId, "with-exercises"))
-                .executeAndDecode(client, ExerciseWrapperDTO.class);
         // Remove all non-programming exercises
-        return exercises.exercises().stream()
+        return ExerciseDTO.fetchAllForCourse(client, courseId).stream()
                 .filter(e -> e instanceof ProgrammingExerciseDTO)
                 .map(e -> (ProgrammingExerciseDTO) e)
                 .toList();
@@ -50,19 +47,4 @@ public record ProgrammingExerciseDTO(
                 .param("deleteBaseReposBuildPlans", deleteBaseReposBuildPlans)
                 .execute(client);
     }
-
-    /**
-     * Artemis doesn't return the list of exercises directly, but only the list a
-     * specific course with the exercises attached. We don't care about the course
-     * here, so this wrapper class exists.
-     *
-     * @param exercises
-     */
-    private record ExerciseWrapperDTO(List<ExerciseDTO> exercises) {
-        private ExerciseWrapperDTO {
-            if (exercises == null) {
-                exercises = List.of();
-            }
-        }
-    }
 }
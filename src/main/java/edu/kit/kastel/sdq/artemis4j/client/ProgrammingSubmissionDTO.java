@@ -72,6 +72,8 @@ public record ProgrammingSubmissionDTO(
                 .param("submit", submit)
                 .body(result)
                 .execute(client);
+        // Saving replaces the feedbacks of the result, so their long texts are outdated
+        client.getLongFeedbackCache().invalidateParticipation(participationId);
     }
 
     public static Optional<ProgrammingSubmissionDTO> getLatestSubmissionWithResult(
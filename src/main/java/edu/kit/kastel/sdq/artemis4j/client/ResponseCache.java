@@ -0,0 +1,33 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j.client;
+
+import java.util.Optional;
+
+/**
+ * A cache for the raw bodies of GET requests that have been marked as cacheable via
+ * {@link ArtemisRequest#cacheable(boolean)}.
+ * <p>
+ * Cached bodies are served immediately, and the {@link ArtemisClient} revalidates them in the background.
+ */
+public interface ResponseCache {
+    /**
+     * @param key the key of the request, i.e. its full URL
+     * @return the cached body, or empty if nothing (valid) is cached
+     */
+    Optional<String> get(String key);
+
+    /**
+     * Stores the body of a successful response.
+     *
+     * @param key  the key of the request, i.e. its full URL
+     * @param body the raw response body
+     */
+    void put(String key, String body);
+
+    /**
+     * Removes the entry, e.g. because the data behind it has been changed. Does nothing if there is no entry.
+     *
+     * @param key the key of the request, i.e. its full URL
+     */
+    void remove(String key);
+}
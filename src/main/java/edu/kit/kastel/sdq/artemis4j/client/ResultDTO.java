@@ -8,6 +8,7 @@ import java.util.List;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import edu.kit.kastel.sdq.artemis4j.ArtemisNetworkException;
+import edu.kit.kastel.sdq.artemis4j.ParallelTasks;
 import edu.kit.kastel.sdq.artemis4j.grading.ProgrammingSubmission;
 import org.jspecify.annotations.Nullable;
 
@@ -35,6 +36,11 @@ public record ResultDTO(
         @JsonProperty int passedTestCaseCount,
         @JsonProperty int codeIssueCount) {
 
+    /**
+     * The maximum number of long feedback texts that are fetched concurrently for one result.
+     */
+    private static final int LONG_FEEDBACK_PARALLELISM = 8;
+
     /**
      * BE WARNED: This method takes the (passed) test case count from the lockingResult. It does NOT recalculate it from the feedbacks!
      * Should you for any reason change the test result, DO NOT USE THIS METHOD!
@@ -76,6 +82,7 @@ public record ResultDTO(
                         "results",
                         resultId))
                 .execute(client);
+        client.getLongFeedbackCache().invalidateParticipation(participationId);
     }
 
     private static List<FeedbackDTO> fetchFeedbacks(ArtemisClient client, long resultId, long participationId)
@@ -107,6 +114,22 @@ public record ResultDTO(
             feedbacks = ResultDTO.fetchFeedbacks(client, resultId, participationId);
         }
 
+        var cache = client.getLongFeedbackCache();
+        List<FeedbackDTO> missingLongTexts = new ArrayList<>();
+        for (var feedback : feedbacks) {
+            if (feedback != null
+                    && feedback.hasLongFeedbackText() == Boolean.TRUE
+                    && cache.get(feedback.id()).isEmpty()) {
+                missingLongTexts.add(feedback);
+            }
+        }
+
+        // The long texts are independent, so fetch them concurrently instead of one round trip after another
+        ParallelTasks.map(missingLongTexts, LONG_FEEDBACK_PARALLELISM, feedback -> {
+            cache.put(feedback.id(), participationId, FeedbackDTO.fetchLongFeedback(client, feedback.id()));
+            return null;
+        });
+
         List<FeedbackDTO> cleanedFeedbacks = new ArrayList<>(feedbacks.size());
         for (var feedback : feedbacks) {
             if (feedback == null) {
@@ -115,7 +138,9 @@ public record ResultDTO(
 
             String detailText = feedback.detailText();
             if (feedback.hasLongFeedbackText() == Boolean.TRUE) {
-                detailText = FeedbackDTO.fetchLongFeedback(client, feedback.id());
+                // Only absent if it has been evicted in the meantime
+                var cached = cache.get(feedback.id());
+                detailText = cached.isPresent() ? cached.get() : FeedbackDTO.fetchLongFeedback(client, feedback.id());
             }
             cleanedFeedbacks.add(new FeedbackDTO(detailText, feedback));
         }
@@ -0,0 +1,39 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j.client;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import edu.kit.kastel.sdq.artemis4j.ArtemisNetworkException;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A projection of {@link StudentExamDTO} that contains the state of a student exam and the login of its student.
+ * Of the nested user, only the login is decoded, all other properties are skipped.
+ */
+public record StudentExamLoginDTO(
+        @JsonProperty long id,
+        @JsonProperty boolean submitted,
+        @JsonProperty boolean started,
+        @JsonProperty @Nullable UserLoginDTO user) {
+    public static List<StudentExamLoginDTO> fetchAll(ArtemisClient client, long courseId, long examId)
+            throws ArtemisNetworkException {
+        return Arrays.asList(ArtemisRequest.get()
+                .path(List.of("exam", "courses", courseId, "exams", examId, "student-exams"))
+                .executeAndDecode(client, StudentExamLoginDTO[].class));
+    }
+
+    /**
+     * @return the login of the student, or null if Artemis didn't include the user
+     */
+    public @Nullable String login() {
+        return this.user == null ? null : this.user.login();
+    }
+
+    public StudentExamStateDTO toState() {
+        return new StudentExamStateDTO(this.id, this.submitted, this.started);
+    }
+
+    public record UserLoginDTO(@JsonProperty String login) {}
+}
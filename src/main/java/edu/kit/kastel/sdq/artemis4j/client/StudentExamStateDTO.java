@@ -0,0 +1,22 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j.client;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import edu.kit.kastel.sdq.artemis4j.ArtemisNetworkException;
+
+/**
+ * A projection of {@link StudentExamDTO} that only contains the state of a student exam. The user and all other
+ * properties in the response are skipped while decoding, which makes frequent polling considerably cheaper.
+ */
+public record StudentExamStateDTO(
+        @JsonProperty long id, @JsonProperty boolean submitted, @JsonProperty boolean started) {
+    public static List<StudentExamStateDTO> fetchAll(ArtemisClient client, long courseId, long examId)
+            throws ArtemisNetworkException {
+        return Arrays.asList(ArtemisRequest.get()
+                .path(List.of("exam", "courses", courseId, "exams", examId, "student-exams"))
+                .executeAndDecode(client, StudentExamStateDTO[].class));
+    }
+}
@@ -29,26 +29,10 @@ public record TextExerciseDTO(
      * @throws ArtemisNetworkException if the request fails
      */
     public static List<TextExerciseDTO> fetchAll(ArtemisClient client, long courseId) throws ArtemisNetworkException {
-        var exercises = ArtemisRequest.get()
-                .path(List.of("core", "courses", courseId, "with-exercises"))
-                .executeAndDecode(client, ExerciseWrapperDTO.class);
         // Remove all non-text exercises
-        return exercises.exercises().stream()
+        return ExerciseDTO.fetchAllForCourse(client, courseId).stream()
                 .filter(e -> e instanceof TextExerciseDTO)
                 .map(e -> (TextExerciseDTO) e)
                 .toList();
     }
-
-    /**
-     * Artemis doesn't return the list of exercises directly, but only the list a
-     * specific course with the exercises attached. We don't care about the course
-     * here, so this wrapper class exists.
-     */
-    private record ExerciseWrapperDTO(List<ExerciseDTO> exercises) {
-        private ExerciseWrapperDTO {
-            if (exercises == null) {
-                exercises = List.of();
-            }
-        }
-    }
 }
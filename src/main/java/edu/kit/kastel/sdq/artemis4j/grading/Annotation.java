@@ -6,6 +6,7 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import edu.kit.kastel.sdq.artemis4j.client.AnnotationSource;
 import edu.kit.kastel.sdq.artemis4j.grading.location.Location;
@@ -43,6 +44,8 @@ public final class Annotation {
     // and all annotations with the classifiers ["a", "c"].
     private final List<String> classifiers;
     private final @Nullable Integer annotationLimit;
+    // Counts the changes of the mutable properties, see Assessment#getModificationVersion()
+    private final AtomicInteger modifications = new AtomicInteger();
 
     /**
      * Deserializes an annotation from its metajson format
@@ -181,6 +184,7 @@ public final class Annotation {
         }
 
         this.customMessage = message;
+        this.modifications.incrementAndGet();
     }
 
     /**
@@ -223,6 +227,7 @@ public final class Annotation {
         }
 
         this.customScore = score;
+        this.modifications.incrementAndGet();
     }
 
     public AnnotationSource getSource() {
@@ -235,10 +240,12 @@ public final class Annotation {
 
     public void suppress(UserIdentifier suppressedByUser) {
         this.suppressedByUser = suppressedByUser;
+        this.modifications.incrementAndGet();
     }
 
     public void unsuppress() {
         this.suppressedByUser = null;
+        this.modifications.incrementAndGet();
     }
 
     public boolean isSuppressed() {
@@ -249,6 +256,10 @@ public final class Annotation {
         return Optional.ofNullable(this.suppressedByUser);
     }
 
+    int getModificationCount() {
+        return this.modifications.get();
+    }
+
     /**
      * Serializes this annotation to its metajson format
      */
@@ -1,20 +1,39 @@
 /* Licensed under EPL-2.0 2024-2026. */
 package edu.kit.kastel.sdq.artemis4j.grading;
 
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
 
+import edu.kit.kastel.sdq.artemis4j.ArtemisClientException;
 import edu.kit.kastel.sdq.artemis4j.ArtemisNetworkException;
 import edu.kit.kastel.sdq.artemis4j.LazyNetworkValue;
+import edu.kit.kastel.sdq.artemis4j.ParallelTasks;
+import edu.kit.kastel.sdq.artemis4j.RateLimiter;
 import edu.kit.kastel.sdq.artemis4j.client.ArtemisClient;
 import edu.kit.kastel.sdq.artemis4j.client.ArtemisInstance;
 import edu.kit.kastel.sdq.artemis4j.client.CourseCreateDTO;
 import edu.kit.kastel.sdq.artemis4j.client.CourseDTO;
+import edu.kit.kastel.sdq.artemis4j.client.CourseRole;
+import edu.kit.kastel.sdq.artemis4j.client.ExamDTO;
+import edu.kit.kastel.sdq.artemis4j.client.ExerciseDTO;
 import edu.kit.kastel.sdq.artemis4j.client.ManagementInfoDTO;
+import edu.kit.kastel.sdq.artemis4j.client.PersistentResponseCache;
 import edu.kit.kastel.sdq.artemis4j.client.UserCreateDTO;
 import edu.kit.kastel.sdq.artemis4j.client.UserDTO;
 import edu.kit.kastel.sdq.artemis4j.client.UserSshPublicKeyDTO;
+import okhttp3.HttpUrl;
+import org.jspecify.annotations.Nullable;
 
 /**
  * Represents a connection to Artemis, holding the client and providing access
@@ -25,6 +44,17 @@ public final class ArtemisConnection {
     private final LazyNetworkValue<ManagementInfoDTO> managementInfo;
     private final LazyNetworkValue<User> assessor;
     private final LazyNetworkValue<List<Course>> courses;
+    private final @Nullable SharedConnectionState sharedState;
+    // Weak, so that assessments and clones that are dropped without being closed don't leak
+    private final Set<Assessment> openAssessments =
+            Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+    private final Set<ClonedProgrammingSubmission> clonedSubmissions =
+            Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+    private final AssessmentCounterCache assessmentCounters =
+            new AssessmentCounterCache(AssessmentCounterCache.DEFAULT_RECONCILE_INTERVAL);
+    private final LockMetrics lockMetrics = new LockMetrics();
+    private volatile @Nullable LockLeaseManager lockLeaseManager;
+    private volatile @Nullable PersistentResponseCache persistentCache;
 
     public static ArtemisConnection connectWithUsernamePassword(
             ArtemisInstance artemis, String username, String password) throws ArtemisNetworkException {
@@ -36,13 +66,81 @@ public final class ArtemisConnection {
     }
 
     public ArtemisConnection(ArtemisClient client) {
+        this(client, null);
+    }
+
+    /**
+     * @param sharedState data shared with the other connections of an {@link ArtemisConnectionPool}, or null
+     */
+    ArtemisConnection(ArtemisClient client, @Nullable SharedConnectionState sharedState) {
         this.client = client;
+        this.sharedState = sharedState;
+        // Only used without a pool, pooled connections ask the shared state on every call
         this.managementInfo = new LazyNetworkValue<>(() -> ManagementInfoDTO.fetch(this.client));
         this.assessor = new LazyNetworkValue<>(() -> new User(UserDTO.getAssessingUser(this.client)));
         this.courses = new LazyNetworkValue<>(() ->
                 this.fetchCourses().stream().map(dto -> new Course(dto, this)).toList());
     }
 
+    /**
+     * Enables a persistent on-disk cache for courses, exercises, exams and the management info, see
+     * {@link #enablePersistentCache(Path, long)}. The cache is limited to
+     * {@link PersistentResponseCache#DEFAULT_MAX_BYTES}.
+     */
+    public void enablePersistentCache(Path directory) throws ArtemisClientException {
+        this.enablePersistentCache(directory, PersistentResponseCache.DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * Enables a persistent on-disk cache for courses, exercises, exams and the management info. Cached data
+     * is served immediately (e.g. after a restart of the tool) and revalidated once in the background.
+     * If the revalidation finds that the cached data was outdated, the in-memory values of this connection are
+     * invalidated, so the next access returns the fresh data.
+     * <p>
+     * The assessor is intentionally not cached, since its response contains the user's VCS access token.
+     *
+     * @param directory the root directory for the cache, separate subdirectories are used per instance and user
+     * @param maxBytes  the maximum size of the cache for this user
+     * @throws ArtemisClientException if the cache directory can't be created
+     */
+    public void enablePersistentCache(Path directory, long maxBytes) throws ArtemisClientException {
+        var cache = PersistentResponseCache.open(directory, this.client, maxBytes);
+        this.persistentCache = cache;
+        this.client.setResponseCache(cache, this::onCachedResponseChanged);
+    }
+
+    /**
+     * Drops the in-memory value that has been built from the outdated response. The cache already holds the new
+     * response at this point, so the next access doesn't need another request.
+     */
+    private void onCachedResponseChanged(HttpUrl url) {
+        List<String> segments = url.pathSegments();
+        int size = segments.size();
+        switch (segments.getLast()) {
+            case "info" -> this.managementInfo.invalidate();
+            case "with-user-stats", "for-dashboard" -> this.courses.invalidate();
+            case "with-exercises" -> {
+                long courseId = Long.parseLong(segments.get(size - 2));
+                this.invalidateCourseExercises(courseId);
+                this.findLoadedCourse(courseId).ifPresent(Course::invalidateLoadedExercises);
+            }
+            case "exams" -> this.findLoadedCourse(Long.parseLong(segments.get(size - 2)))
+                    .ifPresent(Course::invalidateLoadedExams);
+            case "exam-for-assessment-dashboard" -> this.findLoadedCourse(Long.parseLong(segments.get(size - 4)))
+                    .flatMap(course -> course.findLoadedExam(Long.parseLong(segments.get(size - 2))))
+                    .ifPresent(Exam::invalidateLoadedExerciseGroups);
+            default -> {
+                // Not held in memory by the connection, so there is nothing to invalidate
+            }
+        }
+    }
+
+    private Optional<Course> findLoadedCourse(long courseId) {
+        return this.courses.getIfLoaded().flatMap(courses -> courses.stream()
+                .filter(course -> course.getId() == courseId)
+                .findAny());
+    }
+
     private List<CourseDTO> fetchCourses() throws ArtemisNetworkException {
         try {
             return CourseDTO.fetchAll(this.client);
@@ -53,11 +151,41 @@ public final class ArtemisConnection {
         }
     }
 
+    /**
+     * @param roles the roles of the user in the course, which determine the exercises the user can see
+     */
+    List<ExerciseDTO> fetchCourseExercises(long courseId, Set<CourseRole> roles) throws ArtemisNetworkException {
+        if (this.sharedState != null) {
+            return this.sharedState.getCourseExercises(this.client, courseId, roles);
+        }
+        return ExerciseDTO.fetchAllForCourse(this.client, courseId);
+    }
+
+    /**
+     * Gets the value, fetching it again if the connection belongs to a pool and the value is older than the pool's
+     * time to live. Without a pool, values are kept until they are invalidated.
+     */
+    <T> T getUnexpired(LazyNetworkValue<T> value) throws ArtemisNetworkException {
+        if (this.sharedState != null && this.sharedState.isExpired(value.getLoadedAt())) {
+            value.invalidate();
+        }
+        return value.get();
+    }
+
+    void invalidateCourseExercises(long courseId) {
+        if (this.sharedState != null) {
+            this.sharedState.invalidateCourseExercises(courseId);
+        }
+    }
+
     public ArtemisClient getClient() {
         return client;
     }
 
     public ManagementInfoDTO getManagementInfo() throws ArtemisNetworkException {
+        if (this.sharedState != null) {
+            return this.sharedState.getManagementInfo(this.client);
+        }
         return managementInfo.get();
     }
 
@@ -70,8 +198,175 @@ public final class ArtemisConnection {
         return getAssessor();
     }
 
+    /**
+     * Fetches the assessor, the courses and (depending on the plan) the management info, exercises and exams
+     * concurrently, so that later calls are answered from memory. Requests without dependencies between them
+     * are issued at the same time, so the warm-up takes roughly as long as the longest chain of requests.
+     * <p>
+     * A failing step does not abort the warm-up, it is reported in the returned report instead.
+     *
+     * @param plan what to fetch
+     * @return the timings and failures of the individual steps
+     */
+    public WarmUpReport warmUp(WarmUpPlan plan) {
+        return new ConnectionWarmUp(this, plan).run();
+    }
+
+    /**
+     * Takes a snapshot of the cached values, the HTTP transport, in-flight requests, open assessments and cloned
+     * workspaces of this connection. Nothing is fetched or read from disk, so this is cheap enough to be polled
+     * frequently, e.g. for a status view.
+     */
+    public ConnectionDiagnostics diagnostics() {
+        var now = Instant.now();
+
+        List<ConnectionDiagnostics.CachedValue> cachedValues = new ArrayList<>();
+        cachedValues.add(ConnectionDiagnostics.CachedValue.of("managementInfo", this.managementInfo, now));
+        cachedValues.add(ConnectionDiagnostics.CachedValue.of("assessor", this.assessor, now));
+        cachedValues.add(ConnectionDiagnostics.CachedValue.of("courses", this.courses, now));
+        for (var course : this.courses.getIfLoaded().orElse(List.of())) {
+            course.describeCachedValues(cachedValues, now);
+        }
+
+        var cache = this.persistentCache;
+        var persistentCacheState = cache == null
+                ? null
+                : new ConnectionDiagnostics.PersistentCache(
+                        cache.getDirectory(), cache.getEntryCount(), cache.getSizeInBytes());
+
+        List<ConnectionDiagnostics.OpenAssessment> assessments = new ArrayList<>();
+        synchronized (this.openAssessments) {
+            for (var assessment : this.openAssessments) {
+                assessments.add(new ConnectionDiagnostics.OpenAssessment(
+                        assessment.getSubmission().getId(),
+                        assessment.getCorrectionRound(),
+                        assessment.countAnnotations()));
+            }
+        }
+
+        List<Path> workspaces = new ArrayList<>();
+        synchronized (this.clonedSubmissions) {
+            for (var clone : this.clonedSubmissions) {
+                workspaces.add(clone.getTestsPath());
+            }
+        }
+
+        return new ConnectionDiagnostics(
+                now,
+                cachedValues,
+                persistentCacheState,
+                this.client.diagnostics(),
+                assessments,
+                workspaces,
+                this.lockMetrics.snapshot());
+    }
+
+    /**
+     * Forces the lock and assessment counters (e.g. {@link Course#fetchLockedSubmissionCount()}) to be fetched
+     * from Artemis on their next use. Usually, they are kept up to date from the locks, submits and cancellations of
+     * this connection and reconciled with Artemis every few minutes.
+     */
+    public void invalidateAssessmentCounters() {
+        this.assessmentCounters.invalidate();
+    }
+
+    AssessmentCounterCache getAssessmentCounters() {
+        return this.assessmentCounters;
+    }
+
+    LockMetrics getLockMetrics() {
+        return this.lockMetrics;
+    }
+
+    boolean hasLockLeaseManager() {
+        return this.lockLeaseManager != null;
+    }
+
+    /**
+     * @throws IllegalStateException if another manager has been registered for this connection
+     */
+    synchronized void registerLockLeaseManager(LockLeaseManager lockLeaseManager) {
+        if (this.lockLeaseManager != null) {
+            throw new IllegalStateException("A lock lease manager has already been started for this connection");
+        }
+        this.lockLeaseManager = lockLeaseManager;
+    }
+
+    /**
+     * Unregisters the manager, if it is the registered one.
+     */
+    synchronized void unregisterLockLeaseManager(LockLeaseManager lockLeaseManager) {
+        if (this.lockLeaseManager == lockLeaseManager) {
+            this.lockLeaseManager = null;
+        }
+    }
+
+    /**
+     * Called by the factory methods whenever a submission has been locked via this connection, or an assessment
+     * holding a lock has been recreated. Reviews are not tracked as open, since they are only looked at.
+     */
+    void onLockAcquired(Assessment assessment) {
+        if (assessment.getCorrectionRound() != CorrectionRound.REVIEW) {
+            this.trackOpenAssessment(assessment);
+        }
+
+        var manager = this.lockLeaseManager;
+        if (manager != null) {
+            manager.onLockAcquired(assessment);
+        }
+    }
+
+    /**
+     * Called whenever a lock has been freed via this connection, by submitting or cancelling the assessment.
+     */
+    void onLockReleased(long submissionId) {
+        var manager = this.lockLeaseManager;
+        if (manager != null) {
+            manager.onLockReleased(submissionId);
+        }
+    }
+
+    /**
+     * Called by {@link AssessmentSessionManager} when an assessment has been evicted from memory. The lock is kept, so
+     * its lease must not be cancelled while the assessment is gone. Restoring it reports the lock again.
+     */
+    void onAssessmentEvicted(Assessment assessment) {
+        this.untrackOpenAssessment(assessment);
+
+        var manager = this.lockLeaseManager;
+        if (manager != null) {
+            manager.pin(assessment.getSubmission().getId());
+        }
+    }
+
+    /**
+     * Called by {@link AssessmentSessionManager} when an evicted assessment won't be restored anymore.
+     */
+    void onEvictedAssessmentDropped(long submissionId) {
+        var manager = this.lockLeaseManager;
+        if (manager != null) {
+            manager.unpin(submissionId);
+        }
+    }
+
+    void trackOpenAssessment(Assessment assessment) {
+        this.openAssessments.add(assessment);
+    }
+
+    void untrackOpenAssessment(Assessment assessment) {
+        this.openAssessments.remove(assessment);
+    }
+
+    void trackClonedSubmission(ClonedProgrammingSubmission clone) {
+        this.clonedSubmissions.add(clone);
+    }
+
+    void untrackClonedSubmission(ClonedProgrammingSubmission clone) {
+        this.clonedSubmissions.remove(clone);
+    }
+
     public List<Course> getCourses() throws ArtemisNetworkException {
-        return Collections.unmodifiableList(courses.get());
+        return Collections.unmodifiableList(this.getUnexpired(courses));
     }
 
     public List<Course> getCoursesForEnrollment() throws ArtemisNetworkException {
@@ -81,7 +376,7 @@ public final class ArtemisConnection {
     }
 
     public Course getCourseById(long id) throws ArtemisNetworkException {
-        return courses.get().stream()
+        return this.getUnexpired(courses).stream()
                 .filter(c -> c.getId() == id)
                 .findAny()
                 .orElseThrow(() -> new IllegalArgumentException("No course with id " + id + " found"));
@@ -146,6 +441,86 @@ public final class ArtemisConnection {
         return new User(UserDTO.createUser(this.client, userCreateDTO));
     }
 
+    /**
+     * Creates many users concurrently. Note that this requires admin permissions.
+     * <p>
+     * All existing logins are fetched once up front, and users that already exist (or appear twice in the input) are
+     * skipped, so a failed run can simply be repeated.
+     *
+     * @param users       the users to create
+     * @param parallelism the maximum number of concurrent requests
+     * @param rateLimiter limits the number of create requests per second
+     * @return the outcome per user (keyed by login), in the order of the input
+     * @throws ArtemisNetworkException if the existing users could not be fetched
+     */
+    public BulkOperationReport<String> createUsers(
+            Collection<UserCreateDTO> users, int parallelism, RateLimiter rateLimiter)
+            throws ArtemisNetworkException {
+        return this.createUsers(users, ParallelTasks.permits(parallelism), rateLimiter);
+    }
+
+    /**
+     * Like {@link #createUsers(Collection, int, RateLimiter)}, but each create request holds one of the given permits
+     * while it is sent. Sharing the permits with other operations bounds their concurrent requests together.
+     *
+     * @param users       the users to create
+     * @param permits     bounds the number of concurrent create requests
+     * @param rateLimiter limits the number of create requests per second
+     * @return the outcome per user (keyed by login), in the order of the input
+     * @throws ArtemisNetworkException if the existing users could not be fetched
+     */
+    public BulkOperationReport<String> createUsers(
+            Collection<UserCreateDTO> users, Semaphore permits, RateLimiter rateLimiter)
+            throws ArtemisNetworkException {
+        Map<String, UserCreateDTO> usersByLogin = new LinkedHashMap<>();
+        for (var user : users) {
+            usersByLogin.putIfAbsent(user.login(), user);
+        }
+
+        Set<String> existing = this.fetchAllLogins();
+        // Adding the login makes sure that duplicates in the input are only created once
+        return BulkOperationReport.execute(
+                users.stream().map(UserCreateDTO::login).toList(),
+                login -> !existing.add(login),
+                permits,
+                rateLimiter,
+                login -> UserDTO.createUser(this.client, usersByLogin.get(login)));
+    }
+
+    /**
+     * Deletes many users concurrently. Note that this requires admin permissions.
+     * <p>
+     * All existing logins are fetched once up front, and users that don't exist (anymore) are skipped.
+     *
+     * @param logins      the logins of the users to delete
+     * @param parallelism the maximum number of concurrent requests
+     * @param rateLimiter limits the number of delete requests per second
+     * @return the outcome per login, in the order of the input
+     * @throws ArtemisNetworkException if the existing users could not be fetched
+     */
+    public BulkOperationReport<String> deleteUsers(
+            Collection<String> logins, int parallelism, RateLimiter rateLimiter) throws ArtemisNetworkException {
+        Set<String> existing = this.fetchAllLogins();
+        // Removing the login makes sure that duplicates in the input are only deleted once
+        return BulkOperationReport.execute(
+                List.copyOf(logins),
+                login -> !existing.remove(login),
+                parallelism,
+                rateLimiter,
+                login -> {
+                    UserDTO.deleteUser(this.client, login);
+                    return null;
+                });
+    }
+
+    private Set<String> fetchAllLogins() throws ArtemisNetworkException {
+        Set<String> logins = ConcurrentHashMap.newKeySet();
+        for (var user : UserDTO.getAllUsers(this.client)) {
+            logins.add(user.login());
+        }
+        return logins;
+    }
+
     /**
      * Creates a course.
      * <p>
@@ -157,6 +532,7 @@ public final class ArtemisConnection {
             throw new IllegalStateException("Failed to create course for " + courseCreateDTO);
         }
 
+        CourseDTO.invalidateCached(this.client);
         this.courses.invalidate();
         return new Course(created, this);
     }
@@ -166,6 +542,10 @@ public final class ArtemisConnection {
      */
     public void deleteCourse(long courseId) throws ArtemisNetworkException {
         CourseDTO.deleteCourse(this.client, courseId);
+        CourseDTO.invalidateCached(this.client);
+        ExerciseDTO.invalidateCachedForCourse(this.client, courseId);
+        ExamDTO.invalidateCachedForCourse(this.client, courseId);
+        this.invalidateCourseExercises(courseId);
         this.courses.invalidate();
     }
 
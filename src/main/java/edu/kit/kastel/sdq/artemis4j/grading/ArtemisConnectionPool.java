@@ -0,0 +1,211 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j.grading;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import edu.kit.kastel.sdq.artemis4j.ArtemisNetworkException;
+import edu.kit.kastel.sdq.artemis4j.client.ArtemisClient;
+import edu.kit.kastel.sdq.artemis4j.client.ArtemisInstance;
+import edu.kit.kastel.sdq.artemis4j.grading.penalty.GradingConfig;
+import edu.kit.kastel.sdq.artemis4j.grading.penalty.InvalidGradingConfigException;
+import okhttp3.OkHttpClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Holds connections to one Artemis instance for many users, e.g. for a grading service that acts on behalf of a
+ * team of tutors.
+ * <p>
+ * All connections share one HTTP transport (sockets and threads), so the resource usage grows with the number of
+ * concurrent requests and not with the number of users. Data that is the same for every user (the management info,
+ * the exercises of a course and parsed grading configs) is fetched once and shared as well. Everything that depends
+ * on the user (the assessor, course roles, locks, assessments) stays per connection.
+ * <p>
+ * Connections that have not been requested from the pool for the idle timeout are removed from it. The shared data
+ * expires after its time to live, and the exercises of a course are shared per course role.
+ */
+public final class ArtemisConnectionPool implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(ArtemisConnectionPool.class);
+
+    public static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(30);
+    public static final Duration DEFAULT_SHARED_DATA_TTL = Duration.ofMinutes(10);
+
+    private final ArtemisInstance instance;
+    private final Duration idleTimeout;
+    private final OkHttpClient transport = new OkHttpClient();
+    private final SharedConnectionState sharedState;
+    private final Map<String, PooledConnection> connections = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService evictor;
+    private volatile boolean closed = false;
+
+    public ArtemisConnectionPool(ArtemisInstance instance) {
+        this(instance, DEFAULT_IDLE_TIMEOUT);
+    }
+
+    public ArtemisConnectionPool(ArtemisInstance instance, Duration idleTimeout) {
+        this(instance, idleTimeout, DEFAULT_SHARED_DATA_TTL);
+    }
+
+    /**
+     * @param idleTimeout   connections that have not been requested for this time are removed
+     * @param sharedDataTtl the time after which shared data (e.g. the exercises of a course) is fetched again
+     */
+    public ArtemisConnectionPool(ArtemisInstance instance, Duration idleTimeout, Duration sharedDataTtl) {
+        if (idleTimeout.isNegative() || idleTimeout.isZero()) {
+            throw new IllegalArgumentException("The idle timeout must be positive, but was " + idleTimeout);
+        }
+
+        this.instance = instance;
+        this.idleTimeout = idleTimeout;
+        this.sharedState = new SharedConnectionState(sharedDataTtl);
+        this.evictor = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofVirtual().name("artemis-connection-pool-evictor").factory());
+        long period = idleTimeout.toMillis();
+        this.evictor.scheduleAtFixedRate(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns the connection of the user, creating it from the token if there is none yet. If the pool holds a
+     * connection with a different token for the user (e.g. because the old one expired), it is replaced.
+     *
+     * @param login the login of the user the token belongs to
+     * @param token the user's JWT
+     */
+    public ArtemisConnection fromToken(String login, String token) {
+        this.assertOpen();
+
+        var pooled = this.connections.compute(login, (key, existing) -> {
+            if (existing != null && existing.token().equals(token)) {
+                return existing;
+            }
+            return this.createPooledConnection(new ArtemisClient(this.instance, token, null, this.transport));
+        });
+        return pooled.use();
+    }
+
+    /**
+     * Returns the connection of the user, logging in with the given credentials if there is none yet.
+     */
+    public ArtemisConnection connectWithUsernamePassword(String login, String password)
+            throws ArtemisNetworkException {
+        this.assertOpen();
+
+        var existing = this.connections.get(login);
+        if (existing != null) {
+            return existing.use();
+        }
+
+        // Don't log in while holding the map's lock, if two threads race here, the first connection wins
+        var client = ArtemisClient.fromUsernamePassword(this.instance, login, password, this.transport);
+        return this.connections
+                .computeIfAbsent(login, key -> this.createPooledConnection(client))
+                .use();
+    }
+
+    /**
+     * Returns the connection of the user, if the pool holds one.
+     */
+    public Optional<ArtemisConnection> get(String login) {
+        return Optional.ofNullable(this.connections.get(login)).map(PooledConnection::use);
+    }
+
+    /**
+     * Parses the grading config for the exercise, or returns the config that has already been parsed by any
+     * connection of this pool. Grading configs don't depend on the user, so they can be shared.
+     */
+    public GradingConfig getGradingConfig(String configString, ProgrammingExercise exercise)
+            throws InvalidGradingConfigException {
+        return this.sharedState.getGradingConfig(configString, exercise);
+    }
+
+    /**
+     * Removes the user's connection from the pool.
+     */
+    public void evict(String login) {
+        this.connections.remove(login);
+    }
+
+    /**
+     * Removes all connections that have not been requested for the idle timeout, and all expired shared data. This
+     * is also done periodically in the background.
+     *
+     * @return the number of removed connections
+     */
+    public int evictIdle() {
+        long now = System.nanoTime();
+        int evicted = 0;
+        for (var entry : this.connections.entrySet()) {
+            if (now - entry.getValue().lastUsed() >= this.idleTimeout.toNanos()
+                    && this.connections.remove(entry.getKey(), entry.getValue())) {
+                evicted++;
+            }
+        }
+        this.sharedState.evictExpired();
+
+        if (evicted > 0) {
+            log.debug("Evicted {} idle connections", evicted);
+        }
+        return evicted;
+    }
+
+    public int size() {
+        return this.connections.size();
+    }
+
+    public ArtemisInstance getInstance() {
+        return instance;
+    }
+
+    /**
+     * Removes all connections and releases the shared sockets and threads. The pool can't be used afterward.
+     */
+    @Override
+    public void close() {
+        this.closed = true;
+        this.evictor.shutdownNow();
+        this.connections.clear();
+        this.sharedState.clear();
+        this.transport.connectionPool().evictAll();
+        this.transport.dispatcher().executorService().shutdown();
+    }
+
+    private PooledConnection createPooledConnection(ArtemisClient client) {
+        return new PooledConnection(new ArtemisConnection(client, this.sharedState), client.getJWTToken());
+    }
+
+    private void assertOpen() {
+        if (this.closed) {
+            throw new IllegalStateException("The connection pool has been closed");
+        }
+    }
+
+    private static final class PooledConnection {
+        private final ArtemisConnection connection;
+        private final String token;
+        private volatile long lastUsed = System.nanoTime();
+
+        private PooledConnection(ArtemisConnection connection, String token) {
+            this.connection = connection;
+            this.token = token;
+        }
+
+        private ArtemisConnection use() {
+            this.lastUsed = System.nanoTime();
+            return this.connection;
+        }
+
+        private String token() {
+            return token;
+        }
+
+        private long lastUsed() {
+            return lastUsed;
+        }
+    }
+}
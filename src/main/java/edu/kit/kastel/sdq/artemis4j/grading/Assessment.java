@@ -1,22 +1,30 @@
 /* Licensed under EPL-2.0 2024-2026. */
 package edu.kit.kastel.sdq.artemis4j.grading;
 
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import edu.kit.kastel.sdq.artemis4j.ArtemisNetworkException;
+import edu.kit.kastel.sdq.artemis4j.ParallelTasks;
 import edu.kit.kastel.sdq.artemis4j.client.AnnotationSource;
+import edu.kit.kastel.sdq.artemis4j.client.ArtemisClient;
 import edu.kit.kastel.sdq.artemis4j.client.AssessmentType;
 import edu.kit.kastel.sdq.artemis4j.client.FeedbackDTO;
 import edu.kit.kastel.sdq.artemis4j.client.FeedbackType;
@@ -91,6 +99,13 @@ public class Assessment extends ArtemisConnectionHolder {
     private final Locale studentLocale;
     private final UserIdentifier assessor;
 
+    // Bumped on every change of the list of annotations, see getModificationVersion(). Guarded by annotations.
+    private long structuralModifications = 0;
+    // Serializes saves and submits, so that concurrent calls can be coalesced
+    private final ReentrantLock saveLock = new ReentrantLock();
+    private volatile long savedVersion;
+    private byte @Nullable [] savedPayloadHash; // Guarded by saveLock
+
     public Assessment(
             ResultDTO result,
             GradingConfig config,
@@ -142,6 +157,67 @@ public class Assessment extends ArtemisConnectionHolder {
                 .filter(f -> f.type() == FeedbackType.AUTOMATIC)
                 .map(TestResult::new)
                 .toList();
+        this.savedVersion = this.getModificationVersion();
+    }
+
+    /**
+     * Recreates an assessment that has been evicted by an {@link AssessmentSessionManager}, without fetching
+     * anything.
+     *
+     * @param result      the result of {@link #getResultWithTestsOnly()}
+     * @param annotations the annotations of the evicted assessment
+     */
+    Assessment(
+            ResultDTO result,
+            GradingConfig config,
+            ProgrammingSubmission programmingSubmission,
+            CorrectionRound correctionRound,
+            Locale studentLocale,
+            UserIdentifier assessor,
+            List<Annotation> annotations) {
+        super(programmingSubmission);
+        this.result = result;
+        this.programmingSubmission = programmingSubmission;
+        this.config = config;
+        this.correctionRound = correctionRound;
+        this.studentLocale = studentLocale;
+        this.assessor = assessor;
+        this.annotations = Collections.synchronizedList(new ArrayList<>(annotations));
+        this.testResults = result.feedbacks().stream().map(TestResult::new).toList();
+        this.savedVersion = this.getModificationVersion();
+    }
+
+    /**
+     * Opens many assessments without locking them (see {@link PackedAssessment#openWithoutLock(GradingConfig)}),
+     * e.g. to review them. The assessments are opened concurrently, so fetching the feedbacks of some assessments
+     * overlaps with parsing the feedbacks of others.
+     *
+     * @param parallelism the maximum number of assessments that are opened at once
+     * @return one outcome per assessment, in the order of the input. Assessments that couldn't be opened fail with
+     *     e.g. an {@link ArtemisNetworkException} or a {@link MismatchedGradingConfigException}, without affecting
+     *     the others.
+     */
+    public static List<ParallelTasks.Outcome<Assessment>> openAll(
+            Collection<PackedAssessment> assessments, GradingConfig config, int parallelism) {
+        // Resolve the assessors up front, otherwise all tasks would wait for the first one to fetch it
+        for (var connection : connectionsOf(assessments)) {
+            try {
+                connection.getAssessor();
+            } catch (ArtemisNetworkException e) {
+                // Reported for every affected assessment, when it tries to resolve the assessor itself
+                log.debug("Failed to resolve the assessor before opening assessments", e);
+            }
+        }
+
+        return ParallelTasks.mapSettled(assessments, parallelism, packed -> packed.openWithoutLock(config));
+    }
+
+    private static Set<ArtemisConnection> connectionsOf(Collection<PackedAssessment> assessments) {
+        Set<ArtemisConnection> connections = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (var packed : assessments) {
+            connections.add(packed.submission().getConnection());
+        }
+        return connections;
     }
 
     /**
@@ -182,6 +258,32 @@ public class Assessment extends ArtemisConnectionHolder {
         }
     }
 
+    /**
+     * Copies all annotations, including suppressed ones. Unlike {@link #getAnnotations(boolean)}, this is safe to call
+     * from any thread.
+     */
+    List<Annotation> copyAnnotations() {
+        synchronized (this.annotations) {
+            return List.copyOf(this.annotations);
+        }
+    }
+
+    /**
+     * Counts the annotations that are not suppressed. Unlike {@link #getAnnotations()}, this is safe to call from
+     * any thread, and doesn't copy the annotations.
+     */
+    int countAnnotations() {
+        synchronized (this.annotations) {
+            int count = 0;
+            for (var annotation : this.annotations) {
+                if (!annotation.isSuppressed()) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
     public Stream<Annotation> streamAllAnnotations(boolean includeSuppressed) {
         if (includeSuppressed) {
             return this.annotations.stream();
@@ -282,7 +384,7 @@ public class Assessment extends ArtemisConnectionHolder {
 
         var source = this.correctionRound.toAnnotationSource();
         var annotation = new Annotation(mistakeType, location, customMessage, null, source, this.assessor);
-        this.annotations.add(annotation);
+        this.addAnnotation(annotation);
         return annotation;
     }
 
@@ -326,7 +428,7 @@ public class Assessment extends ArtemisConnectionHolder {
 
         var source = this.correctionRound.toAnnotationSource();
         var annotation = new Annotation(mistakeType, location, customMessage, customScore, source, this.assessor);
-        this.annotations.add(annotation);
+        this.addAnnotation(annotation);
         return annotation;
     }
 
@@ -351,7 +453,7 @@ public class Assessment extends ArtemisConnectionHolder {
                 this.assessor,
                 List.of(checkName, problemType),
                 annotationLimit);
-        this.annotations.add(annotation);
+        this.addAnnotation(annotation);
         return annotation;
     }
 
@@ -364,7 +466,12 @@ public class Assessment extends ArtemisConnectionHolder {
             throw new ReviewException("Can't remove annotations in review mode");
         }
 
-        this.annotations.remove(annotation);
+        synchronized (this.annotations) {
+            if (this.annotations.remove(annotation)) {
+                // Keep the version increasing although the changes of the annotation are no longer counted
+                this.structuralModifications += 1 + annotation.getModificationCount();
+            }
+        }
     }
 
     /**
@@ -401,15 +508,52 @@ public class Assessment extends ArtemisConnectionHolder {
             throw new ReviewException("Can't clear annotations in review mode");
         }
 
-        this.annotations.clear();
+        this.replaceAnnotations(List.of());
+    }
+
+    /**
+     * Returns a number that increases with every change of the annotations: adding, removing or (un-)suppressing an
+     * annotation, and changing its custom message or score. Two equal versions mean that nothing has changed in
+     * between.
+     */
+    public long getModificationVersion() {
+        synchronized (this.annotations) {
+            long version = this.structuralModifications;
+            for (var annotation : this.annotations) {
+                version += annotation.getModificationCount();
+            }
+            return version;
+        }
+    }
+
+    /**
+     * @return true if the annotations have been changed since the assessment has been opened or last saved
+     */
+    public boolean isDirty() {
+        return this.getModificationVersion() != this.savedVersion;
     }
 
     /**
      * Saves the assessment to Artemis. This does not free the lock on the
      * submission.
+     * <p>
+     * Nothing is sent if the assessment hasn't changed since the last save, or if the packed feedbacks are the same
+     * as the last saved ones (e.g. because an annotation has been added and removed again). Concurrent calls are
+     * coalesced: a call that had to wait for another save or submit returns right away if that one already included
+     * all changes made before the call.
      */
     public void save() throws AnnotationMappingException, ArtemisNetworkException {
-        this.internalSaveOrSubmit(false);
+        long requestedVersion = this.getModificationVersion();
+        this.saveLock.lock();
+        try {
+            if (this.savedVersion >= requestedVersion) {
+                log.debug("Assessment of submission {} is already saved", this.programmingSubmission.getId());
+                return;
+            }
+            this.internalSaveOrSubmit(false);
+        } finally {
+            this.saveLock.unlock();
+        }
     }
 
     /**
@@ -418,7 +562,20 @@ public class Assessment extends ArtemisConnectionHolder {
      * lock on the submission.
      */
     public void submit() throws AnnotationMappingException, ArtemisNetworkException {
-        this.internalSaveOrSubmit(true);
+        this.saveLock.lock();
+        try {
+            this.internalSaveOrSubmit(true);
+        } finally {
+            this.saveLock.unlock();
+        }
+        this.getConnection().untrackOpenAssessment(this);
+        this.getConnection().onLockReleased(this.programmingSubmission.getId());
+        this.getConnection()
+                .getAssessmentCounters()
+                .onSubmitted(
+                        this.programmingSubmission.getExercise(),
+                        this.correctionRound,
+                        this.programmingSubmission.getId());
     }
 
     /**
@@ -426,6 +583,8 @@ public class Assessment extends ArtemisConnectionHolder {
      * assessments. The returned string contains all information necessary to
      * recreate the exact state of the assessment, as long as the underlying
      * submission is the same.
+     * <p>
+     * To checkpoint many assessments frequently, use a {@link CheckpointStore} instead.
      */
     public String exportAssessment() throws AnnotationMappingException {
         String header = this.programmingSubmission.getId() + ";" + this.correctionRound.toArtemis() + ";";
@@ -450,8 +609,26 @@ public class Assessment extends ArtemisConnectionHolder {
             throw new IllegalArgumentException("Invalid header in exported annotations");
         }
 
-        this.annotations.clear();
-        this.annotations.addAll(MetaFeedbackMapper.deserializeAnnotations(parts[2], this.config));
+        this.replaceAnnotations(MetaFeedbackMapper.deserializeAnnotations(parts[2], this.config));
+    }
+
+    void replaceAnnotations(List<Annotation> annotations) {
+        synchronized (this.annotations) {
+            long removedModifications = 0;
+            for (var annotation : this.annotations) {
+                removedModifications += annotation.getModificationCount();
+            }
+            this.annotations.clear();
+            this.annotations.addAll(annotations);
+            this.structuralModifications += 1 + removedModifications;
+        }
+    }
+
+    private void addAnnotation(Annotation annotation) {
+        synchronized (this.annotations) {
+            this.annotations.add(annotation);
+            this.structuralModifications++;
+        }
     }
 
     /**
@@ -460,6 +637,21 @@ public class Assessment extends ArtemisConnectionHolder {
      */
     public void cancel() throws ArtemisNetworkException {
         ProgrammingSubmissionDTO.cancelAssessment(this.getConnection().getClient(), this.programmingSubmission.getId());
+        this.forgetLock();
+    }
+
+    /**
+     * Forgets the lock locally, e.g. because someone else has released it in Artemis already.
+     */
+    void forgetLock() {
+        this.getConnection().untrackOpenAssessment(this);
+        this.getConnection().onLockReleased(this.programmingSubmission.getId());
+        this.getConnection()
+                .getAssessmentCounters()
+                .onCancelled(
+                        this.programmingSubmission.getExercise(),
+                        this.correctionRound,
+                        this.programmingSubmission.getId());
     }
 
     /**
@@ -517,15 +709,23 @@ public class Assessment extends ArtemisConnectionHolder {
      * rating group.
      */
     public Points calculatePointsForRatingGroup(RatingGroup ratingGroup) {
+        return calculatePointsForRatingGroup(ratingGroup, this.getAnnotations(false));
+    }
+
+    /**
+     * Calculates the points of the rating group like {@link #calculatePointsForRatingGroup(RatingGroup)}, but for
+     * the given (not suppressed) annotations instead of the ones of an assessment.
+     */
+    static Points calculatePointsForRatingGroup(RatingGroup ratingGroup, List<Annotation> annotations) {
         // First calculate the points deducted by annotations in a subgroup:
         double points = 0.0;
         for (var subgroup : ratingGroup.listSubGroups()) {
-            Points subgroupPoints = this.calculatePointsForRatingGroup(subgroup);
+            Points subgroupPoints = calculatePointsForRatingGroup(subgroup, annotations);
             points += subgroupPoints.score();
         }
 
         // Now add the points of the annotations that are part of this rating group and not in a subgroup:
-        points += this.streamAllAnnotations(false)
+        points += annotations.stream()
                 .filter(a -> a.getMistakeType().getRatingGroup().equals(ratingGroup))
                 .filter(a -> a.getMistakeType().shouldScore())
                 .collect(Collectors.groupingBy(Annotation::getMistakeType))
@@ -548,6 +748,70 @@ public class Assessment extends ArtemisConnectionHolder {
         return config;
     }
 
+    Locale getStudentLocale() {
+        return this.studentLocale;
+    }
+
+    UserIdentifier getAssessor() {
+        return this.assessor;
+    }
+
+    /**
+     * @return the result this assessment has been opened with, but only with the feedbacks of the test results
+     */
+    ResultDTO getResultWithTestsOnly() {
+        List<FeedbackDTO> tests = new ArrayList<>(this.testResults.size());
+        for (var testResult : this.testResults) {
+            tests.add(testResult.getDto());
+        }
+        return new ResultDTO(
+                this.result.id(),
+                this.result.completionDate(),
+                this.result.successful(),
+                this.result.score(),
+                this.result.rated(),
+                tests,
+                this.result.assessor(),
+                this.result.assessmentType(),
+                this.result.testCaseCount(),
+                this.result.passedTestCaseCount(),
+                this.result.codeIssueCount());
+    }
+
+    /**
+     * Roughly estimates the heap memory retained by this assessment, for {@link AssessmentSessionManager}.
+     */
+    long estimateRetainedBytes() {
+        // The test results usually share their feedbacks with the result
+        Set<FeedbackDTO> feedbacks = Collections.newSetFromMap(new IdentityHashMap<>());
+        if (this.result.feedbacks() != null) {
+            feedbacks.addAll(this.result.feedbacks());
+        }
+        for (var testResult : this.testResults) {
+            feedbacks.add(testResult.getDto());
+        }
+
+        long bytes = 1024;
+        for (var feedback : feedbacks) {
+            bytes += estimateRetainedBytes(feedback);
+        }
+        synchronized (this.annotations) {
+            for (var annotation : this.annotations) {
+                bytes += 256 + 2L * annotation.getCustomMessage().map(String::length).orElse(0);
+            }
+        }
+        return bytes;
+    }
+
+    private static long estimateRetainedBytes(FeedbackDTO feedback) {
+        // Strings are counted with two bytes per character
+        long characters = 0;
+        characters += feedback.text() == null ? 0 : feedback.text().length();
+        characters += feedback.detailText() == null ? 0 : feedback.detailText().length();
+        characters += feedback.reference() == null ? 0 : feedback.reference().length();
+        return 128 + 2 * characters;
+    }
+
     public CorrectionRound getCorrectionRound() {
         return correctionRound;
     }
@@ -560,7 +824,12 @@ public class Assessment extends ArtemisConnectionHolder {
         return this.correctionRound == CorrectionRound.REVIEW;
     }
 
+    /**
+     * Must be called with the save lock held.
+     */
     private void internalSaveOrSubmit(boolean shouldSubmit) throws AnnotationMappingException, ArtemisNetworkException {
+        // Taken before packing, so that changes made while packing keep the assessment dirty
+        long version = this.getModificationVersion();
         log.info("Packing assessment for artemis");
         var feedbacks = this.packAssessmentForArtemis();
         double absoluteScore = this.calculateTotalPoints();
@@ -576,11 +845,30 @@ public class Assessment extends ArtemisConnectionHolder {
                     + absoluteScore + " but feedbacks sum up to " + feedbackPoints + " points.");
         }
 
+        byte[] payloadHash = hashPayload(result);
+        if (!shouldSubmit && MessageDigest.isEqual(payloadHash, this.savedPayloadHash)) {
+            log.info("Skipping save, the packed assessment is unchanged");
+            this.savedVersion = version;
+            return;
+        }
+
         ProgrammingSubmissionDTO.saveAssessment(
                 this.getConnection().getClient(),
                 this.programmingSubmission.getParticipationId(),
                 shouldSubmit,
                 result);
+        this.savedVersion = version;
+        this.savedPayloadHash = payloadHash;
+    }
+
+    private static byte[] hashPayload(ResultDTO result) throws AnnotationMappingException {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(ArtemisClient.MAPPER.writeValueAsBytes(result));
+        } catch (JsonProcessingException e) {
+            throw new AnnotationMappingException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
     }
 
     private List<FeedbackDTO> packAssessmentForArtemis() throws AnnotationMappingException {
@@ -0,0 +1,225 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j.grading;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import edu.kit.kastel.sdq.artemis4j.ArtemisNetworkException;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Caches the lock and assessment counters of one user, so that showing them doesn't require downloading the full
+ * list of assessments every time.
+ * <p>
+ * The counters are kept as sets of submission ids, which are updated from the locks, submits and cancellations done
+ * via this connection. Since other clients (e.g. the Artemis web UI) may change them as well, the sets are
+ * reconciled with Artemis when they are older than the reconcile interval. Changes that happen while reconciling are
+ * applied again on top of the fetched state. Changes by other clients are therefore only visible after up to one
+ * reconcile interval, or after {@link ArtemisConnection#invalidateAssessmentCounters()}.
+ * <p>
+ * The course-level entries only know the locked submissions, since Artemis doesn't list the submitted ones per
+ * course. Locks of already submitted assessments are therefore reported as submits, so that they are never counted
+ * as locked.
+ */
+final class AssessmentCounterCache {
+    static final Duration DEFAULT_RECONCILE_INTERVAL = Duration.ofMinutes(2);
+
+    private final Duration reconcileInterval;
+    private final Map<ExerciseKey, Entry> exercises = new ConcurrentHashMap<>();
+    private final Map<Long, Entry> courses = new ConcurrentHashMap<>();
+
+    AssessmentCounterCache(Duration reconcileInterval) {
+        this.reconcileInterval = reconcileInterval;
+    }
+
+    /**
+     * @return the number of submitted and locked assessments of the user in the exercise and round
+     */
+    int countMyAssessments(ProgrammingExercise exercise, CorrectionRound round) throws ArtemisNetworkException {
+        var entry = this.exerciseEntry(exercise, round);
+        synchronized (entry) {
+            return entry.locked.size() + entry.submitted.size();
+        }
+    }
+
+    int countLocked(ProgrammingExercise exercise, CorrectionRound round) throws ArtemisNetworkException {
+        var entry = this.exerciseEntry(exercise, round);
+        synchronized (entry) {
+            return entry.locked.size();
+        }
+    }
+
+    /**
+     * @return the number of submissions of the course (of any exercise type) that are locked by the user
+     */
+    int countLocked(Course course) throws ArtemisNetworkException {
+        var entry = this.courses.computeIfAbsent(
+                course.getId(), id -> new Entry(() -> new Snapshot(course.fetchLockedSubmissionIds(), Set.of())));
+        entry.reconcileIfStale(this.reconcileInterval);
+        synchronized (entry) {
+            return entry.locked.size();
+        }
+    }
+
+    /**
+     * @param submitted whether the locked assessment has been submitted before, e.g. because it is locked to change it
+     */
+    void onLocked(Exercise exercise, CorrectionRound round, long submissionId, boolean submitted) {
+        // Artemis doesn't list submitted assessments as locked, even if they are locked again
+        this.apply(exercise, round, new Event(submissionId, submitted ? EventType.SUBMITTED : EventType.LOCKED));
+    }
+
+    void onSubmitted(Exercise exercise, CorrectionRound round, long submissionId) {
+        this.apply(exercise, round, new Event(submissionId, EventType.SUBMITTED));
+    }
+
+    void onCancelled(Exercise exercise, CorrectionRound round, long submissionId) {
+        this.apply(exercise, round, new Event(submissionId, EventType.CANCELLED));
+    }
+
+    /**
+     * Forces all counters to be fetched again on their next use.
+     */
+    void invalidate() {
+        this.exercises.clear();
+        this.courses.clear();
+    }
+
+    private Entry exerciseEntry(ProgrammingExercise exercise, CorrectionRound round) throws ArtemisNetworkException {
+        var key = new ExerciseKey(exercise.getId(), normalize(round));
+        var entry = this.exercises.computeIfAbsent(key, k -> new Entry(() -> {
+            Set<Long> locked = new HashSet<>();
+            Set<Long> submitted = new HashSet<>();
+            for (var summary : exercise.fetchMyAssessmentSummaries(k.round())) {
+                if (summary.isSubmitted()) {
+                    submitted.add(summary.submissionId());
+                } else {
+                    locked.add(summary.submissionId());
+                }
+            }
+            return new Snapshot(locked, submitted);
+        }));
+        entry.reconcileIfStale(this.reconcileInterval);
+        return entry;
+    }
+
+    private void apply(Exercise exercise, CorrectionRound round, Event event) {
+        // Entries that don't exist yet will be fetched including this change
+        var exerciseEntry = this.exercises.get(new ExerciseKey(exercise.getId(), normalize(round)));
+        if (exerciseEntry != null) {
+            exerciseEntry.apply(event);
+        }
+
+        var courseEntry = this.courses.get(exercise.getCourse().getId());
+        if (courseEntry != null) {
+            courseEntry.apply(event);
+        }
+    }
+
+    private static CorrectionRound normalize(CorrectionRound round) {
+        // Reviews happen on the results of the second round
+        return round == CorrectionRound.REVIEW ? CorrectionRound.SECOND : round;
+    }
+
+    private record ExerciseKey(long exerciseId, CorrectionRound round) {}
+
+    private record Snapshot(Set<Long> locked, Set<Long> submitted) {}
+
+    private record Event(long submissionId, EventType type) {}
+
+    private enum EventType {
+        LOCKED,
+        SUBMITTED,
+        CANCELLED
+    }
+
+    @FunctionalInterface
+    private interface SnapshotFetcher {
+        Snapshot fetch() throws ArtemisNetworkException;
+    }
+
+    private static final class Entry {
+        private final SnapshotFetcher fetcher;
+        // Held while fetching, so that concurrent callers wait for the same fetch instead of starting their own
+        private final Object reconcileLock = new Object();
+
+        // The following fields are guarded by this
+        private final Set<Long> locked = new HashSet<>();
+        private final Set<Long> submitted = new HashSet<>();
+        private long reconciledAt;
+        private boolean reconciled = false;
+        private @Nullable List<Event> eventsDuringReconcile;
+
+        private Entry(SnapshotFetcher fetcher) {
+            this.fetcher = fetcher;
+        }
+
+        private void reconcileIfStale(Duration interval) throws ArtemisNetworkException {
+            synchronized (this.reconcileLock) {
+                synchronized (this) {
+                    if (this.reconciled && System.nanoTime() - this.reconciledAt < interval.toNanos()) {
+                        return;
+                    }
+                    this.eventsDuringReconcile = new ArrayList<>();
+                }
+
+                // Don't block events while fetching, they are recorded and replayed instead
+                Snapshot snapshot;
+                try {
+                    snapshot = this.fetcher.fetch();
+                } catch (ArtemisNetworkException | RuntimeException e) {
+                    synchronized (this) {
+                        this.eventsDuringReconcile = null;
+                    }
+                    throw e;
+                }
+
+                synchronized (this) {
+                    this.locked.clear();
+                    this.locked.addAll(snapshot.locked());
+                    this.submitted.clear();
+                    this.submitted.addAll(snapshot.submitted());
+
+                    var replay = this.eventsDuringReconcile;
+                    this.eventsDuringReconcile = null;
+                    if (replay != null) {
+                        for (var event : replay) {
+                            this.applyUnsynchronized(event);
+                        }
+                    }
+
+                    this.reconciledAt = System.nanoTime();
+                    this.reconciled = true;
+                }
+            }
+        }
+
+        private synchronized void apply(Event event) {
+            if (this.eventsDuringReconcile != null) {
+                this.eventsDuringReconcile.add(event);
+            }
+            this.applyUnsynchronized(event);
+        }
+
+        private void applyUnsynchronized(Event event) {
+            switch (event.type()) {
+                case LOCKED -> {
+                    // Locking an already submitted assessment (e.g. to change it) keeps it submitted
+                    if (!this.submitted.contains(event.submissionId())) {
+                        this.locked.add(event.submissionId());
+                    }
+                }
+                case SUBMITTED -> {
+                    this.locked.remove(event.submissionId());
+                    this.submitted.add(event.submissionId());
+                }
+                case CANCELLED -> this.locked.remove(event.submissionId());
+            }
+        }
+    }
+}
@@ -0,0 +1,462 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j.grading;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import edu.kit.kastel.sdq.artemis4j.ArtemisClientException;
+import edu.kit.kastel.sdq.artemis4j.ArtemisNetworkException;
+import edu.kit.kastel.sdq.artemis4j.client.ArtemisClient;
+import edu.kit.kastel.sdq.artemis4j.client.ResultDTO;
+import edu.kit.kastel.sdq.artemis4j.grading.metajson.AnnotationMappingException;
+import edu.kit.kastel.sdq.artemis4j.grading.penalty.GradingConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounds the memory used by many open assessments, e.g. in a service where many tutors keep several assessments
+ * open.
+ * <p>
+ * Assessments are registered as {@link Session}s. Once more assessments are resident than allowed (by count or by
+ * their estimated size), the least recently used ones are evicted: their annotations are written to a
+ * {@link CheckpointStore} and their test results to a small file in the same directory, and the assessment is
+ * dropped. {@link Session#get()} transparently restores an evicted assessment from these files, without contacting
+ * Artemis. The lock on the submission is kept while the assessment is evicted, and a {@link LockLeaseManager} of the
+ * connection doesn't cancel it in the meantime.
+ * <p>
+ * Assessments with unsaved changes are either skipped or saved to Artemis before they are evicted, depending on the
+ * {@link DirtyPolicy}. Saving happens without holding the manager's lock, so other sessions can be used meanwhile.
+ * The size of an assessment is estimated when it becomes resident, and estimated again on every {@link Session#get()}
+ * of it. Since an evicted assessment is replaced by a new object when it is restored, callers must not
+ * keep references to the assessment of a session, but call {@link Session#get()} on every access.
+ * <p>
+ * All methods are thread-safe. Evicting and restoring happens on the calling thread.
+ */
+public final class AssessmentSessionManager implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(AssessmentSessionManager.class);
+
+    private final Path directory;
+    private final int maxResident;
+    private final long maxResidentBytes;
+    private final DirtyPolicy dirtyPolicy;
+
+    // All following fields are guarded by this
+    // The resident sessions, in access order, so that the least recently used one comes first
+    private final LinkedHashMap<Session, Resident> resident = new LinkedHashMap<>(16, 0.75f, true);
+    // The sum of the estimated sizes of the resident assessments
+    private long residentBytes = 0;
+    // The sessions that are being saved before they are evicted
+    private final Set<Session> saving = new HashSet<>();
+    private final Set<Session> evicted = new HashSet<>();
+    private final Map<Long, CheckpointStore> checkpointStores = new HashMap<>();
+    private int sessionCount = 0;
+    private int evictions = 0;
+    private int restores = 0;
+    private boolean closed = false;
+
+    /**
+     * @param directory        the directory for the checkpoints of evicted assessments
+     * @param maxResident      the maximum number of resident assessments
+     * @param maxResidentBytes the maximum estimated size of all resident assessments
+     * @param dirtyPolicy      what to do with assessments with unsaved changes that should be evicted
+     */
+    public AssessmentSessionManager(Path directory, int maxResident, long maxResidentBytes, DirtyPolicy dirtyPolicy) {
+        if (maxResident < 1 || maxResidentBytes < 1) {
+            throw new IllegalArgumentException("maxResident (%d) and maxResidentBytes (%d) must be positive"
+                    .formatted(maxResident, maxResidentBytes));
+        }
+
+        this.directory = directory;
+        this.maxResident = maxResident;
+        this.maxResidentBytes = maxResidentBytes;
+        this.dirtyPolicy = dirtyPolicy;
+    }
+
+    /**
+     * Starts managing the assessment. The assessment counts as the most recently used one, so registering it may
+     * evict others.
+     */
+    public Session register(Assessment assessment) {
+        Session session;
+        Map<Session, Assessment> toSave;
+        synchronized (this) {
+            this.ensureOpen();
+            session = new Session(this, assessment);
+            this.putResident(session, assessment);
+            this.sessionCount++;
+            toSave = this.evictIfNecessary(session);
+        }
+        this.saveAndEvict(toSave);
+        return session;
+    }
+
+    /**
+     * @return the number of assessments that are currently held in memory
+     */
+    public synchronized int getResidentCount() {
+        return this.resident.size();
+    }
+
+    /**
+     * @return the number of registered sessions, resident or evicted
+     */
+    public synchronized int getSessionCount() {
+        return this.sessionCount;
+    }
+
+    /**
+     * @return the estimated size of all resident assessments in bytes
+     */
+    public synchronized long getResidentBytes() {
+        return this.residentBytes;
+    }
+
+    /**
+     * @return how often an assessment has been evicted
+     */
+    public synchronized int getEvictionCount() {
+        return this.evictions;
+    }
+
+    /**
+     * @return how often an evicted assessment has been restored
+     */
+    public synchronized int getRestoreCount() {
+        return this.restores;
+    }
+
+    /**
+     * Closes the checkpoint files. Evicted sessions can't be restored afterwards, but their checkpoints remain on
+     * disk. The locks of the assessments are not touched, but a {@link LockLeaseManager} may cancel the ones of
+     * evicted sessions once they are idle.
+     */
+    @Override
+    public synchronized void close() {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        this.resident.clear();
+        this.residentBytes = 0;
+        for (var store : this.checkpointStores.values()) {
+            try {
+                store.close();
+            } catch (ArtemisClientException e) {
+                log.warn("Failed to close the checkpoint file {}", store.getFile(), e);
+            }
+        }
+        this.checkpointStores.clear();
+        for (var session : this.evicted) {
+            session.submission.getConnection().onEvictedAssessmentDropped(session.submissionId);
+        }
+        this.evicted.clear();
+    }
+
+    private Assessment access(Session session) throws ArtemisClientException {
+        Assessment assessment;
+        Map<Session, Assessment> toSave;
+        synchronized (this) {
+            this.ensureOpen();
+            if (session.closed) {
+                throw new IllegalStateException("The session has been closed");
+            }
+
+            var entry = this.resident.get(session);
+            if (entry != null) {
+                // The assessment may have changed since it was last accessed
+                this.putResident(session, entry.assessment());
+                assessment = entry.assessment();
+            } else {
+                assessment = this.restore(session);
+                this.evicted.remove(session);
+                this.putResident(session, assessment);
+                this.restores++;
+            }
+            toSave = this.evictIfNecessary(session);
+        }
+        this.saveAndEvict(toSave);
+        return assessment;
+    }
+
+    private synchronized boolean isResident(Session session) {
+        return this.resident.containsKey(session);
+    }
+
+    private synchronized void close(Session session) {
+        if (session.closed) {
+            return;
+        }
+        session.closed = true;
+        this.sessionCount--;
+        var entry = this.resident.remove(session);
+        if (entry != null) {
+            this.residentBytes -= entry.bytes();
+        } else if (!this.closed) {
+            this.evicted.remove(session);
+            session.submission.getConnection().onEvictedAssessmentDropped(session.submissionId);
+            try {
+                this.checkpointStore(session.exerciseId).remove(session.submissionId, session.correctionRound);
+            } catch (ArtemisClientException e) {
+                log.warn("Failed to remove the checkpoint of submission {}", session.submissionId, e);
+            }
+            deleteQuietly(this.resultFile(session));
+        }
+    }
+
+    private void putResident(Session session, Assessment assessment) {
+        long bytes = assessment.estimateRetainedBytes();
+        var previous = this.resident.put(session, new Resident(assessment, bytes));
+        this.residentBytes += bytes - (previous == null ? 0 : previous.bytes());
+    }
+
+    private boolean isOverLimit() {
+        return this.resident.size() > this.maxResident || this.residentBytes > this.maxResidentBytes;
+    }
+
+    /**
+     * Evicts the least recently used assessments until the limits are met again, except for the given one.
+     * Assessments with unsaved changes are not evicted here, but returned if they should be saved first.
+     *
+     * @return the sessions to pass to {@link #saveAndEvict(Map)}
+     */
+    private Map<Session, Assessment> evictIfNecessary(Session keep) {
+        Map<Session, Assessment> toSave = new LinkedHashMap<>();
+        if (!this.isOverLimit()) {
+            return toSave;
+        }
+
+        List<Map.Entry<Session, Resident>> candidates = new ArrayList<>(this.resident.entrySet());
+        for (var candidate : candidates) {
+            if (!this.isOverLimit()) {
+                return toSave;
+            }
+            var session = candidate.getKey();
+            if (session == keep || this.saving.contains(session)) {
+                continue;
+            }
+
+            var assessment = candidate.getValue().assessment();
+            if (!assessment.isDirty()) {
+                this.evict(session, assessment);
+            } else if (this.dirtyPolicy == DirtyPolicy.SAVE_FIRST) {
+                this.saving.add(session);
+                toSave.put(session, assessment);
+            }
+        }
+
+        if (toSave.isEmpty()) {
+            log.debug(
+                    "{} assessments with {} bytes remain resident, as no more can be evicted",
+                    this.resident.size(),
+                    this.residentBytes);
+        }
+        return toSave;
+    }
+
+    /**
+     * Saves the assessments of the sessions without holding the lock, and evicts them afterwards if the limits are
+     * still exceeded.
+     */
+    private void saveAndEvict(Map<Session, Assessment> toSave) {
+        for (var entry : toSave.entrySet()) {
+            var session = entry.getKey();
+            var assessment = entry.getValue();
+            // Sessions that are being saved are not evicted by others, so a resident session still has this assessment
+            synchronized (this) {
+                if (this.closed || !this.resident.containsKey(session) || !this.isOverLimit()) {
+                    this.saving.remove(session);
+                    continue;
+                }
+            }
+
+            boolean saved = true;
+            try {
+                assessment.save();
+            } catch (ArtemisNetworkException | AnnotationMappingException e) {
+                log.warn("Failed to save submission {} before evicting it", session.submissionId, e);
+                saved = false;
+            }
+
+            synchronized (this) {
+                this.saving.remove(session);
+                // The session may have been closed meanwhile, and the assessment may have been changed again
+                if (saved
+                        && !this.closed
+                        && this.resident.containsKey(session)
+                        && !assessment.isDirty()
+                        && this.isOverLimit()) {
+                    this.evict(session, assessment);
+                }
+            }
+        }
+    }
+
+    private void evict(Session session, Assessment assessment) {
+        try {
+            // Opening the store creates the directory
+            this.checkpointStore(session.exerciseId).save(assessment);
+            try (OutputStream output = new GZIPOutputStream(Files.newOutputStream(this.resultFile(session)))) {
+                ArtemisClient.MAPPER.writeValue(output, assessment.getResultWithTestsOnly());
+            }
+        } catch (IOException | ArtemisClientException e) {
+            log.warn("Failed to write the checkpoint of submission {}, keeping it resident", session.submissionId, e);
+            return;
+        }
+
+        this.residentBytes -= this.resident.remove(session).bytes();
+        this.evicted.add(session);
+        assessment.getConnection().onAssessmentEvicted(assessment);
+        this.evictions++;
+    }
+
+    private Assessment restore(Session session) throws ArtemisClientException {
+        var store = this.checkpointStore(session.exerciseId);
+        var checkpoint = store.load(session.submissionId, session.correctionRound, session.config)
+                .orElseThrow(() -> new ArtemisClientException(
+                        "The checkpoint of submission " + session.submissionId + " is missing"));
+
+        ResultDTO result;
+        Path resultFile = this.resultFile(session);
+        try (InputStream input = new GZIPInputStream(Files.newInputStream(resultFile))) {
+            result = ArtemisClient.MAPPER.readValue(input, ResultDTO.class);
+        } catch (IOException e) {
+            throw new ArtemisClientException("Failed to read the evicted result " + resultFile, e);
+        }
+
+        var assessment = new Assessment(
+                result,
+                session.config,
+                session.submission,
+                session.correctionRound,
+                session.studentLocale,
+                session.assessor,
+                checkpoint.annotations());
+
+        assessment.getConnection().onLockAcquired(assessment);
+
+        // The files are only needed while the assessment is evicted
+        store.remove(session.submissionId, session.correctionRound);
+        deleteQuietly(resultFile);
+        return assessment;
+    }
+
+    private CheckpointStore checkpointStore(long exerciseId) throws ArtemisClientException {
+        var store = this.checkpointStores.get(exerciseId);
+        if (store == null) {
+            store = CheckpointStore.open(this.directory, exerciseId);
+            this.checkpointStores.put(exerciseId, store);
+        }
+        return store;
+    }
+
+    private Path resultFile(Session session) {
+        return this.directory.resolve(
+                "result-" + session.submissionId + "-" + session.correctionRound.name().toLowerCase(Locale.ROOT)
+                        + ".json.gz");
+    }
+
+    private void ensureOpen() {
+        if (this.closed) {
+            throw new IllegalStateException("The session manager has been closed");
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete {}", file, e);
+        }
+    }
+
+    private record Resident(Assessment assessment, long bytes) {}
+
+    /**
+     * What to do with assessments with unsaved changes that should be evicted.
+     */
+    public enum DirtyPolicy {
+        /**
+         * Keep them resident, even if that exceeds the limits.
+         */
+        SKIP,
+        /**
+         * Save them to Artemis first. If saving fails, they are kept resident.
+         */
+        SAVE_FIRST
+    }
+
+    /**
+     * An assessment managed by an {@link AssessmentSessionManager}, which may be evicted from memory at any time.
+     */
+    public static final class Session {
+        private final AssessmentSessionManager manager;
+        private final ProgrammingSubmission submission;
+        private final GradingConfig config;
+        private final CorrectionRound correctionRound;
+        private final long submissionId;
+        private final long exerciseId;
+        private final Locale studentLocale;
+        private final UserIdentifier assessor;
+        // Guarded by the manager
+        private boolean closed = false;
+
+        private Session(AssessmentSessionManager manager, Assessment assessment) {
+            this.manager = manager;
+            this.submission = assessment.getSubmission();
+            this.config = assessment.getConfig();
+            this.correctionRound = assessment.getCorrectionRound();
+            this.submissionId = this.submission.getId();
+            this.exerciseId = this.submission.getExercise().getId();
+            this.studentLocale = assessment.getStudentLocale();
+            this.assessor = assessment.getAssessor();
+        }
+
+        /**
+         * Returns the assessment, restoring it from its checkpoint if it has been evicted. Marks the session as the
+         * most recently used one, so this may evict other sessions.
+         */
+        public Assessment get() throws ArtemisClientException {
+            return this.manager.access(this);
+        }
+
+        /**
+         * @return true if the assessment is held in memory, i.e. {@link #get()} doesn't need to restore it
+         */
+        public boolean isResident() {
+            return this.manager.isResident(this);
+        }
+
+        public ProgrammingSubmission getSubmission() {
+            return this.submission;
+        }
+
+        public CorrectionRound getCorrectionRound() {
+            return this.correctionRound;
+        }
+
+        /**
+         * Stops managing the assessment, e.g. after it has been submitted or cancelled, and deletes its checkpoint.
+         */
+        public void close() {
+            this.manager.close(this);
+        }
+
+        @Override
+        public String toString() {
+            return "Session[submission=%d, round=%s]".formatted(this.submissionId, this.correctionRound);
+        }
+    }
+}
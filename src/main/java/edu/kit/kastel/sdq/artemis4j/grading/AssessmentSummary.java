@@ -0,0 +1,42 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j.grading;
+
+import java.time.ZonedDateTime;
+
+import edu.kit.kastel.sdq.artemis4j.client.ProgrammingSubmissionDTO;
+import edu.kit.kastel.sdq.artemis4j.client.ResultDTO;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A lightweight projection of a {@link PackedAssessment} for when only the state of the assessments is needed, e.g.
+ * for counting them. It does not keep the feedbacks, the submission or the participation.
+ *
+ * @param submissionId   the id of the assessed submission
+ * @param resultId       the id of the manual result
+ * @param round          the correction round of the result
+ * @param score          the score of the result in percent
+ * @param completionDate when the assessment was submitted, or null if it is still locked
+ * @param assessorLogin  the login of the assessor, if Artemis included it
+ */
+public record AssessmentSummary(
+        long submissionId,
+        long resultId,
+        CorrectionRound round,
+        double score,
+        @Nullable ZonedDateTime completionDate,
+        @Nullable String assessorLogin) {
+
+    static AssessmentSummary of(ProgrammingSubmissionDTO submission, ResultDTO result, CorrectionRound round) {
+        return new AssessmentSummary(
+                submission.id(),
+                result.id(),
+                round,
+                result.score(),
+                result.completionDate(),
+                result.assessor() == null ? null : result.assessor().login());
+    }
+
+    public boolean isSubmitted() {
+        return this.completionDate != null;
+    }
+}
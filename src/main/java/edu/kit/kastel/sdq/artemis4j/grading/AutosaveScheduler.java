@@ -0,0 +1,170 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j.grading;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import edu.kit.kastel.sdq.artemis4j.ArtemisNetworkException;
+import edu.kit.kastel.sdq.artemis4j.grading.metajson.AnnotationMappingException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Debounces saves of assessments, e.g. for plugins that save on a timer or after every edit.
+ * <p>
+ * {@link #requestSave(Assessment)} doesn't save right away, but after the debounce delay has passed without further
+ * requests for the same assessment. To not lose edits of a tutor that never pauses, a save happens at the latest after
+ * the maximum delay since the first pending request. Saves of assessments that haven't changed are skipped by
+ * {@link Assessment#save()} itself.
+ * <p>
+ * Saves run on virtual threads. A failed save is logged, and the assessment stays dirty so that the next request
+ * saves it again. {@link #close()} saves all pending assessments before returning.
+ */
+public final class AutosaveScheduler implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(AutosaveScheduler.class);
+
+    public static final Duration DEFAULT_DEBOUNCE = Duration.ofSeconds(2);
+    public static final Duration DEFAULT_MAX_DELAY = Duration.ofSeconds(30);
+
+    private final Duration debounce;
+    private final Duration maxDelay;
+    private final ScheduledExecutorService timer;
+    private final ExecutorService savers;
+
+    // Guarded by this
+    private final Map<Assessment, Pending> pending = new IdentityHashMap<>();
+    private boolean closed = false;
+
+    public AutosaveScheduler() {
+        this(DEFAULT_DEBOUNCE, DEFAULT_MAX_DELAY);
+    }
+
+    public AutosaveScheduler(Duration debounce, Duration maxDelay) {
+        if (debounce.isNegative() || maxDelay.compareTo(debounce) < 0) {
+            throw new IllegalArgumentException(
+                    "Invalid delays: debounce %s, max delay %s".formatted(debounce, maxDelay));
+        }
+
+        this.debounce = debounce;
+        this.maxDelay = maxDelay;
+        this.timer = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofVirtual().name("artemis-autosave-timer").factory());
+        this.savers = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("artemis-autosave-", 0).factory());
+    }
+
+    /**
+     * Requests that the assessment is saved soon. Resets the debounce delay of the assessment if a save is already
+     * pending.
+     */
+    public synchronized void requestSave(Assessment assessment) {
+        if (this.closed) {
+            throw new IllegalStateException("The autosave scheduler has been closed");
+        }
+
+        long now = System.nanoTime();
+        var previous = this.pending.get(assessment);
+        long firstRequest = previous == null ? now : previous.firstRequest();
+        if (previous != null) {
+            previous.future().cancel(false);
+        }
+
+        long delay = Math.min(this.debounce.toNanos(), firstRequest + this.maxDelay.toNanos() - now);
+        var future = this.timer.schedule(() -> this.dispatch(assessment), Math.max(0, delay), TimeUnit.NANOSECONDS);
+        this.pending.put(assessment, new Pending(firstRequest, future));
+    }
+
+    /**
+     * Drops the pending save of the assessment, e.g. because it is about to be submitted or cancelled.
+     *
+     * @return true if a save was pending
+     */
+    public synchronized boolean cancel(Assessment assessment) {
+        var previous = this.pending.remove(assessment);
+        if (previous == null) {
+            return false;
+        }
+        previous.future().cancel(false);
+        return true;
+    }
+
+    /**
+     * Saves all assessments with a pending save right away, on the calling thread.
+     *
+     * @return the assessments that couldn't be saved
+     */
+    public List<Assessment> flush() {
+        List<Assessment> assessments;
+        synchronized (this) {
+            assessments = new ArrayList<>(this.pending.keySet());
+            for (var entry : this.pending.values()) {
+                entry.future().cancel(false);
+            }
+            this.pending.clear();
+        }
+
+        List<Assessment> failed = new ArrayList<>();
+        for (var assessment : assessments) {
+            if (!saveQuietly(assessment)) {
+                failed.add(assessment);
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * @return the number of assessments with a pending save
+     */
+    public synchronized int getPendingCount() {
+        return this.pending.size();
+    }
+
+    /**
+     * Saves all pending assessments, and waits for running saves to finish.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (this.closed) {
+                return;
+            }
+            this.closed = true;
+        }
+
+        // Wait for a running dispatch, so that its save is handed to the savers before they are closed
+        this.timer.shutdownNow();
+        this.timer.close();
+        this.flush();
+        this.savers.close();
+    }
+
+    private void dispatch(Assessment assessment) {
+        synchronized (this) {
+            if (this.pending.remove(assessment) == null) {
+                // Cancelled or flushed in the meantime
+                return;
+            }
+        }
+        this.savers.execute(() -> saveQuietly(assessment));
+    }
+
+    private static boolean saveQuietly(Assessment assessment) {
+        try {
+            assessment.save();
+            return true;
+        } catch (ArtemisNetworkException | AnnotationMappingException | RuntimeException e) {
+            log.warn("Failed to autosave the assessment of submission {}", assessment.getSubmission().getId(), e);
+            return false;
+        }
+    }
+
+    private record Pending(long firstRequest, ScheduledFuture<?> future) {}
+}
@@ -0,0 +1,129 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j.grading;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.function.Predicate;
+
+import edu.kit.kastel.sdq.artemis4j.ParallelTasks;
+import edu.kit.kastel.sdq.artemis4j.RateLimiter;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The outcome of a bulk operation (e.g. creating many users), with one item per input.
+ *
+ * @param items the outcome per input, in the order of the inputs
+ * @param <K>   the type of the key identifying an input, e.g. a login
+ */
+public record BulkOperationReport<K>(List<Item<K>> items) {
+    private static final Logger log = LoggerFactory.getLogger(BulkOperationReport.class);
+
+    public BulkOperationReport {
+        items = List.copyOf(items);
+    }
+
+    public List<Item<K>> applied() {
+        return this.withStatus(Status.APPLIED);
+    }
+
+    public List<Item<K>> skipped() {
+        return this.withStatus(Status.SKIPPED);
+    }
+
+    public List<Item<K>> failed() {
+        return this.withStatus(Status.FAILED);
+    }
+
+    /**
+     * @return true if no item failed
+     */
+    public boolean isSuccessful() {
+        return this.failed().isEmpty();
+    }
+
+    private List<Item<K>> withStatus(Status status) {
+        return this.items.stream().filter(item -> item.status() == status).toList();
+    }
+
+    /**
+     * Applies the action to all keys that are not skipped, concurrently and rate limited.
+     *
+     * @param keys        the inputs
+     * @param skip        selects the keys for which nothing has to be done, e.g. because the user already exists
+     * @param parallelism the maximum number of concurrent actions
+     * @param rateLimiter limits the number of actions per second
+     * @param action      the action to apply per key
+     */
+    static <K> BulkOperationReport<K> execute(
+            List<K> keys,
+            Predicate<? super K> skip,
+            int parallelism,
+            RateLimiter rateLimiter,
+            ParallelTasks.ItemTask<? super K, ?, ?> action) {
+        return execute(keys, skip, ParallelTasks.permits(parallelism), rateLimiter, action);
+    }
+
+    /**
+     * Applies the action to all keys that are not skipped, concurrently and rate limited. Each action holds one of the
+     * permits while it runs, so the permits can be shared with other concurrent operations.
+     *
+     * @param keys        the inputs
+     * @param skip        selects the keys for which nothing has to be done, e.g. because the user already exists
+     * @param permits     bounds the number of concurrent actions
+     * @param rateLimiter limits the number of actions per second
+     * @param action      the action to apply per key
+     */
+    static <K> BulkOperationReport<K> execute(
+            List<K> keys,
+            Predicate<? super K> skip,
+            Semaphore permits,
+            RateLimiter rateLimiter,
+            ParallelTasks.ItemTask<? super K, ?, ?> action) {
+        var outcomes = ParallelTasks.mapSettled(keys, permits, key -> {
+            if (skip.test(key)) {
+                return Status.SKIPPED;
+            }
+
+            rateLimiter.acquire();
+            action.apply(key);
+            return Status.APPLIED;
+        });
+
+        List<Item<K>> items = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            var outcome = outcomes.get(i);
+            if (outcome.isSuccessful()) {
+                items.add(new Item<>(keys.get(i), outcome.value(), null));
+            } else {
+                log.warn("Bulk operation failed for {}", keys.get(i), outcome.failure());
+                items.add(new Item<>(keys.get(i), Status.FAILED, outcome.failure()));
+            }
+        }
+        return new BulkOperationReport<>(items);
+    }
+
+    public enum Status {
+        /**
+         * The operation has been applied.
+         */
+        APPLIED,
+        /**
+         * Nothing had to be done, e.g. because the user already existed.
+         */
+        SKIPPED,
+        /**
+         * The operation failed, see {@link Item#failure()}.
+         */
+        FAILED
+    }
+
+    /**
+     * @param key     the input
+     * @param status  what happened
+     * @param failure why the operation failed, null unless the status is {@link Status#FAILED}
+     */
+    public record Item<K>(K key, Status status, @Nullable Exception failure) {}
+}
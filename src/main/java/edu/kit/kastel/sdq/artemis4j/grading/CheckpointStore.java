@@ -0,0 +1,883 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j.grading;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+import edu.kit.kastel.sdq.artemis4j.ArtemisClientException;
+import edu.kit.kastel.sdq.artemis4j.client.AnnotationSource;
+import edu.kit.kastel.sdq.artemis4j.grading.location.LineColumn;
+import edu.kit.kastel.sdq.artemis4j.grading.metajson.AnnotationDTO;
+import edu.kit.kastel.sdq.artemis4j.grading.penalty.GradingConfig;
+import edu.kit.kastel.sdq.artemis4j.grading.penalty.MistakeType;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Stores checkpoints of the annotations of many assessments of one exercise in a single append-only file. This is
+ * meant as a cheaper alternative to {@link Assessment#exportAssessment()} when checkpointing after every edit.
+ * <p>
+ * The file starts with a small header (magic, format version, exercise id), followed by records. Every record has a
+ * type, a length and a CRC. Mistake type ids, file paths, classifiers and logins are interned: every distinct string
+ * is written once as its own record and then referenced by its index. Lines, columns and counts are written as
+ * varints, so a typical annotation takes only a few dozen bytes. Saving a checkpoint appends a new record, removing
+ * one appends a tombstone.
+ * <p>
+ * The index (the position of the latest checkpoint of every assessment) and the string table are kept in memory and
+ * rebuilt on open by scanning the file, which is memory-mapped for reading. A torn last record, e.g. after a crash
+ * during a write, is cut off during the scan. A corrupt record that is followed by more data can't be a torn write,
+ * so opening the file fails instead of discarding the records after it. Once more than half of the file consists of
+ * outdated records, it is compacted by rewriting only the latest checkpoints to a new file, which then replaces the
+ * old one.
+ * <p>
+ * A checkpoint file can only be opened by one store at a time: the file is locked, and opening it again (from this
+ * or another process) fails until the store is closed.
+ * <p>
+ * Written records are handed to the operating system immediately, so they survive a crash of the process. Use
+ * {@link #flush()} to also write them to the disk. All methods are thread-safe.
+ */
+public final class CheckpointStore implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(CheckpointStore.class);
+
+    private static final int MAGIC = 0x41344350; // "A4CP"
+    private static final short FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 4 + 2 + 8;
+    private static final String FILE_SUFFIX = ".checkpoints";
+
+    private static final byte RECORD_STRING = 1;
+    private static final byte RECORD_CHECKPOINT = 2;
+    private static final byte RECORD_TOMBSTONE = 3;
+
+    private static final byte UUID_BINARY = 0;
+    private static final byte UUID_STRING = 1;
+
+    private static final int FLAG_CUSTOM_MESSAGE = 1;
+    private static final int FLAG_CUSTOM_SCORE = 1 << 1;
+    private static final int FLAG_CLASSIFIERS = 1 << 2;
+    private static final int FLAG_ANNOTATION_LIMIT = 1 << 3;
+    private static final int FLAG_CREATOR = 1 << 4;
+    private static final int FLAG_SUPPRESSOR = 1 << 5;
+
+    /**
+     * Compaction is skipped while the outdated records take less space than this, as it wouldn't gain much.
+     */
+    static final long MIN_COMPACTION_BYTES = 1024 * 1024;
+
+    private static final CorrectionRound[] ROUNDS = CorrectionRound.values();
+    private static final AnnotationSource[] SOURCES = AnnotationSource.values();
+
+    // File locks are held by the whole JVM, so they don't keep two stores of the same process apart
+    private static final Set<Path> OPEN_FILES = ConcurrentHashMap.newKeySet();
+
+    private final Path file;
+    private final Path openFileKey;
+    private final long exerciseId;
+
+    // All following fields are guarded by this
+    private FileChannel channel;
+    private @Nullable MappedByteBuffer mapped;
+    private long size;
+    private long outdatedBytes;
+    private final List<String> strings = new ArrayList<>();
+    private final Map<String, Integer> stringIds = new HashMap<>();
+    private final Map<Key, Entry> index = new LinkedHashMap<>();
+    private boolean closed = false;
+
+    private CheckpointStore(Path file, long exerciseId) throws IOException {
+        this.file = file;
+        this.openFileKey = file.toAbsolutePath().normalize();
+        this.exerciseId = exerciseId;
+        if (!OPEN_FILES.add(this.openFileKey)) {
+            throw new IOException("The checkpoint file " + file + " is already open");
+        }
+
+        try {
+            this.channel = openChannel(file);
+            try {
+                this.load();
+            } catch (IOException | RuntimeException e) {
+                closeQuietly(this.channel);
+                throw e;
+            }
+        } catch (IOException | RuntimeException e) {
+            OPEN_FILES.remove(this.openFileKey);
+            throw e;
+        }
+    }
+
+    /**
+     * Opens (and creates if necessary) the checkpoint file of the exercise in the given directory, and recovers its
+     * index.
+     *
+     * @throws ArtemisClientException if the file can't be read, is corrupt, belongs to another exercise or is already
+     *     open
+     */
+    public static CheckpointStore open(Path directory, ProgrammingExercise exercise) throws ArtemisClientException {
+        return open(directory, exercise.getId());
+    }
+
+    static CheckpointStore open(Path directory, long exerciseId) throws ArtemisClientException {
+        Path file = directory.resolve("exercise-" + exerciseId + FILE_SUFFIX);
+        try {
+            Files.createDirectories(directory);
+            return new CheckpointStore(file, exerciseId);
+        } catch (IOException e) {
+            throw new ArtemisClientException("Failed to open the checkpoint file " + file, e);
+        }
+    }
+
+    /**
+     * Saves the current annotations (including suppressed ones) of the assessment, replacing the previous checkpoint
+     * of the same submission and correction round.
+     */
+    public void save(Assessment assessment) throws ArtemisClientException {
+        List<AnnotationDTO> annotations = new ArrayList<>();
+        // Copied under the assessment's lock, since the assessment may be edited while it is saved
+        for (var annotation : assessment.copyAnnotations()) {
+            annotations.add(annotation.toDTO());
+        }
+        this.save(assessment.getSubmission().getId(), assessment.getCorrectionRound(), annotations);
+    }
+
+    synchronized void save(long submissionId, CorrectionRound round, List<AnnotationDTO> annotations)
+            throws ArtemisClientException {
+        this.ensureOpen();
+        try {
+            var savedAt = Instant.ofEpochMilli(System.currentTimeMillis());
+            this.write(new Key(submissionId, round), new StoredCheckpoint(savedAt, annotations));
+            this.compactIfWorthwhile();
+        } catch (IOException e) {
+            throw new ArtemisClientException("Failed to write a checkpoint to " + this.file, e);
+        }
+    }
+
+    /**
+     * Loads the latest checkpoint of the given submission and correction round.
+     *
+     * @param config the grading config to resolve the mistake types with
+     * @return the checkpoint, or empty if there is none
+     * @throws MismatchedGradingConfigException if an annotation references a mistake type that isn't in the config
+     */
+    public Optional<Checkpoint> load(long submissionId, CorrectionRound round, GradingConfig config)
+            throws ArtemisClientException {
+        var stored = this.loadAnnotations(submissionId, round);
+        if (stored.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Map<String, MistakeType> mistakeTypes = new HashMap<>();
+        for (var mistakeType : config.getMistakeTypes()) {
+            mistakeTypes.put(mistakeType.getId(), mistakeType);
+        }
+
+        List<Annotation> annotations = new ArrayList<>(stored.get().annotations().size());
+        for (var dto : stored.get().annotations()) {
+            var mistakeType = mistakeTypes.get(dto.mistakeTypeId());
+            if (mistakeType == null) {
+                throw new MismatchedGradingConfigException(
+                        "MistakeType with id " + dto.mistakeTypeId() + " not found in grading config");
+            }
+            annotations.add(new Annotation(dto, mistakeType));
+        }
+        return Optional.of(new Checkpoint(submissionId, round, stored.get().savedAt(), annotations));
+    }
+
+    synchronized Optional<StoredCheckpoint> loadAnnotations(long submissionId, CorrectionRound round)
+            throws ArtemisClientException {
+        this.ensureOpen();
+        var entry = this.index.get(new Key(submissionId, round));
+        if (entry == null) {
+            return Optional.empty();
+        }
+
+        try {
+            var buffer = this.mapped;
+            if (buffer == null || buffer.capacity() < this.size) {
+                buffer = this.map(this.size);
+            }
+            var payload = readRecord(buffer, (int) entry.offset());
+            if (payload == null || buffer.get((int) entry.offset()) != RECORD_CHECKPOINT) {
+                throw new IOException("The record at offset " + entry.offset() + " is corrupt");
+            }
+            readVarLong(payload); // submission id
+            payload.get(); // correction round
+            return Optional.of(this.decodeCheckpoint(payload));
+        } catch (IOException | RuntimeException e) {
+            throw new ArtemisClientException("Failed to read the checkpoint of submission " + submissionId, e);
+        }
+    }
+
+    /**
+     * Replaces the annotations of the assessment with the ones of its latest checkpoint, if there is one.
+     *
+     * @return true if a checkpoint has been restored
+     */
+    public boolean restore(Assessment assessment) throws ArtemisClientException {
+        var checkpoint = this.load(
+                assessment.getSubmission().getId(), assessment.getCorrectionRound(), assessment.getConfig());
+        if (checkpoint.isEmpty()) {
+            return false;
+        }
+        assessment.replaceAnnotations(checkpoint.get().annotations());
+        return true;
+    }
+
+    /**
+     * Removes the checkpoint of the given submission and correction round, e.g. after the assessment has been
+     * submitted.
+     *
+     * @return true if there was a checkpoint
+     */
+    public synchronized boolean remove(long submissionId, CorrectionRound round) throws ArtemisClientException {
+        this.ensureOpen();
+        var previous = this.index.remove(new Key(submissionId, round));
+        if (previous == null) {
+            return false;
+        }
+
+        try {
+            var payload = new Encoder();
+            payload.writeVarLong(submissionId);
+            payload.writeByte(round.ordinal());
+            var record = new Encoder();
+            record.writeRecord(RECORD_TOMBSTONE, payload);
+            this.append(record);
+
+            this.outdatedBytes += previous.length() + record.size();
+            this.compactIfWorthwhile();
+            return true;
+        } catch (IOException e) {
+            throw new ArtemisClientException("Failed to write to the checkpoint file " + this.file, e);
+        }
+    }
+
+    /**
+     * @return the submissions and correction rounds for which a checkpoint exists
+     */
+    public synchronized Set<Key> getKeys() {
+        return Set.copyOf(this.index.keySet());
+    }
+
+    /**
+     * Rewrites the file so that it only contains the latest checkpoints and the strings they reference.
+     */
+    public synchronized void compact() throws ArtemisClientException {
+        this.ensureOpen();
+        Path temporary = null;
+        try {
+            // Decode everything before touching the file, so that a failure leaves the old file intact
+            Map<Key, StoredCheckpoint> live = new LinkedHashMap<>();
+            for (var key : this.index.keySet()) {
+                live.put(key, this.loadAnnotations(key.submissionId(), key.round()).orElseThrow());
+            }
+
+            temporary = Files.createTempFile(this.file.getParent(), "compaction", ".tmp");
+            try (var compacted = new CheckpointStore(temporary, this.exerciseId)) {
+                for (var checkpoint : live.entrySet()) {
+                    compacted.write(checkpoint.getKey(), checkpoint.getValue());
+                }
+            }
+
+            long before = this.size;
+            this.channel.close();
+            this.mapped = null;
+            try {
+                Files.move(temporary, this.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, this.file, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                // Continue with the old file if the move failed
+                this.channel = openChannel(this.file);
+                this.load();
+            }
+            log.debug("Compacted the checkpoint file {} from {} to {} bytes", this.file, before, this.size);
+        } catch (IOException e) {
+            throw new ArtemisClientException("Failed to compact the checkpoint file " + this.file, e);
+        } finally {
+            if (temporary != null) {
+                deleteQuietly(temporary);
+            }
+        }
+    }
+
+    /**
+     * Forces all checkpoints to the disk, so that they even survive a crash of the operating system.
+     */
+    public synchronized void flush() throws ArtemisClientException {
+        this.ensureOpen();
+        try {
+            this.channel.force(false);
+        } catch (IOException e) {
+            throw new ArtemisClientException("Failed to flush the checkpoint file " + this.file, e);
+        }
+    }
+
+    public Path getFile() {
+        return this.file;
+    }
+
+    /**
+     * @return the size of the file in bytes
+     */
+    public synchronized long getSizeInBytes() {
+        return this.size;
+    }
+
+    /**
+     * @return the number of bytes that a compaction would free
+     */
+    public synchronized long getOutdatedBytes() {
+        return this.outdatedBytes;
+    }
+
+    @Override
+    public synchronized void close() throws ArtemisClientException {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        this.mapped = null;
+        try {
+            this.channel.force(false);
+            this.channel.close();
+        } catch (IOException e) {
+            throw new ArtemisClientException("Failed to close the checkpoint file " + this.file, e);
+        } finally {
+            OPEN_FILES.remove(this.openFileKey);
+        }
+    }
+
+    private void write(Key key, StoredCheckpoint checkpoint) throws IOException {
+        var payload = new Encoder();
+        payload.writeVarLong(key.submissionId());
+        payload.writeByte(key.round().ordinal());
+        payload.writeVarLong(checkpoint.savedAt().toEpochMilli());
+        payload.writeVarLong(checkpoint.annotations().size());
+        // New strings are written before the checkpoint, in the same write. They are only added to the string table
+        // once they are in the file, so that a failed encoding or write doesn't leave ids without a string record.
+        var records = new Encoder();
+        List<String> newStrings = new ArrayList<>();
+        for (var annotation : checkpoint.annotations()) {
+            this.encodeAnnotation(annotation, payload, records, newStrings);
+        }
+
+        long offset = this.size + records.size();
+        records.writeRecord(RECORD_CHECKPOINT, payload);
+        this.append(records);
+        for (var value : newStrings) {
+            this.intern(value);
+        }
+
+        var previous = this.index.put(key, new Entry(offset, this.size - offset));
+        if (previous != null) {
+            this.outdatedBytes += previous.length();
+        }
+    }
+
+    private void compactIfWorthwhile() {
+        if (this.outdatedBytes >= MIN_COMPACTION_BYTES && this.outdatedBytes * 2 > this.size) {
+            try {
+                this.compact();
+            } catch (ArtemisClientException e) {
+                // The checkpoint has been written, compaction can be retried with the next one
+                log.warn("Failed to compact the checkpoint file {}", this.file, e);
+            }
+        }
+    }
+
+    private void append(Encoder records) throws IOException {
+        var buffer = ByteBuffer.wrap(records.bytes(), 0, records.size());
+        long position = this.size;
+        try {
+            while (buffer.hasRemaining()) {
+                position += this.channel.write(buffer, position);
+            }
+        } catch (IOException e) {
+            // Don't leave a partial record behind, a later append would otherwise end up after it
+            try {
+                this.channel.truncate(this.size);
+            } catch (IOException truncateFailure) {
+                e.addSuppressed(truncateFailure);
+            }
+            throw e;
+        }
+        this.size = position;
+    }
+
+    /**
+     * Reads the header, the string table and the index. Cuts off a torn last record.
+     */
+    private void load() throws IOException {
+        this.strings.clear();
+        this.stringIds.clear();
+        this.index.clear();
+        this.outdatedBytes = 0;
+        this.mapped = null;
+
+        long fileSize = this.channel.size();
+        if (fileSize < HEADER_SIZE) {
+            if (fileSize > 0) {
+                log.warn("Discarding the incomplete checkpoint file {}", this.file);
+            }
+            var header = ByteBuffer.allocate(HEADER_SIZE)
+                    .putInt(MAGIC)
+                    .putShort(FORMAT_VERSION)
+                    .putLong(this.exerciseId)
+                    .flip();
+            this.channel.truncate(0);
+            this.channel.write(header, 0);
+            this.size = HEADER_SIZE;
+            return;
+        }
+
+        var buffer = this.map(fileSize);
+        if (buffer.getInt(0) != MAGIC || buffer.getShort(4) != FORMAT_VERSION) {
+            throw new IOException("Unknown format of the checkpoint file " + this.file);
+        }
+        if (buffer.getLong(6) != this.exerciseId) {
+            throw new IOException("The checkpoint file " + this.file + " belongs to exercise " + buffer.getLong(6));
+        }
+
+        long position = HEADER_SIZE;
+        while (position < fileSize) {
+            long next = this.scanRecord(buffer, (int) position);
+            if (next < 0) {
+                if (!isTornTail(buffer, (int) position, fileSize)) {
+                    this.mapped = null;
+                    throw new IOException(
+                            "The checkpoint file " + this.file + " contains a corrupt record at offset " + position);
+                }
+                log.warn(
+                        "Discarding {} bytes of invalid records at the end of the checkpoint file {}",
+                        fileSize - position,
+                        this.file);
+                this.mapped = null;
+                this.channel.truncate(position);
+                break;
+            }
+            position = next;
+        }
+        this.size = position;
+    }
+
+    /**
+     * @return the offset of the next record, or -1 if the record at the offset is invalid
+     */
+    private long scanRecord(ByteBuffer buffer, int offset) {
+        try {
+            var payload = readRecord(buffer, offset);
+            if (payload == null) {
+                return -1;
+            }
+            long next = payload.position() + (long) payload.remaining();
+            byte type = buffer.get(offset);
+            switch (type) {
+                case RECORD_STRING -> this.intern(StandardCharsets.UTF_8.decode(payload).toString());
+                case RECORD_CHECKPOINT -> {
+                    var key = new Key(readVarLong(payload), ROUNDS[payload.get()]);
+                    var previous = this.index.put(key, new Entry(offset, next - offset));
+                    if (previous != null) {
+                        this.outdatedBytes += previous.length();
+                    }
+                }
+                case RECORD_TOMBSTONE -> {
+                    var previous = this.index.remove(new Key(readVarLong(payload), ROUNDS[payload.get()]));
+                    this.outdatedBytes += next - offset + (previous == null ? 0 : previous.length());
+                }
+                default -> {
+                    return -1;
+                }
+            }
+            return next;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Checks whether an invalid record is the result of an interrupted append: it either extends up to or beyond the
+     * end of the file, or only zeros follow (which some file systems leave behind after a crash).
+     */
+    private static boolean isTornTail(ByteBuffer buffer, int offset, long fileSize) {
+        try {
+            var record = buffer.duplicate().position(offset + 1);
+            long length = readVarLong(record);
+            if (length < 0 || record.position() + 4 + length >= fileSize) {
+                return true;
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            // Even the length has been cut off
+            return true;
+        }
+
+        for (int i = offset; i < fileSize; i++) {
+            if (buffer.get(i) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the payload of the record at the offset, starting after the CRC, or null if the record is truncated or
+     *     corrupt
+     */
+    private static @Nullable ByteBuffer readRecord(ByteBuffer buffer, int offset) {
+        var record = buffer.duplicate().position(offset + 1);
+        long length = readVarLong(record);
+        if (length < 0 || length > record.remaining() - 4) {
+            return null;
+        }
+        int checksum = record.getInt();
+        record.limit(record.position() + (int) length);
+
+        var crc = new CRC32();
+        crc.update(record.duplicate());
+        if ((int) crc.getValue() != checksum) {
+            return null;
+        }
+        return record;
+    }
+
+    private MappedByteBuffer map(long length) throws IOException {
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("The checkpoint file " + this.file + " is too large");
+        }
+        this.mapped = this.channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+        return this.mapped;
+    }
+
+    private void encodeAnnotation(
+            AnnotationDTO annotation, Encoder payload, Encoder records, List<String> newStrings) {
+        var uuid = parseUUID(annotation.uuid());
+        if (uuid != null) {
+            payload.writeByte(UUID_BINARY);
+            payload.writeLong(uuid.getMostSignificantBits());
+            payload.writeLong(uuid.getLeastSignificantBits());
+        } else {
+            payload.writeByte(UUID_STRING);
+            payload.writeString(annotation.uuid());
+        }
+
+        payload.writeVarLong(this.stringId(annotation.mistakeTypeId(), records, newStrings));
+        payload.writeVarLong(this.stringId(annotation.classFilePath(), records, newStrings));
+        payload.writeVarLong(annotation.start().line());
+        payload.writeVarLong(annotation.start().column().map(c -> c + 1).orElse(0));
+        // The end is never before the start
+        payload.writeVarLong(annotation.end().line() - annotation.start().line());
+        payload.writeVarLong(annotation.end().column().map(c -> c + 1).orElse(0));
+        payload.writeByte(annotation.source() == null ? 0 : annotation.source().ordinal() + 1);
+
+        int flags = 0;
+        flags |= annotation.customMessageForJSON() != null ? FLAG_CUSTOM_MESSAGE : 0;
+        flags |= annotation.customPenaltyForJSON() != null ? FLAG_CUSTOM_SCORE : 0;
+        flags |= annotation.classifiers() != null && !annotation.classifiers().isEmpty() ? FLAG_CLASSIFIERS : 0;
+        flags |= annotation.annotationLimit() != null ? FLAG_ANNOTATION_LIMIT : 0;
+        flags |= annotation.createdByUserLogin() != null ? FLAG_CREATOR : 0;
+        flags |= annotation.suppressedByUserLogin() != null ? FLAG_SUPPRESSOR : 0;
+        payload.writeByte(flags);
+
+        if (annotation.customMessageForJSON() != null) {
+            payload.writeString(annotation.customMessageForJSON());
+        }
+        if (annotation.customPenaltyForJSON() != null) {
+            payload.writeLong(Double.doubleToLongBits(annotation.customPenaltyForJSON()));
+        }
+        if ((flags & FLAG_CLASSIFIERS) != 0) {
+            payload.writeVarLong(annotation.classifiers().size());
+            for (var classifier : annotation.classifiers()) {
+                payload.writeVarLong(this.stringId(classifier, records, newStrings));
+            }
+        }
+        if (annotation.annotationLimit() != null) {
+            payload.writeVarLong(annotation.annotationLimit());
+        }
+        if (annotation.createdByUserLogin() != null) {
+            payload.writeVarLong(this.stringId(annotation.createdByUserLogin(), records, newStrings));
+        }
+        if (annotation.suppressedByUserLogin() != null) {
+            payload.writeVarLong(this.stringId(annotation.suppressedByUserLogin(), records, newStrings));
+        }
+    }
+
+    private StoredCheckpoint decodeCheckpoint(ByteBuffer payload) {
+        var savedAt = Instant.ofEpochMilli(readVarLong(payload));
+        int count = (int) readVarLong(payload);
+        List<AnnotationDTO> annotations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            annotations.add(this.decodeAnnotation(payload));
+        }
+        return new StoredCheckpoint(savedAt, annotations);
+    }
+
+    private AnnotationDTO decodeAnnotation(ByteBuffer payload) {
+        String uuid = payload.get() == UUID_BINARY
+                ? new UUID(payload.getLong(), payload.getLong()).toString()
+                : readString(payload);
+
+        String mistakeTypeId = this.readStringRef(payload);
+        String filePath = this.readStringRef(payload);
+        int startLine = (int) readVarLong(payload);
+        var start = new LineColumn(startLine, readColumn(payload));
+        var end = new LineColumn(startLine + (int) readVarLong(payload), readColumn(payload));
+        int source = payload.get();
+
+        int flags = payload.get();
+        String customMessage = (flags & FLAG_CUSTOM_MESSAGE) != 0 ? readString(payload) : null;
+        Double customScore = (flags & FLAG_CUSTOM_SCORE) != 0 ? Double.longBitsToDouble(payload.getLong()) : null;
+        List<String> classifiers = List.of();
+        if ((flags & FLAG_CLASSIFIERS) != 0) {
+            int classifierCount = (int) readVarLong(payload);
+            classifiers = new ArrayList<>(classifierCount);
+            for (int i = 0; i < classifierCount; i++) {
+                classifiers.add(this.readStringRef(payload));
+            }
+        }
+        Integer annotationLimit = (flags & FLAG_ANNOTATION_LIMIT) != 0 ? (int) readVarLong(payload) : null;
+        String creator = (flags & FLAG_CREATOR) != 0 ? this.readStringRef(payload) : null;
+        String suppressor = (flags & FLAG_SUPPRESSOR) != 0 ? this.readStringRef(payload) : null;
+
+        return new AnnotationDTO(
+                uuid,
+                mistakeTypeId,
+                start,
+                end,
+                filePath,
+                customMessage,
+                customScore,
+                source == 0 ? null : SOURCES[source - 1],
+                classifiers,
+                annotationLimit,
+                null,
+                creator,
+                null,
+                suppressor);
+    }
+
+    /**
+     * @param newStrings the strings that have been written to {@code records} but are not interned yet
+     * @return the id of the string, writing a string record to {@code records} if it is new
+     */
+    private int stringId(String value, Encoder records, List<String> newStrings) {
+        var id = this.stringIds.get(value);
+        if (id != null) {
+            return id;
+        }
+        int pending = newStrings.indexOf(value);
+        if (pending >= 0) {
+            return this.strings.size() + pending;
+        }
+
+        var payload = new Encoder();
+        payload.writeBytes(value.getBytes(StandardCharsets.UTF_8));
+        records.writeRecord(RECORD_STRING, payload);
+        newStrings.add(value);
+        return this.strings.size() + newStrings.size() - 1;
+    }
+
+    private int intern(String value) {
+        int id = this.strings.size();
+        this.strings.add(value);
+        this.stringIds.putIfAbsent(value, id);
+        return id;
+    }
+
+    private String readStringRef(ByteBuffer payload) {
+        return this.strings.get((int) readVarLong(payload));
+    }
+
+    private void ensureOpen() {
+        if (this.closed) {
+            throw new IllegalStateException("The checkpoint store has been closed");
+        }
+    }
+
+    private static Optional<Integer> readColumn(ByteBuffer payload) {
+        int column = (int) readVarLong(payload);
+        return column == 0 ? Optional.empty() : Optional.of(column - 1);
+    }
+
+    private static String readString(ByteBuffer payload) {
+        byte[] bytes = new byte[(int) readVarLong(payload)];
+        payload.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static long readVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    private static @Nullable UUID parseUUID(String value) {
+        try {
+            var uuid = UUID.fromString(value);
+            // Only use the binary encoding if it restores the exact string
+            return uuid.toString().equals(value) ? uuid : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Opens the file and locks it, so that other processes can't open it at the same time.
+     */
+    private static FileChannel openChannel(Path file) throws IOException {
+        var channel =
+                FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.tryLock() == null) {
+                throw new IOException("The checkpoint file " + file + " is used by another process");
+            }
+        } catch (OverlappingFileLockException e) {
+            // The file has been opened by another store of this process via another path
+            closeQuietly(channel);
+            throw new IOException("The checkpoint file " + file + " is already open", e);
+        } catch (IOException | RuntimeException e) {
+            closeQuietly(channel);
+            throw e;
+        }
+        return channel;
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Failed to close a checkpoint file", e);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete {}", file, e);
+        }
+    }
+
+    /**
+     * Identifies the assessment of a checkpoint.
+     */
+    public record Key(long submissionId, CorrectionRound round) {}
+
+    /**
+     * The restored annotations of an assessment.
+     *
+     * @param savedAt when the checkpoint has been saved
+     */
+    public record Checkpoint(
+            long submissionId, CorrectionRound round, Instant savedAt, List<Annotation> annotations) {}
+
+    record StoredCheckpoint(Instant savedAt, List<AnnotationDTO> annotations) {}
+
+    /**
+     * @param offset the offset of the record in the file
+     * @param length the length of the record including its type, length and CRC
+     */
+    private record Entry(long offset, long length) {}
+
+    /**
+     * A growable byte array for building records.
+     */
+    static final class Encoder {
+        private byte[] bytes = new byte[64];
+        private int size = 0;
+
+        void writeByte(int value) {
+            this.ensureCapacity(1);
+            this.bytes[this.size++] = (byte) value;
+        }
+
+        void writeVarLong(long value) {
+            if (value < 0) {
+                throw new IllegalArgumentException("Varints must not be negative, but was " + value);
+            }
+            while ((value & ~0x7FL) != 0) {
+                this.writeByte((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            this.writeByte((int) value);
+        }
+
+        void writeLong(long value) {
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                this.writeByte((int) (value >>> shift));
+            }
+        }
+
+        void writeString(String value) {
+            byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+            this.writeVarLong(encoded.length);
+            this.writeBytes(encoded);
+        }
+
+        void writeBytes(byte[] value) {
+            this.ensureCapacity(value.length);
+            System.arraycopy(value, 0, this.bytes, this.size, value.length);
+            this.size += value.length;
+        }
+
+        /**
+         * Appends a record with the given payload: its type, the length of the payload, the CRC of the payload and
+         * the payload itself.
+         */
+        void writeRecord(byte type, Encoder payload) {
+            var crc = new CRC32();
+            crc.update(payload.bytes, 0, payload.size);
+
+            this.writeByte(type);
+            this.writeVarLong(payload.size);
+            int checksum = (int) crc.getValue();
+            for (int shift = 24; shift >= 0; shift -= 8) {
+                this.writeByte(checksum >>> shift);
+            }
+            this.ensureCapacity(payload.size);
+            System.arraycopy(payload.bytes, 0, this.bytes, this.size, payload.size);
+            this.size += payload.size;
+        }
+
+        byte[] bytes() {
+            return this.bytes;
+        }
+
+        int size() {
+            return this.size;
+        }
+
+        private void ensureCapacity(int additional) {
+            if (this.size + additional > this.bytes.length) {
+                this.bytes = Arrays.copyOf(this.bytes, Math.max(this.bytes.length * 2, this.size + additional));
+            }
+        }
+    }
+}
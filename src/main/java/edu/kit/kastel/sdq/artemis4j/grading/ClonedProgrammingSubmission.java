@@ -64,6 +64,7 @@ public class ClonedProgrammingSubmission implements AutoCloseable {
         this.submission = submission;
         this.testsPath = testsPath;
         this.submissionPath = submissionPath;
+        submission.getConnection().trackClonedSubmission(this);
     }
 
     public ProgrammingSubmission getSubmission() {
@@ -103,6 +104,7 @@ public class ClonedProgrammingSubmission implements AutoCloseable {
     public void close() throws ArtemisClientException {
         try {
             deleteDirectory(this.testsPath);
+            this.submission.getConnection().untrackClonedSubmission(this);
         } catch (IOException e) {
             throw new ArtemisClientException("Failed to delete the cloned submission", e);
         }
@@ -0,0 +1,65 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j.grading;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import edu.kit.kastel.sdq.artemis4j.LazyNetworkValue;
+import edu.kit.kastel.sdq.artemis4j.client.ClientDiagnostics;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A snapshot of what an {@link ArtemisConnection} currently holds in memory and is working on, see
+ * {@link ArtemisConnection#diagnostics()}.
+ *
+ * @param takenAt           when the snapshot was taken
+ * @param cachedValues      the lazily fetched values of the connection and its loaded courses
+ * @param persistentCache   the state of the on-disk cache, or null if it is not enabled
+ * @param client            the state of the HTTP transport and the in-flight requests
+ * @param openAssessments   the locked assessments that have not yet been submitted or canceled
+ * @param clonedWorkspaces  the directories of cloned submissions that have not been closed yet
+ * @param lockStatistics    how submissions have been locked by this connection
+ */
+public record ConnectionDiagnostics(
+        Instant takenAt,
+        List<CachedValue> cachedValues,
+        @Nullable PersistentCache persistentCache,
+        ClientDiagnostics client,
+        List<OpenAssessment> openAssessments,
+        List<Path> clonedWorkspaces,
+        LockStatistics lockStatistics) {
+
+    /**
+     * @param name   a descriptive name of the value, e.g. {@code course[42].exercises}
+     * @param loaded whether the value has been fetched
+     * @param age    the time since the value was fetched, null if it is not loaded
+     */
+    public record CachedValue(String name, boolean loaded, @Nullable Duration age) {
+        static CachedValue of(String name, LazyNetworkValue<?> value, Instant now) {
+            var loadedAt = value.getLoadedAt();
+            return new CachedValue(name, loadedAt != null, loadedAt == null ? null : Duration.between(loadedAt, now));
+        }
+    }
+
+    public record PersistentCache(Path directory, int entries, long sizeInBytes) {}
+
+    public record OpenAssessment(long submissionId, CorrectionRound correctionRound, int annotations) {}
+
+    /**
+     * @param locks          the number of submissions locked via {@link ProgrammingExercise#tryLockNextSubmission}
+     * @param fallbacks      how many of these locks needed a second request, because Artemis didn't include the
+     *                       result in the first response
+     * @param averageLatency the average time from the first lock request until the assessment was opened
+     * @param maxLatency     the longest time from the first lock request until the assessment was opened
+     */
+    public record LockStatistics(long locks, long fallbacks, Duration averageLatency, Duration maxLatency) {
+        /**
+         * @return the share of locks that needed a second request, 0 if there were no locks
+         */
+        public double fallbackRatio() {
+            return this.locks == 0 ? 0.0 : (double) this.fallbacks / this.locks;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j.grading;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import edu.kit.kastel.sdq.artemis4j.ArtemisNetworkException;
+import edu.kit.kastel.sdq.artemis4j.LazyNetworkValue.NetworkSupplier;
+import edu.kit.kastel.sdq.artemis4j.ParallelTasks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Implements {@link ArtemisConnection#warmUp(WarmUpPlan)}.
+ * <p>
+ * The only dependencies between the requests are that the per-course requests need the list of courses,
+ * and the exercise request needs the assessor to check the roles. Everything else is fetched concurrently.
+ */
+final class ConnectionWarmUp {
+    private static final Logger log = LoggerFactory.getLogger(ConnectionWarmUp.class);
+
+    private final ArtemisConnection connection;
+    private final WarmUpPlan plan;
+
+    ConnectionWarmUp(ArtemisConnection connection, WarmUpPlan plan) {
+        this.connection = connection;
+        this.plan = plan;
+    }
+
+    WarmUpReport run() {
+        long start = System.nanoTime();
+        List<WarmUpReport.Step> steps = new ArrayList<>();
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            // The management info is independent of everything else
+            Future<WarmUpReport.Step> managementInfo = null;
+            if (this.plan.includeManagementInfo()) {
+                managementInfo = executor.submit(() -> measure("management info", this.connection::getManagementInfo));
+            }
+
+            var assessor = executor.submit(() -> measure("assessor", this.connection::getAssessor));
+            var courses = executor.submit(() -> measure("courses", this.connection::getCourses));
+            steps.add(await(assessor));
+            steps.add(await(courses));
+
+            if (steps.stream().allMatch(WarmUpReport.Step::isSuccessful)) {
+                steps.addAll(this.runCourseSteps());
+            }
+
+            if (managementInfo != null) {
+                steps.add(await(managementInfo));
+            }
+        }
+
+        var report = new WarmUpReport(steps, Duration.ofNanos(System.nanoTime() - start));
+        log.info(
+                "Warm-up finished in {} ms with {} steps, {} failed",
+                report.total().toMillis(),
+                report.steps().size(),
+                report.failedSteps().size());
+        return report;
+    }
+
+    private List<WarmUpReport.Step> runCourseSteps() {
+        List<CourseStep> courseSteps = new ArrayList<>();
+        try {
+            for (var course : this.connection.getCourses()) {
+                if (!this.plan.isSelected(course)) {
+                    continue;
+                }
+
+                if (this.plan.includeExercises()) {
+                    // The roles are derived from the groups of the already fetched assessor, so this is one request
+                    courseSteps.add(
+                            new CourseStep("course " + course.getId() + " exercises", course::getProgrammingExercises));
+                }
+
+                if (this.plan.includeExams()) {
+                    courseSteps.add(new CourseStep("course " + course.getId() + " exams", course::getExams));
+                }
+            }
+        } catch (ArtemisNetworkException e) {
+            // Can't happen, since the courses have already been fetched successfully
+            throw new IllegalStateException(e);
+        }
+
+        return ParallelTasks.map(courseSteps, this.plan.parallelism(), step -> measure(step.name(), step.supplier()));
+    }
+
+    private static WarmUpReport.Step measure(String name, NetworkSupplier<?> supplier) {
+        long start = System.nanoTime();
+        ArtemisNetworkException failure = null;
+        try {
+            supplier.get();
+        } catch (ArtemisNetworkException e) {
+            log.warn("Warm-up step '{}' failed", name, e);
+            failure = e;
+        }
+        return new WarmUpReport.Step(name, Duration.ofNanos(System.nanoTime() - start), failure);
+    }
+
+    private static WarmUpReport.Step await(Future<WarmUpReport.Step> step) {
+        try {
+            return step.get();
+        } catch (ExecutionException e) {
+            // measure never throws checked exceptions, so this is a bug
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during warm-up", e);
+        }
+    }
+
+    private record CourseStep(String name, NetworkSupplier<?> supplier) {}
+}
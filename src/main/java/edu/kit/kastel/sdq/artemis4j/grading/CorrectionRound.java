@@ -1,4 +1,4 @@
-/* Licensed under EPL-2.0 2024-2025. */
+/* Licensed under EPL-2.0 2024-2026. */
 package edu.kit.kastel.sdq.artemis4j.grading;
 
 import edu.kit.kastel.sdq.artemis4j.client.AnnotationSource;
@@ -15,6 +15,10 @@ public enum CorrectionRound {
         };
     }
 
+    static CorrectionRound fromArtemis(int correctionRound) {
+        return correctionRound == 0 ? FIRST : SECOND;
+    }
+
     public AnnotationSource toAnnotationSource() {
         return switch (this) {
             case FIRST -> AnnotationSource.MANUAL_FIRST_ROUND;
@@ -1,16 +1,22 @@
 /* Licensed under EPL-2.0 2024-2026. */
 package edu.kit.kastel.sdq.artemis4j.grading;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Semaphore;
 
 import edu.kit.kastel.sdq.artemis4j.ArtemisNetworkException;
 import edu.kit.kastel.sdq.artemis4j.LazyNetworkValue;
+import edu.kit.kastel.sdq.artemis4j.ParallelTasks;
+import edu.kit.kastel.sdq.artemis4j.RateLimiter;
 import edu.kit.kastel.sdq.artemis4j.client.CourseDTO;
 import edu.kit.kastel.sdq.artemis4j.client.CourseRole;
 import edu.kit.kastel.sdq.artemis4j.client.ExamDTO;
@@ -19,6 +25,7 @@ import edu.kit.kastel.sdq.artemis4j.client.ProgrammingExerciseCreateDTO;
 import edu.kit.kastel.sdq.artemis4j.client.ProgrammingExerciseDTO;
 import edu.kit.kastel.sdq.artemis4j.client.TextExerciseDTO;
 import edu.kit.kastel.sdq.artemis4j.client.UnknownExerciseDTO;
+import edu.kit.kastel.sdq.artemis4j.client.UserDTO;
 import edu.kit.kastel.sdq.artemis4j.client.UserPublicInfoDTO;
 import org.jspecify.annotations.Nullable;
 
@@ -26,6 +33,8 @@ import org.jspecify.annotations.Nullable;
  * A course, containing exercises.
  */
 public class Course extends ArtemisConnectionHolder {
+    private static final int DEFAULT_BULK_PARALLELISM = 8;
+
     private final CourseDTO dto;
     private final LazyNetworkValue<List<Exercise>> exercises;
     private final LazyNetworkValue<List<Exam>> exams;
@@ -61,14 +70,18 @@ public class Course extends ArtemisConnectionHolder {
                 return List.of();
             }
 
-            List<Exercise> result =
-                    new ArrayList<>(ProgrammingExerciseDTO.fetchAll(connection.getClient(), dto.id()).stream()
-                            .map(exerciseDTO -> new ProgrammingExercise(exerciseDTO, this))
-                            .toList());
-
-            result.addAll(TextExerciseDTO.fetchAll(connection.getClient(), dto.id()).stream()
-                    .map(exerciseDTO -> new TextExercise(exerciseDTO, this))
-                    .toList());
+            // Programming and text exercises are served by the same endpoint, so only fetch it once
+            List<Exercise> result = new ArrayList<>();
+            for (ExerciseDTO exerciseDTO : connection.fetchCourseExercises(dto.id(), roles)) {
+                switch (exerciseDTO) {
+                    case ProgrammingExerciseDTO programmingExerciseDTO ->
+                        result.add(new ProgrammingExercise(programmingExerciseDTO, this));
+                    case TextExerciseDTO textExerciseDTO -> result.add(new TextExercise(textExerciseDTO, this));
+                    case UnknownExerciseDTO ignored -> {
+                        // well, it is unknown, so nothing to do here
+                    }
+                }
+            }
 
             return result;
         });
@@ -155,7 +168,7 @@ public class Course extends ArtemisConnectionHolder {
      * and then cached.
      */
     public List<ProgrammingExercise> getProgrammingExercises() throws ArtemisNetworkException {
-        return this.exercises.get().stream()
+        return this.getConnection().getUnexpired(this.exercises).stream()
                 .filter(ProgrammingExercise.class::isInstance)
                 .map(ProgrammingExercise.class::cast)
                 .toList();
@@ -166,7 +179,7 @@ public class Course extends ArtemisConnectionHolder {
      * and then cached.
      */
     public List<TextExercise> getTextExercises() throws ArtemisNetworkException {
-        return this.exercises.get().stream()
+        return this.getConnection().getUnexpired(this.exercises).stream()
                 .filter(TextExercise.class::isInstance)
                 .map(TextExercise.class::cast)
                 .toList();
@@ -189,19 +202,32 @@ public class Course extends ArtemisConnectionHolder {
      * Gets all exams of this course. The result is fetched lazily and then cached.
      */
     public List<Exam> getExams() throws ArtemisNetworkException {
-        return this.exams.get();
+        return this.getConnection().getUnexpired(this.exams);
     }
 
     public Exam getExamById(long id) throws ArtemisNetworkException {
-        return this.exams.get().stream()
+        return this.getConnection().getUnexpired(this.exams).stream()
                 .filter(e -> e.getId() == id)
                 .findAny()
                 .orElseThrow(() -> new IllegalArgumentException("No exam with id " + id + " found"));
     }
 
+    /**
+     * Returns the number of submissions in this course that are locked by the current user. The count is cached
+     * and kept up to date from the locks, submits and cancellations of this connection. Changes made by other
+     * clients (e.g. the Artemis web UI) only show up after the cache is reconciled with Artemis, which happens every
+     * two minutes, or after {@link ArtemisConnection#invalidateAssessmentCounters()}.
+     */
     public int fetchLockedSubmissionCount() throws ArtemisNetworkException {
-        return CourseDTO.fetchLockedSubmissions(this.getConnection().getClient(), this.getId())
-                .size();
+        return this.getConnection().getAssessmentCounters().countLocked(this);
+    }
+
+    Set<Long> fetchLockedSubmissionIds() throws ArtemisNetworkException {
+        Set<Long> ids = new HashSet<>();
+        for (var submission : CourseDTO.fetchLockedSubmissions(this.getConnection().getClient(), this.getId())) {
+            ids.add(submission.id());
+        }
+        return ids;
     }
 
     public void enrollSelf() throws ArtemisNetworkException {
@@ -216,6 +242,139 @@ public class Course extends ArtemisConnectionHolder {
         CourseDTO.assignUserToCourse(client, courseId, userLogin, role);
     }
 
+    /**
+     * Assigns many users to roles in this course concurrently. Note that this requires instructor permissions.
+     * <p>
+     * If students or tutors are assigned, the current students or tutors are fetched once up front, and users that
+     * already have the role are skipped.
+     *
+     * @param assignments the role to assign, per login
+     * @param parallelism the maximum number of concurrent requests
+     * @param rateLimiter limits the number of assign requests per second
+     * @return the outcome per login, in the iteration order of the assignments
+     * @throws ArtemisNetworkException if the current members could not be fetched
+     */
+    public BulkOperationReport<String> assignUsers(
+            Map<String, CourseRole> assignments, int parallelism, RateLimiter rateLimiter)
+            throws ArtemisNetworkException {
+        return this.assignUsers(assignments, ParallelTasks.permits(parallelism), rateLimiter);
+    }
+
+    /**
+     * Like {@link #assignUsers(Map, int, RateLimiter)}, but each assign request holds one of the given permits while
+     * it is sent. Sharing the permits with other operations bounds their concurrent requests together.
+     *
+     * @param assignments the role to assign, per login
+     * @param permits     bounds the number of concurrent assign requests
+     * @param rateLimiter limits the number of assign requests per second
+     * @return the outcome per login, in the iteration order of the assignments
+     * @throws ArtemisNetworkException if the current members could not be fetched
+     */
+    public BulkOperationReport<String> assignUsers(
+            Map<String, CourseRole> assignments, Semaphore permits, RateLimiter rateLimiter)
+            throws ArtemisNetworkException {
+        var client = this.getConnection().getClient();
+        Set<String> students = assignments.containsValue(CourseRole.STUDENT)
+                ? loginsOf(CourseDTO.fetchAllStudents(client, this.getId()))
+                : Set.of();
+        Set<String> tutors = assignments.containsValue(CourseRole.TUTOR)
+                ? loginsOf(CourseDTO.fetchAllTutors(client, this.getId()))
+                : Set.of();
+
+        return BulkOperationReport.execute(
+                List.copyOf(assignments.keySet()),
+                login -> switch (assignments.get(login)) {
+                    case STUDENT -> students.contains(login);
+                    case TUTOR -> tutors.contains(login);
+                    // There is no endpoint to list editors and instructors, assigning them again is harmless
+                    case EDITOR, INSTRUCTOR -> false;
+                },
+                permits,
+                rateLimiter,
+                login -> {
+                    CourseDTO.assignUserToCourse(client, this.getId(), login, assignments.get(login));
+                    return null;
+                });
+    }
+
+    /**
+     * Synchronizes the students and tutors of this course with the given roster, see
+     * {@link #syncRoster(Map, int, RateLimiter)}.
+     */
+    public BulkOperationReport<RosterChange> syncRoster(Map<String, CourseRole> roster)
+            throws ArtemisNetworkException {
+        return this.syncRoster(roster, DEFAULT_BULK_PARALLELISM, RateLimiter.unlimited());
+    }
+
+    /**
+     * Synchronizes the students and tutors of this course with the given roster. Note that this requires instructor
+     * permissions.
+     * <p>
+     * The current students and tutors are fetched once, and only the difference is applied: users missing from the
+     * course are assigned, and students and tutors that are not in the roster (with that role) are removed. A role
+     * is only synced if the roster contains at least one user with that role, so a roster of only students leaves the
+     * tutors of the course untouched. All removals are applied before the first assignment, so that a user who moves
+     * from one role to the other loses the old role first. If the roster is already in sync, only the fetch requests
+     * are made.
+     *
+     * @param roster      the desired role per login, only {@link CourseRole#STUDENT} and {@link CourseRole#TUTOR} are
+     *                    supported
+     * @param parallelism the maximum number of concurrent requests
+     * @param rateLimiter limits the number of assign/remove requests per second
+     * @return the outcome per applied change
+     * @throws ArtemisNetworkException if the current students or tutors could not be fetched
+     */
+    public BulkOperationReport<RosterChange> syncRoster(
+            Map<String, CourseRole> roster, int parallelism, RateLimiter rateLimiter) throws ArtemisNetworkException {
+        for (var entry : roster.entrySet()) {
+            if (entry.getValue() != CourseRole.STUDENT && entry.getValue() != CourseRole.TUTOR) {
+                throw new IllegalArgumentException("Can't sync role %s of %s, only students and tutors are supported"
+                        .formatted(entry.getValue(), entry.getKey()));
+            }
+        }
+
+        var client = this.getConnection().getClient();
+        var changes = RosterChange.diff(
+                roster,
+                roster.containsValue(CourseRole.STUDENT)
+                        ? loginsOf(CourseDTO.fetchAllStudents(client, this.getId()))
+                        : Set.of(),
+                roster.containsValue(CourseRole.TUTOR)
+                        ? loginsOf(CourseDTO.fetchAllTutors(client, this.getId()))
+                        : Set.of());
+
+        List<RosterChange> removals = new ArrayList<>();
+        List<RosterChange> assignments = new ArrayList<>();
+        for (var change : changes) {
+            if (change.action() == RosterChange.Action.REMOVE) {
+                removals.add(change);
+            } else {
+                assignments.add(change);
+            }
+        }
+
+        var removed = BulkOperationReport.execute(removals, change -> false, parallelism, rateLimiter, change -> {
+            CourseDTO.removeUserFromCourse(client, this.getId(), change.login(), change.role());
+            return null;
+        });
+        var assigned = BulkOperationReport.execute(assignments, change -> false, parallelism, rateLimiter, change -> {
+            CourseDTO.assignUserToCourse(client, this.getId(), change.login(), change.role());
+            return null;
+        });
+
+        List<BulkOperationReport.Item<RosterChange>> items = new ArrayList<>(removed.items());
+        items.addAll(assigned.items());
+        return new BulkOperationReport<>(items);
+    }
+
+    private static Set<String> loginsOf(List<UserDTO> users) {
+        Set<String> logins = new HashSet<>();
+        for (var user : users) {
+            logins.add(user.login());
+        }
+        return logins;
+    }
+
     public List<User> fetchAllStudents() throws ArtemisNetworkException {
         return CourseDTO.fetchAllStudents(this.getConnection().getClient(), this.getId()).stream()
                 .map(User::new)
@@ -237,7 +396,7 @@ public class Course extends ArtemisConnectionHolder {
             ProgrammingExerciseCreateDTO exerciseCreateDTO, boolean emptyRepositories) throws ArtemisNetworkException {
         var created = ProgrammingExerciseDTO.create(
                 this.getConnection().getClient(), exerciseCreateDTO.forCourse(this.getId()), emptyRepositories);
-        this.exercises.invalidate();
+        this.invalidateExercises();
         return new ProgrammingExercise(created, this);
     }
 
@@ -248,9 +407,43 @@ public class Course extends ArtemisConnectionHolder {
     public void deleteProgrammingExercise(long exerciseId, boolean deleteBaseReposBuildPlans)
             throws ArtemisNetworkException {
         ProgrammingExerciseDTO.delete(this.getConnection().getClient(), exerciseId, deleteBaseReposBuildPlans);
+        this.invalidateExercises();
+    }
+
+    void describeCachedValues(List<ConnectionDiagnostics.CachedValue> values, Instant now) {
+        String prefix = "course[" + this.getId() + "].";
+        values.add(ConnectionDiagnostics.CachedValue.of(prefix + "exercises", this.exercises, now));
+        values.add(ConnectionDiagnostics.CachedValue.of(prefix + "exams", this.exams, now));
+    }
+
+    /**
+     * Drops the cached exercises of this course, including the cached response, so that the next access fetches the
+     * exercises from Artemis.
+     */
+    private void invalidateExercises() {
+        ExerciseDTO.invalidateCachedForCourse(this.getConnection().getClient(), this.getId());
+        this.invalidateLoadedExercises();
+    }
+
+    /**
+     * Drops the exercises held in memory, e.g. because their cached response has been found to be outdated and has
+     * already been replaced.
+     */
+    void invalidateLoadedExercises() {
+        this.getConnection().invalidateCourseExercises(this.getId());
         this.exercises.invalidate();
     }
 
+    void invalidateLoadedExams() {
+        this.exams.invalidate();
+    }
+
+    Optional<Exam> findLoadedExam(long examId) {
+        return this.exams.getIfLoaded().flatMap(exams -> exams.stream()
+                .filter(exam -> exam.getId() == examId)
+                .findAny());
+    }
+
     public int getNumberOfStudents() {
         return Objects.requireNonNull(this.dto.numberOfStudents(), "Number of students in the course is null");
     }
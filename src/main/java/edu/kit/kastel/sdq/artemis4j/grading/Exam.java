@@ -1,14 +1,27 @@
-/* Licensed under EPL-2.0 2024. */
+/* Licensed under EPL-2.0 2024-2026. */
 package edu.kit.kastel.sdq.artemis4j.grading;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
 
 import edu.kit.kastel.sdq.artemis4j.ArtemisNetworkException;
 import edu.kit.kastel.sdq.artemis4j.LazyNetworkValue;
+import edu.kit.kastel.sdq.artemis4j.ParallelTasks;
+import edu.kit.kastel.sdq.artemis4j.RateLimiter;
 import edu.kit.kastel.sdq.artemis4j.client.ExamDTO;
+import edu.kit.kastel.sdq.artemis4j.client.StudentExamDTO;
 
 public class Exam extends ArtemisConnectionHolder {
+    /**
+     * The default number of exercises for which data is fetched at the same time by the exam-wide methods.
+     */
+    public static final int DEFAULT_FETCH_PARALLELISM = 8;
+
     private final ExamDTO examDto;
     private final LazyNetworkValue<List<ExamExerciseGroup>> exerciseGroups;
 
@@ -30,6 +43,10 @@ public class Exam extends ArtemisConnectionHolder {
         return course;
     }
 
+    void invalidateLoadedExerciseGroups() {
+        this.exerciseGroups.invalidate();
+    }
+
     public long getId() {
         return this.examDto.id();
     }
@@ -49,8 +66,124 @@ public class Exam extends ArtemisConnectionHolder {
                 .orElseThrow();
     }
 
+    /**
+     * Fetches all submissions of all programming exercises of this exam concurrently, see
+     * {@link #fetchAllSubmissions(int, ExamExerciseResult.Listener)}.
+     */
+    public List<ExamExerciseResult<List<ProgrammingSubmissionWithResults>>> fetchAllSubmissions()
+            throws ArtemisNetworkException {
+        return this.fetchAllSubmissions(DEFAULT_FETCH_PARALLELISM, (result, completed, total) -> {});
+    }
+
+    /**
+     * Fetches all submissions of all programming exercises in all exercise groups of this exam. The exercises are
+     * fetched concurrently, so this takes roughly as long as fetching the slowest exercise.
+     *
+     * @param parallelism the maximum number of exercises that are fetched at the same time
+     * @param listener    notified as soon as the submissions of an exercise are available
+     * @return the submissions per exercise, ordered by exercise group and exercise
+     * @throws ArtemisNetworkException the first failure (in exercise order), after all other fetches completed
+     */
+    public List<ExamExerciseResult<List<ProgrammingSubmissionWithResults>>> fetchAllSubmissions(
+            int parallelism, ExamExerciseResult.Listener<List<ProgrammingSubmissionWithResults>> listener)
+            throws ArtemisNetworkException {
+        return this.fetchForAllExercises(parallelism, ProgrammingExercise::fetchAllSubmissions, listener);
+    }
+
+    /**
+     * Fetches the assessments of the current user for all programming exercises of this exam concurrently, see
+     * {@link #fetchMyAssessments(int, ExamExerciseResult.Listener)}.
+     */
+    public List<ExamExerciseResult<List<PackedAssessment>>> fetchMyAssessments() throws ArtemisNetworkException {
+        return this.fetchMyAssessments(DEFAULT_FETCH_PARALLELISM, (result, completed, total) -> {});
+    }
+
+    /**
+     * Fetches the assessments of the current user (in all correction rounds) for all programming exercises in all
+     * exercise groups of this exam. The exercises are fetched concurrently, so this takes roughly as long as
+     * fetching the slowest exercise.
+     *
+     * @param parallelism the maximum number of exercises that are fetched at the same time
+     * @param listener    notified as soon as the assessments of an exercise are available
+     * @return the assessments per exercise, ordered by exercise group and exercise
+     * @throws ArtemisNetworkException the first failure (in exercise order), after all other fetches completed
+     */
+    public List<ExamExerciseResult<List<PackedAssessment>>> fetchMyAssessments(
+            int parallelism, ExamExerciseResult.Listener<List<PackedAssessment>> listener)
+            throws ArtemisNetworkException {
+        // Fetch the assessor once up front instead of racing for it in every task
+        this.getConnection().getAssessor();
+        return this.fetchForAllExercises(parallelism, ProgrammingExercise::fetchMyAssessments, listener);
+    }
+
+    /**
+     * Toggles all student exams that match the filter to submitted, e.g. after a technical incident. Requires
+     * instructor permissions.
+     * <p>
+     * Student exams that are already submitted are skipped (and reported as such), so a failed run can simply be
+     * repeated to retry the student exams that failed.
+     * Example: {@code exam.toggleStudentExamsToSubmitted(StudentExamDTO::started, 8, RateLimiter.perSecond(10))}
+     *
+     * @param filter      selects the student exams to toggle
+     * @param parallelism the maximum number of concurrent requests
+     * @param rateLimiter limits the number of toggle requests per second
+     * @return the outcome per id of a matching student exam, in the order returned by Artemis. Student exams that
+     *     were already submitted are reported as {@link BulkOperationReport.Status#SKIPPED}.
+     * @throws ArtemisNetworkException if the student exams could not be fetched
+     */
+    public BulkOperationReport<Long> toggleStudentExamsToSubmitted(
+            Predicate<StudentExamDTO> filter, int parallelism, RateLimiter rateLimiter)
+            throws ArtemisNetworkException {
+        var client = this.getConnection().getClient();
+        List<Long> studentExamIds = new ArrayList<>();
+        Set<Long> submitted = new HashSet<>();
+        for (var studentExam : StudentExamDTO.fetchAll(client, this.course.getId(), this.getId())) {
+            if (filter.test(studentExam)) {
+                studentExamIds.add(studentExam.id());
+                if (studentExam.submitted()) {
+                    submitted.add(studentExam.id());
+                }
+            }
+        }
+
+        return BulkOperationReport.execute(
+                studentExamIds,
+                submitted::contains,
+                parallelism,
+                rateLimiter,
+                id -> {
+                    StudentExamDTO.toggleToSubmitted(client, this.course.getId(), this.getId(), id);
+                    return null;
+                });
+    }
+
+    private <T> List<ExamExerciseResult<T>> fetchForAllExercises(
+            int parallelism,
+            ParallelTasks.ItemTask<ProgrammingExercise, T, ArtemisNetworkException> fetch,
+            ExamExerciseResult.Listener<T> listener)
+            throws ArtemisNetworkException {
+        List<TaggedExercise> exercises = new ArrayList<>();
+        for (var group : this.getExerciseGroups()) {
+            for (var exercise : group.getProgrammingExercises()) {
+                exercises.add(new TaggedExercise(group, exercise));
+            }
+        }
+
+        var completed = new AtomicInteger();
+        return ParallelTasks.map(exercises, parallelism, tagged -> {
+            var result = new ExamExerciseResult<>(tagged.group(), tagged.exercise(), fetch.apply(tagged.exercise()));
+            // Serialize the listener calls, so that the progress is reported in increasing order
+            synchronized (completed) {
+                listener.onExerciseCompleted(result, completed.incrementAndGet(), exercises.size());
+            }
+            return result;
+        });
+    }
+
     @Override
     public String toString() {
         return this.getTitle();
     }
+
+    private record TaggedExercise(ExamExerciseGroup group, ProgrammingExercise exercise) {}
 }
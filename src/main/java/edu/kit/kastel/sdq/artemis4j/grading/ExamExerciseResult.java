@@ -0,0 +1,25 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j.grading;
+
+/**
+ * The result of fetching something for a single exercise of an exam, tagged with the exercise and its group.
+ *
+ * @param group    the exercise group the exercise belongs to
+ * @param exercise the exercise
+ * @param value    the fetched value
+ */
+public record ExamExerciseResult<T>(ExamExerciseGroup group, ProgrammingExercise exercise, T value) {
+    /**
+     * Is notified whenever the fetch for an exercise of an exam has completed. Calls are never concurrent, so
+     * implementations don't need to be thread-safe.
+     */
+    @FunctionalInterface
+    public interface Listener<T> {
+        /**
+         * @param result    the result of the exercise that just completed
+         * @param completed the number of exercises that have completed so far, including this one
+         * @param total     the number of exercises in the exam
+         */
+        void onExerciseCompleted(ExamExerciseResult<T> result, int completed, int total);
+    }
+}
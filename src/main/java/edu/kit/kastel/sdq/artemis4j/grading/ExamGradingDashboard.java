@@ -0,0 +1,246 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j.grading;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import edu.kit.kastel.sdq.artemis4j.ArtemisNetworkException;
+import edu.kit.kastel.sdq.artemis4j.ParallelTasks;
+import edu.kit.kastel.sdq.artemis4j.client.AssessmentStatsDTO;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Aggregates the correction progress of all programming exercises of an exam, e.g. for a live dashboard.
+ * <p>
+ * The assessment statistics of all exercises are fetched concurrently and cached for a short time, so that any
+ * number of (polling) callers puts at most one round of requests per time-to-live on Artemis. Only one round runs at
+ * a time, and callers that waited for it get its snapshot instead of starting another round.
+ * <p>
+ * Updates are pushed to the listeners whenever new statistics have been fetched. After {@link #start(Duration)},
+ * the dashboard fetches them periodically in the background, so listeners get updates without anyone polling.
+ */
+public final class ExamGradingDashboard implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(ExamGradingDashboard.class);
+
+    public static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofSeconds(10);
+
+    private static final Duration THROUGHPUT_WINDOW = Duration.ofHours(1);
+
+    private final Exam exam;
+    private final Duration timeToLive;
+    private final int parallelism;
+    private final List<Consumer<ExamGradingSnapshot>> listeners = new CopyOnWriteArrayList<>();
+    // Held while fetching, so that the monitor is never held across requests
+    private final ReentrantLock fetchLock = new ReentrantLock();
+    // The following fields are guarded by this
+    private final Throughput throughput = new Throughput(THROUGHPUT_WINDOW);
+    private @Nullable ExamGradingSnapshot current;
+    private @Nullable ScheduledExecutorService scheduler;
+
+    public ExamGradingDashboard(Exam exam) {
+        this(exam, DEFAULT_TIME_TO_LIVE, Exam.DEFAULT_FETCH_PARALLELISM);
+    }
+
+    public ExamGradingDashboard(Exam exam, Duration timeToLive, int parallelism) {
+        this.exam = exam;
+        this.timeToLive = timeToLive;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Adds a listener that is called with every newly fetched snapshot, on the thread that triggered the fetch (the
+     * background thread after {@link #start(Duration)}).
+     */
+    public void addListener(Consumer<ExamGradingSnapshot> listener) {
+        this.listeners.add(listener);
+    }
+
+    public void removeListener(Consumer<ExamGradingSnapshot> listener) {
+        this.listeners.remove(listener);
+    }
+
+    /**
+     * Starts pushing a new snapshot to the listeners every interval, until {@link #close()} is called. Failed
+     * fetches are logged and retried with the next interval.
+     */
+    public synchronized void start(Duration interval) {
+        if (this.scheduler != null) {
+            throw new IllegalStateException("The dashboard has already been started");
+        }
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual()
+                .name("artemis-exam-dashboard-" + this.exam.getId())
+                .factory());
+        this.scheduler.scheduleWithFixedDelay(this::refreshQuietly, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops pushing updates in the background.
+     */
+    @Override
+    public synchronized void close() {
+        if (this.scheduler != null) {
+            this.scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns the cached snapshot if it is younger than the time-to-live, and fetches a new one otherwise.
+     */
+    public ExamGradingSnapshot getSnapshot() throws ArtemisNetworkException {
+        var fresh = this.getFreshSnapshot();
+        if (fresh != null) {
+            return fresh;
+        }
+
+        ExamGradingSnapshot snapshot;
+        this.fetchLock.lock();
+        try {
+            // Another caller may have fetched a snapshot while this one was waiting for the lock
+            fresh = this.getFreshSnapshot();
+            if (fresh != null) {
+                return fresh;
+            }
+            snapshot = this.fetchSnapshot();
+        } finally {
+            this.fetchLock.unlock();
+        }
+
+        this.notifyListeners(snapshot);
+        return snapshot;
+    }
+
+    /**
+     * Fetches a new snapshot, regardless of the age of the cached one, and pushes it to the listeners.
+     */
+    public ExamGradingSnapshot refresh() throws ArtemisNetworkException {
+        ExamGradingSnapshot snapshot;
+        this.fetchLock.lock();
+        try {
+            snapshot = this.fetchSnapshot();
+        } finally {
+            this.fetchLock.unlock();
+        }
+
+        this.notifyListeners(snapshot);
+        return snapshot;
+    }
+
+    private synchronized @Nullable ExamGradingSnapshot getFreshSnapshot() {
+        if (this.current != null
+                && Duration.between(this.current.fetchedAt(), Instant.now()).compareTo(this.timeToLive) < 0) {
+            return this.current;
+        }
+        return null;
+    }
+
+    private void notifyListeners(ExamGradingSnapshot snapshot) {
+        // Without holding any lock, so that listeners may call back into the dashboard
+        for (var listener : this.listeners) {
+            listener.accept(snapshot);
+        }
+    }
+
+    /**
+     * Must be called with the fetch lock held.
+     */
+    private ExamGradingSnapshot fetchSnapshot() throws ArtemisNetworkException {
+        List<ExerciseOfGroup> exercises = new ArrayList<>();
+        for (var group : this.exam.getExerciseGroups()) {
+            for (var exercise : group.getProgrammingExercises()) {
+                exercises.add(new ExerciseOfGroup(group, exercise));
+            }
+        }
+
+        var progress = ParallelTasks.map(
+                exercises, this.parallelism, e -> toProgress(e, e.exercise().fetchAssessmentStats()));
+
+        var now = Instant.now();
+        int completed = 0;
+        for (var exercise : progress) {
+            completed += exercise.completedAssessments();
+        }
+        synchronized (this) {
+            var snapshot = new ExamGradingSnapshot(now, progress, this.throughput.record(now, completed));
+            this.current = snapshot;
+            return snapshot;
+        }
+    }
+
+    public Exam getExam() {
+        return exam;
+    }
+
+    private void refreshQuietly() {
+        try {
+            this.refresh();
+        } catch (ArtemisNetworkException e) {
+            log.warn("Failed to fetch the grading progress of exam {}", this.exam.getId(), e);
+        } catch (RuntimeException e) {
+            // A failing listener must not stop the updates
+            log.error("Error while pushing the grading progress of exam {}", this.exam.getId(), e);
+        }
+    }
+
+    private static ExamGradingSnapshot.ExerciseProgress toProgress(ExerciseOfGroup exercise, AssessmentStatsDTO stats) {
+        List<Integer> completedPerRound = new ArrayList<>();
+        for (var round : stats.numberOfAssessmentsOfCorrectionRounds()) {
+            completedPerRound.add(round.total());
+        }
+        return new ExamGradingSnapshot.ExerciseProgress(
+                exercise.group(),
+                exercise.exercise(),
+                stats.numberOfSubmissions().total(),
+                completedPerRound,
+                stats.totalNumberOfAssessmentLocks());
+    }
+
+    private record ExerciseOfGroup(ExamExerciseGroup group, ProgrammingExercise exercise) {}
+
+    /**
+     * Measures the number of completed assessments per hour over a sliding window of samples.
+     */
+    static final class Throughput {
+        private final Duration window;
+        // The total number of completed assessments over time
+        private final Deque<Sample> samples = new ArrayDeque<>();
+
+        Throughput(Duration window) {
+            this.window = window;
+        }
+
+        /**
+         * Adds a sample.
+         *
+         * @return the assessments per hour since the oldest sample in the window, 0 if this is the first sample
+         */
+        double record(Instant now, int completed) {
+            this.samples.addLast(new Sample(now, completed));
+            while (this.samples.size() > 2
+                    && Duration.between(this.samples.getFirst().time(), now).compareTo(this.window) > 0) {
+                this.samples.removeFirst();
+            }
+
+            var oldest = this.samples.getFirst();
+            long elapsedMillis = Duration.between(oldest.time(), now).toMillis();
+            if (elapsedMillis == 0) {
+                return 0.0;
+            }
+            return (completed - oldest.completed()) * (double) Duration.ofHours(1).toMillis() / elapsedMillis;
+        }
+
+        private record Sample(Instant time, int completed) {}
+    }
+}
@@ -0,0 +1,106 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j.grading;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * The correction progress of all programming exercises of an exam at one point in time, see
+ * {@link ExamGradingDashboard}.
+ *
+ * @param fetchedAt          when the statistics were fetched
+ * @param exercises          the progress per exercise, ordered by exercise group and exercise
+ * @param assessmentsPerHour the number of assessments completed per hour (over all exercises and rounds), measured
+ *                           over the last hour of snapshots, 0 if there is only one snapshot so far
+ */
+public record ExamGradingSnapshot(Instant fetchedAt, List<ExerciseProgress> exercises, double assessmentsPerHour) {
+    public ExamGradingSnapshot {
+        exercises = List.copyOf(exercises);
+    }
+
+    public int totalSubmissions() {
+        int total = 0;
+        for (var exercise : this.exercises) {
+            total += exercise.submissions();
+        }
+        return total;
+    }
+
+    /**
+     * @return the number of completed assessments of the round (0 for the first round) over all exercises
+     */
+    public int completedAssessments(int round) {
+        int total = 0;
+        for (var exercise : this.exercises) {
+            total += exercise.completedAssessments(round);
+        }
+        return total;
+    }
+
+    /**
+     * @return the number of completed assessments over all exercises and rounds
+     */
+    public int completedAssessments() {
+        int total = 0;
+        for (var exercise : this.exercises) {
+            total += exercise.completedAssessments();
+        }
+        return total;
+    }
+
+    /**
+     * @return the share of submissions that have been assessed in the round (0 for the first round), between 0 and 1
+     */
+    public double completion(int round) {
+        int submissions = this.totalSubmissions();
+        return submissions == 0 ? 1.0 : (double) this.completedAssessments(round) / submissions;
+    }
+
+    /**
+     * @return the number of submissions over all exercises that are currently locked by a tutor
+     */
+    public int outstandingLocks() {
+        int total = 0;
+        for (var exercise : this.exercises) {
+            total += exercise.locks();
+        }
+        return total;
+    }
+
+    /**
+     * @param group             the exercise group of the exercise
+     * @param exercise          the exercise
+     * @param submissions       the number of submissions (in time and late)
+     * @param completedPerRound the number of completed assessments per correction round
+     * @param locks             the number of submissions that are currently locked
+     */
+    public record ExerciseProgress(
+            ExamExerciseGroup group,
+            ProgrammingExercise exercise,
+            int submissions,
+            List<Integer> completedPerRound,
+            int locks) {
+        public ExerciseProgress {
+            completedPerRound = List.copyOf(completedPerRound);
+        }
+
+        public int completedAssessments(int round) {
+            return round < this.completedPerRound.size() ? this.completedPerRound.get(round) : 0;
+        }
+
+        public int completedAssessments() {
+            int total = 0;
+            for (int completed : this.completedPerRound) {
+                total += completed;
+            }
+            return total;
+        }
+
+        /**
+         * @return the share of submissions that have been assessed in the round, between 0 and 1
+         */
+        public double completion(int round) {
+            return this.submissions == 0 ? 1.0 : (double) this.completedAssessments(round) / this.submissions;
+        }
+    }
+}
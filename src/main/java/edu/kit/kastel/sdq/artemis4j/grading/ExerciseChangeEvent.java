@@ -0,0 +1,30 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j.grading;
+
+import edu.kit.kastel.sdq.artemis4j.client.ResultDTO;
+
+/**
+ * A change of a programming exercise that has been observed by an {@link ExerciseWatcher}.
+ */
+public sealed interface ExerciseChangeEvent {
+    /**
+     * @return the submission that changed, in its new state
+     */
+    ProgrammingSubmission submission();
+
+    /**
+     * A student pushed a new submission.
+     */
+    record NewSubmission(ProgrammingSubmission submission) implements ExerciseChangeEvent {}
+
+    /**
+     * A result (automatic or manual) has been added to a submission, e.g. because the build finished or a tutor
+     * started an assessment.
+     */
+    record ResultAdded(ProgrammingSubmission submission, ResultDTO result) implements ExerciseChangeEvent {}
+
+    /**
+     * A manual result of a submission has been completed, i.e. a tutor submitted the assessment.
+     */
+    record AssessmentCompleted(ProgrammingSubmission submission, ResultDTO result) implements ExerciseChangeEvent {}
+}
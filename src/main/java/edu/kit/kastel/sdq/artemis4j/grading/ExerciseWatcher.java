@@ -0,0 +1,231 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j.grading;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import edu.kit.kastel.sdq.artemis4j.ArtemisNetworkException;
+import edu.kit.kastel.sdq.artemis4j.client.AssessmentType;
+import edu.kit.kastel.sdq.artemis4j.client.ProgrammingSubmissionDTO;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Watches a programming exercise for new submissions and results, and reports them as
+ * {@link ExerciseChangeEvent}s.
+ * <p>
+ * Artemis has no endpoint for changes, so the watcher still fetches the list of submissions. But instead of keeping
+ * and comparing the full submissions, only a small {@link SubmissionFingerprint} is kept per submission, and grading
+ * objects are only created for submissions that actually changed.
+ * <p>
+ * When polling in the background, the interval adapts to the activity of the exercise: it is reset to the minimum
+ * interval whenever something changed, and doubled (up to the maximum interval) after every poll without changes.
+ * <p>
+ * The first poll only records the current state of the exercise and reports no events.
+ */
+public final class ExerciseWatcher implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(ExerciseWatcher.class);
+
+    public static final Duration DEFAULT_MIN_INTERVAL = Duration.ofSeconds(5);
+    public static final Duration DEFAULT_MAX_INTERVAL = Duration.ofMinutes(2);
+
+    private final ProgrammingExercise exercise;
+    private final Duration minInterval;
+    private final Duration maxInterval;
+    private final List<Consumer<ExerciseChangeEvent>> listeners = new CopyOnWriteArrayList<>();
+
+    // Serializes polls, so that each one compares against the state of the previous one. Held while fetching, so
+    // it must not be used for anything else.
+    private final ReentrantLock pollLock = new ReentrantLock();
+    // The following two fields are guarded by pollLock
+    private Map<Long, SubmissionFingerprint> fingerprints = new HashMap<>();
+    private boolean baselineEstablished = false;
+    private volatile int trackedSubmissions = 0;
+    private volatile Duration currentInterval;
+    // Guarded by this
+    private @Nullable ScheduledExecutorService scheduler;
+
+    public ExerciseWatcher(ProgrammingExercise exercise) {
+        this(exercise, DEFAULT_MIN_INTERVAL, DEFAULT_MAX_INTERVAL);
+    }
+
+    public ExerciseWatcher(ProgrammingExercise exercise, Duration minInterval, Duration maxInterval) {
+        if (minInterval.isNegative() || minInterval.isZero() || maxInterval.compareTo(minInterval) < 0) {
+            throw new IllegalArgumentException(
+                    "Invalid polling intervals: min %s, max %s".formatted(minInterval, maxInterval));
+        }
+
+        this.exercise = exercise;
+        this.minInterval = minInterval;
+        this.maxInterval = maxInterval;
+        this.currentInterval = minInterval;
+    }
+
+    /**
+     * Adds a listener that is called for every event found by {@link #poll()}. When polling in the background,
+     * listeners are called on the polling thread.
+     */
+    public void addListener(Consumer<ExerciseChangeEvent> listener) {
+        this.listeners.add(listener);
+    }
+
+    public void removeListener(Consumer<ExerciseChangeEvent> listener) {
+        this.listeners.remove(listener);
+    }
+
+    /**
+     * Fetches the submissions once, compares them to the previous poll and notifies the listeners about the changes.
+     * Concurrent polls are serialized, but the listeners are called after the next poll may have started, so
+     * listeners may call back into the watcher.
+     *
+     * @return the changes since the previous poll, in the order they were passed to the listeners
+     */
+    public List<ExerciseChangeEvent> poll() throws ArtemisNetworkException {
+        List<ExerciseChangeEvent> events;
+        this.pollLock.lock();
+        try {
+            events = this.compareWithPreviousPoll();
+        } finally {
+            this.pollLock.unlock();
+        }
+
+        for (var event : events) {
+            for (var listener : this.listeners) {
+                listener.accept(event);
+            }
+        }
+        return events;
+    }
+
+    private List<ExerciseChangeEvent> compareWithPreviousPoll() throws ArtemisNetworkException {
+        // Artemis ignores the correction round since assessedByTutor is false
+        var dtos = ProgrammingSubmissionDTO.fetchAll(
+                this.exercise.getConnection().getClient(), this.exercise.getId(), 0, false);
+
+        Map<Long, SubmissionFingerprint> nextFingerprints = new HashMap<>(dtos.size());
+        List<ExerciseChangeEvent> events = new ArrayList<>();
+        for (var dto : dtos) {
+            var fingerprint = SubmissionFingerprint.of(dto);
+            var previous = this.fingerprints.get(dto.id());
+            nextFingerprints.put(dto.id(), fingerprint);
+
+            if (!this.baselineEstablished || fingerprint.equals(previous)) {
+                continue;
+            }
+
+            findChanges(new ProgrammingSubmission(dto, this.exercise), previous, events);
+        }
+
+        this.fingerprints = nextFingerprints;
+        this.trackedSubmissions = nextFingerprints.size();
+        this.baselineEstablished = true;
+        this.currentInterval = events.isEmpty() ? this.nextLongerInterval() : this.minInterval;
+        return events;
+    }
+
+    /**
+     * Starts polling in the background. Failed polls are logged and retried with the next (longer) interval.
+     */
+    public synchronized void start() {
+        if (this.scheduler != null) {
+            throw new IllegalStateException("The watcher has already been started");
+        }
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual()
+                .name("artemis-exercise-watcher-" + this.exercise.getId())
+                .factory());
+        this.scheduler.execute(this::pollAndReschedule);
+    }
+
+    /**
+     * @return the number of submissions that are currently tracked
+     */
+    public int getTrackedSubmissionCount() {
+        return this.trackedSubmissions;
+    }
+
+    /**
+     * @return the interval after which the next background poll happens
+     */
+    public Duration getCurrentInterval() {
+        return currentInterval;
+    }
+
+    public ProgrammingExercise getExercise() {
+        return exercise;
+    }
+
+    /**
+     * Stops polling in the background. Doesn't wait for a running poll.
+     */
+    @Override
+    public synchronized void close() {
+        if (this.scheduler != null) {
+            this.scheduler.shutdownNow();
+        }
+    }
+
+    private void pollAndReschedule() {
+        try {
+            this.poll();
+        } catch (ArtemisNetworkException e) {
+            this.currentInterval = this.nextLongerInterval();
+            log.warn("Failed to poll exercise {}, retrying in {}", this.exercise.getId(), this.currentInterval, e);
+        } catch (RuntimeException e) {
+            // A failing listener must not stop the polling
+            log.error("Error while processing changes of exercise {}", this.exercise.getId(), e);
+        }
+
+        synchronized (this) {
+            if (this.scheduler != null && !this.scheduler.isShutdown()) {
+                this.scheduler.schedule(
+                        this::pollAndReschedule, this.currentInterval.toMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private Duration nextLongerInterval() {
+        var doubled = this.currentInterval.multipliedBy(2);
+        return doubled.compareTo(this.maxInterval) > 0 ? this.maxInterval : doubled;
+    }
+
+    private static void findChanges(
+            ProgrammingSubmission submission,
+            @Nullable SubmissionFingerprint previous,
+            List<ExerciseChangeEvent> events) {
+        if (previous == null) {
+            events.add(new ExerciseChangeEvent.NewSubmission(submission));
+        }
+
+        var results = submission.getDTO().results();
+        if (results == null) {
+            return;
+        }
+
+        for (var result : results) {
+            if (result == null) {
+                continue;
+            }
+
+            if (previous == null || !previous.hasResult(result.id())) {
+                events.add(new ExerciseChangeEvent.ResultAdded(submission, result));
+            }
+
+            if (result.assessmentType() != AssessmentType.AUTOMATIC
+                    && result.completionDate() != null
+                    && (previous == null || !previous.isCompleted(result.id()))) {
+                events.add(new ExerciseChangeEvent.AssessmentCompleted(submission, result));
+            }
+        }
+    }
+}
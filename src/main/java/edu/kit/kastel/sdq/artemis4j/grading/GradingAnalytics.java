@@ -0,0 +1,118 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j.grading;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import edu.kit.kastel.sdq.artemis4j.grading.penalty.MistakeType;
+import edu.kit.kastel.sdq.artemis4j.grading.penalty.RatingGroup;
+
+/**
+ * Aggregated statistics over all manual assessments of an exercise, see
+ * {@link ProgrammingExercise#analyzeGrading(edu.kit.kastel.sdq.artemis4j.grading.penalty.GradingConfig, int)}.
+ *
+ * @param analyzedSubmissions the number of submissions with a completed manual assessment that have been analyzed
+ * @param failedSubmissions   the number of assessed submissions that couldn't be analyzed, e.g. because their
+ *                            annotations don't match the grading config
+ * @param pointDistribution   the distribution of the points the students received
+ * @param mistakeTypes        the statistics of every mistake type that has been used at least once
+ * @param ratingGroups        the statistics of every rating group of the grading config
+ * @param assessors           the statistics per assessor, by login. Every completed result of a correction round
+ *                            counts for the assessor of that round, and every annotation for its creator.
+ */
+public record GradingAnalytics(
+        int analyzedSubmissions,
+        int failedSubmissions,
+        PointHistogram pointDistribution,
+        Map<MistakeType, MistakeTypeStats> mistakeTypes,
+        Map<RatingGroup, RatingGroupStats> ratingGroups,
+        Map<String, AssessorStats> assessors) {
+
+    public GradingAnalytics {
+        mistakeTypes = Map.copyOf(mistakeTypes);
+        ratingGroups = Map.copyOf(ratingGroups);
+        assessors = Map.copyOf(assessors);
+    }
+
+    /**
+     * @return the mistake types that have been annotated in the most submissions, most frequent first
+     */
+    public List<MistakeType> mostFrequentMistakeTypes(int limit) {
+        List<Map.Entry<MistakeType, MistakeTypeStats>> entries = new ArrayList<>(this.mistakeTypes.entrySet());
+        entries.sort(Comparator.comparingInt(
+                        (Map.Entry<MistakeType, MistakeTypeStats> e) -> e.getValue().affectedSubmissions())
+                .reversed());
+
+        List<MistakeType> result = new ArrayList<>(Math.min(limit, entries.size()));
+        for (var entry : entries.subList(0, Math.min(limit, entries.size()))) {
+            result.add(entry.getKey());
+        }
+        return result;
+    }
+
+    /**
+     * A histogram of points with bins of equal width, starting at zero. The last bin includes the maximum points.
+     *
+     * @param binWidth the width of every bin in points
+     * @param counts   the number of submissions per bin
+     * @param sum      the sum of all points, to calculate the mean
+     */
+    public record PointHistogram(double binWidth, List<Integer> counts, double sum) {
+        public PointHistogram {
+            counts = List.copyOf(counts);
+        }
+
+        public int total() {
+            int total = 0;
+            for (int count : this.counts) {
+                total += count;
+            }
+            return total;
+        }
+
+        public double mean() {
+            int total = this.total();
+            return total == 0 ? 0.0 : this.sum / total;
+        }
+
+        /**
+         * @return the lower bound (inclusive) of the bin
+         */
+        public double binStart(int bin) {
+            return bin * this.binWidth;
+        }
+    }
+
+    /**
+     * @param annotations         the number of (not suppressed) annotations of the mistake type
+     * @param affectedSubmissions the number of submissions with at least one annotation of the mistake type
+     * @param totalPoints         the sum of points of the mistake type over all submissions, negative for
+     *                            deductions
+     */
+    public record MistakeTypeStats(int annotations, int affectedSubmissions, double totalPoints) {}
+
+    /**
+     * @param affectedSubmissions the number of submissions in which the rating group changed the points
+     * @param cappedSubmissions   the number of submissions in which the rating group hit its limits
+     * @param totalPoints         the sum of points of the rating group over all submissions, negative for deductions
+     */
+    public record RatingGroupStats(int affectedSubmissions, int cappedSubmissions, double totalPoints) {}
+
+    /**
+     * @param assessments      the number of completed results of the assessor (of any correction round) in the
+     *                         analyzed submissions
+     * @param totalPoints      the sum of the points of these results
+     * @param totalAnnotations the number of (not suppressed) annotations the assessor created, in any round
+     */
+    public record AssessorStats(int assessments, double totalPoints, int totalAnnotations) {
+        public double averagePoints() {
+            return this.assessments == 0 ? 0.0 : this.totalPoints / this.assessments;
+        }
+
+        public double averageAnnotations() {
+            return this.assessments == 0 ? 0.0 : (double) this.totalAnnotations / this.assessments;
+        }
+    }
+}
@@ -0,0 +1,273 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j.grading;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.kit.kastel.sdq.artemis4j.ArtemisNetworkException;
+import edu.kit.kastel.sdq.artemis4j.ParallelTasks;
+import edu.kit.kastel.sdq.artemis4j.client.AnnotationSource;
+import edu.kit.kastel.sdq.artemis4j.client.ArtemisClient;
+import edu.kit.kastel.sdq.artemis4j.client.ProgrammingSubmissionDTO;
+import edu.kit.kastel.sdq.artemis4j.client.ResultDTO;
+import edu.kit.kastel.sdq.artemis4j.grading.metajson.AnnotationMappingException;
+import edu.kit.kastel.sdq.artemis4j.grading.metajson.MetaFeedbackMapper;
+import edu.kit.kastel.sdq.artemis4j.grading.penalty.GradingConfig;
+import edu.kit.kastel.sdq.artemis4j.grading.penalty.MistakeType;
+import edu.kit.kastel.sdq.artemis4j.grading.penalty.Points;
+import edu.kit.kastel.sdq.artemis4j.grading.penalty.RatingGroup;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Computes the {@link GradingAnalytics} of an exercise.
+ * <p>
+ * All submissions are fetched with a single request. Then the feedbacks of every assessed submission are fetched
+ * (if they are not included) and the meta feedbacks are parsed concurrently. Every task only returns a small
+ * {@link SubmissionSummary}, so the feedbacks and annotations can be dropped right away.
+ */
+final class GradingAnalyzer {
+    private static final Logger log = LoggerFactory.getLogger(GradingAnalyzer.class);
+
+    static final double POINT_BIN_WIDTH = 0.5;
+
+    private final ProgrammingExercise exercise;
+    private final GradingConfig config;
+    private final int parallelism;
+
+    GradingAnalyzer(ProgrammingExercise exercise, GradingConfig config, int parallelism) {
+        this.exercise = exercise;
+        this.config = config;
+        this.parallelism = parallelism;
+    }
+
+    GradingAnalytics analyze() throws ArtemisNetworkException {
+        var client = this.exercise.getConnection().getClient();
+
+        // Artemis ignores the correction round since assessedByTutor is false
+        List<ProgrammingSubmissionDTO> assessed = new ArrayList<>();
+        for (var submission : ProgrammingSubmissionDTO.fetchAll(client, this.exercise.getId(), 0, false)) {
+            if (submission.participation() != null && findFinalResult(submission) != null) {
+                assessed.add(submission);
+            }
+        }
+
+        var outcomes =
+                ParallelTasks.mapSettled(assessed, this.parallelism, submission -> this.summarize(client, submission));
+
+        var accumulator = new Accumulator(this.config.getRatingGroups(), this.exercise.getMaxPoints());
+        int failed = 0;
+        for (int i = 0; i < outcomes.size(); i++) {
+            var outcome = outcomes.get(i);
+            if (outcome.isSuccessful()) {
+                accumulator.add(outcome.value());
+            } else {
+                failed++;
+                log.debug("Failed to analyze submission {}", assessed.get(i).id(), outcome.failure());
+            }
+        }
+
+        if (failed > 0) {
+            log.warn("Failed to analyze {} of {} assessed submissions", failed, assessed.size());
+        }
+        return accumulator.build(failed);
+    }
+
+    private SubmissionSummary summarize(ArtemisClient client, ProgrammingSubmissionDTO submission)
+            throws ArtemisNetworkException, AnnotationMappingException {
+        var result = findFinalResult(submission);
+        var feedbacks = ResultDTO.fetchDetailedFeedbacks(
+                client, result.id(), submission.participation().id(), result.feedbacks());
+
+        List<Annotation> annotations = new ArrayList<>();
+        for (var annotation : MetaFeedbackMapper.parseMetaFeedbacks(feedbacks, this.config)) {
+            if (!annotation.isSuppressed()) {
+                annotations.add(annotation);
+            }
+        }
+
+        Map<MistakeType, List<Annotation>> byMistakeType = new HashMap<>();
+        for (var annotation : annotations) {
+            byMistakeType
+                    .computeIfAbsent(annotation.getMistakeType(), k -> new ArrayList<>())
+                    .add(annotation);
+        }
+
+        Map<MistakeType, GradingAnalytics.MistakeTypeStats> mistakeTypes = new HashMap<>();
+        for (var entry : byMistakeType.entrySet()) {
+            var mistakeType = entry.getKey();
+            double points = mistakeType.shouldScore()
+                    ? mistakeType.getRule().calculatePoints(entry.getValue()).score()
+                    : 0.0;
+            mistakeTypes.put(
+                    mistakeType, new GradingAnalytics.MistakeTypeStats(entry.getValue().size(), 1, points));
+        }
+
+        Map<RatingGroup, Points> ratingGroups = new HashMap<>();
+        for (var ratingGroup : this.config.getRatingGroups()) {
+            ratingGroups.put(ratingGroup, Assessment.calculatePointsForRatingGroup(ratingGroup, annotations));
+        }
+
+        // Every round has its own result, and the result of the second round contains the annotations of both
+        double maxPoints = this.exercise.getMaxPoints();
+        List<@Nullable String> roundAssessors = new ArrayList<>();
+        Map<String, GradingAnalytics.AssessorStats> assessors = new HashMap<>();
+        for (var roundResult : submission.nonAutomaticResults()) {
+            String login = roundResult.assessor() == null ? null : roundResult.assessor().login();
+            roundAssessors.add(login);
+            if (login != null && roundResult.completionDate() != null) {
+                double points = Math.clamp(roundResult.score() * maxPoints / 100.0, 0.0, maxPoints);
+                mergeAssessor(assessors, login, new GradingAnalytics.AssessorStats(1, points, 0));
+            }
+        }
+
+        String finalAssessor = result.assessor() == null ? null : result.assessor().login();
+        for (var annotation : annotations) {
+            String creator = attribute(
+                    annotation.getSource(),
+                    annotation.getCreator().map(UserIdentifier::login).orElse(null),
+                    roundAssessors,
+                    finalAssessor);
+            if (creator != null) {
+                mergeAssessor(assessors, creator, new GradingAnalytics.AssessorStats(0, 0.0, 1));
+            }
+        }
+
+        return new SubmissionSummary(result.score() * maxPoints / 100.0, assessors, mistakeTypes, ratingGroups);
+    }
+
+    /**
+     * Finds the assessor who created an annotation. Annotations without a known creator are credited to the
+     * assessor of the round they have been made in.
+     *
+     * @param roundAssessors the logins of the assessors of the manual results, by correction round
+     * @return the login of the assessor, or null for annotations of the autograder and unknown assessors
+     */
+    static @Nullable String attribute(
+            AnnotationSource source,
+            @Nullable String creator,
+            List<@Nullable String> roundAssessors,
+            @Nullable String finalAssessor) {
+        if (source == AnnotationSource.AUTOGRADER) {
+            // Created on behalf of the tutor who ran the autograder, but not by them
+            return null;
+        }
+        if (creator != null) {
+            return creator;
+        }
+
+        return switch (source) {
+            case MANUAL_FIRST_ROUND -> roundAssessors.isEmpty() ? null : roundAssessors.getFirst();
+            case MANUAL_SECOND_ROUND -> roundAssessors.size() < 2 ? null : roundAssessors.get(1);
+            // Annotations from before the source was recorded
+            default -> finalAssessor;
+        };
+    }
+
+    private static void mergeAssessor(
+            Map<String, GradingAnalytics.AssessorStats> assessors,
+            String login,
+            GradingAnalytics.AssessorStats stats) {
+        assessors.merge(login, stats, GradingAnalyzer::sum);
+    }
+
+    private static GradingAnalytics.AssessorStats sum(
+            GradingAnalytics.AssessorStats a, GradingAnalytics.AssessorStats b) {
+        return new GradingAnalytics.AssessorStats(
+                a.assessments() + b.assessments(),
+                a.totalPoints() + b.totalPoints(),
+                a.totalAnnotations() + b.totalAnnotations());
+    }
+
+    /**
+     * @return the last completed manual result, i.e. the one of the highest correction round
+     */
+    private static @Nullable ResultDTO findFinalResult(ProgrammingSubmissionDTO submission) {
+        ResultDTO finalResult = null;
+        for (var result : submission.nonAutomaticResults()) {
+            if (result.completionDate() != null) {
+                finalResult = result;
+            }
+        }
+        return finalResult;
+    }
+
+    /**
+     * @param points    the points of the final result
+     * @param assessors the assessments and annotations per assessor, see {@link GradingAnalytics#assessors()}
+     */
+    record SubmissionSummary(
+            double points,
+            Map<String, GradingAnalytics.AssessorStats> assessors,
+            Map<MistakeType, GradingAnalytics.MistakeTypeStats> mistakeTypes,
+            Map<RatingGroup, Points> ratingGroups) {}
+
+    static final class Accumulator {
+        private final double maxPoints;
+        private final int[] pointBins;
+        private double pointSum = 0.0;
+        private int submissions = 0;
+        private final Map<MistakeType, GradingAnalytics.MistakeTypeStats> mistakeTypes = new HashMap<>();
+        private final Map<RatingGroup, GradingAnalytics.RatingGroupStats> ratingGroups = new HashMap<>();
+        private final Map<String, GradingAnalytics.AssessorStats> assessors = new HashMap<>();
+
+        Accumulator(List<RatingGroup> ratingGroups, double maxPoints) {
+            this.maxPoints = maxPoints;
+            this.pointBins = new int[Math.max(1, (int) Math.ceil(maxPoints / POINT_BIN_WIDTH))];
+            for (var ratingGroup : ratingGroups) {
+                this.ratingGroups.put(ratingGroup, new GradingAnalytics.RatingGroupStats(0, 0, 0.0));
+            }
+        }
+
+        void add(SubmissionSummary summary) {
+            this.submissions++;
+            double points = Math.clamp(summary.points(), 0.0, this.maxPoints);
+            int bin = Math.min((int) (points / POINT_BIN_WIDTH), this.pointBins.length - 1);
+            this.pointBins[bin]++;
+            this.pointSum += points;
+
+            for (var entry : summary.mistakeTypes().entrySet()) {
+                this.mistakeTypes.merge(
+                        entry.getKey(),
+                        entry.getValue(),
+                        (a, b) -> new GradingAnalytics.MistakeTypeStats(
+                                a.annotations() + b.annotations(),
+                                a.affectedSubmissions() + b.affectedSubmissions(),
+                                a.totalPoints() + b.totalPoints()));
+            }
+
+            for (var entry : summary.ratingGroups().entrySet()) {
+                var groupPoints = entry.getValue();
+                this.ratingGroups.merge(
+                        entry.getKey(),
+                        new GradingAnalytics.RatingGroupStats(
+                                groupPoints.score() != 0.0 ? 1 : 0, groupPoints.capped() ? 1 : 0, groupPoints.score()),
+                        (a, b) -> new GradingAnalytics.RatingGroupStats(
+                                a.affectedSubmissions() + b.affectedSubmissions(),
+                                a.cappedSubmissions() + b.cappedSubmissions(),
+                                a.totalPoints() + b.totalPoints()));
+            }
+
+            for (var entry : summary.assessors().entrySet()) {
+                mergeAssessor(this.assessors, entry.getKey(), entry.getValue());
+            }
+        }
+
+        GradingAnalytics build(int failed) {
+            List<Integer> counts = new ArrayList<>(this.pointBins.length);
+            for (int count : this.pointBins) {
+                counts.add(count);
+            }
+            return new GradingAnalytics(
+                    this.submissions,
+                    failed,
+                    new GradingAnalytics.PointHistogram(POINT_BIN_WIDTH, counts, this.pointSum),
+                    this.mistakeTypes,
+                    this.ratingGroups,
+                    this.assessors);
+        }
+    }
+}
@@ -0,0 +1,518 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j.grading;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import edu.kit.kastel.sdq.artemis4j.ArtemisClientException;
+import edu.kit.kastel.sdq.artemis4j.ArtemisNetworkException;
+import edu.kit.kastel.sdq.artemis4j.grading.metajson.AnnotationMappingException;
+import edu.kit.kastel.sdq.artemis4j.grading.penalty.GradingConfig;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the next few submissions of an exercise locked and prepared in the background, so that a tutor doesn't have
+ * to wait for locking, loading the feedbacks, cloning and running the autograder between two submissions.
+ * <p>
+ * Up to {@code depth} submissions are locked at a time, including the ones that are still being prepared. Locking is
+ * done one after another (Artemis might hand out the same submission to concurrent calls), but the preparations run
+ * concurrently. A failed preparation doesn't discard the lock, the submission is handed out with the failure instead.
+ * <p>
+ * Artemis does not expire locks by itself, but they can be released by others (e.g. instructors). So before handing
+ * out a submission that was locked longer than the lease duration ago, the lock is renewed. Submissions whose lock
+ * has been lost are dropped.
+ * <p>
+ * Network failures while locking are retried a few times. If locking keeps failing, or fails for any other reason,
+ * the queue stops locking, and {@link #take()} throws the failure once the prepared submissions have been taken.
+ * <p>
+ * {@link #close()} cancels the locks of all submissions that have not been taken.
+ */
+public final class GradingQueue implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(GradingQueue.class);
+
+    public static final Duration DEFAULT_LEASE_DURATION = Duration.ofMinutes(10);
+    static final Duration DEFAULT_RETRY_DELAY = Duration.ofSeconds(5);
+    // Consecutive failures, a successful lock starts counting again
+    static final int MAX_LOCK_ATTEMPTS = 5;
+
+    private final ProgrammingExercise exercise;
+    private final CorrectionRound correctionRound;
+    private final GradingConfig gradingConfig;
+    private final int depth;
+    private final Duration leaseDuration;
+    private final Preparer preparer;
+    private final Duration retryDelay;
+    private final ExecutorService workers;
+
+    // Held while locking the next submission, so that only one worker locks at a time
+    private final Object lockNextLock = new Object();
+
+    private final ReentrantLock stateLock = new ReentrantLock();
+    private final Condition stateChanged = this.stateLock.newCondition();
+    // The following fields are guarded by stateLock
+    private final Deque<PreparedSubmission> ready = new ArrayDeque<>();
+    private int inPreparation = 0;
+    private boolean exhausted = false;
+    private boolean closed = false;
+    private int failedAttempts = 0;
+    private @Nullable Exception failure;
+
+    GradingQueue(
+            ProgrammingExercise exercise,
+            CorrectionRound correctionRound,
+            GradingConfig gradingConfig,
+            int depth,
+            Duration leaseDuration,
+            Preparer preparer) {
+        this(exercise, correctionRound, gradingConfig, depth, leaseDuration, preparer, DEFAULT_RETRY_DELAY);
+    }
+
+    GradingQueue(
+            ProgrammingExercise exercise,
+            CorrectionRound correctionRound,
+            GradingConfig gradingConfig,
+            int depth,
+            Duration leaseDuration,
+            Preparer preparer,
+            Duration retryDelay) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("The depth must be at least 1, but was " + depth);
+        }
+
+        this.exercise = exercise;
+        this.correctionRound = correctionRound;
+        this.gradingConfig = gradingConfig;
+        this.depth = depth;
+        this.leaseDuration = leaseDuration;
+        this.preparer = preparer;
+        this.retryDelay = retryDelay;
+
+        this.workers = Executors.newThreadPerTaskExecutor(Thread.ofVirtual()
+                .name("artemis-grading-queue-" + exercise.getId() + "-", 0)
+                .factory());
+        for (int i = 0; i < depth; i++) {
+            this.workers.execute(this::work);
+        }
+    }
+
+    /**
+     * Takes the next prepared submission, waiting until one is ready. The caller is responsible for submitting or
+     * cancelling the assessment, and for closing the clone.
+     *
+     * @return the next submission, or empty if there are no more submissions to lock or the queue has been closed
+     * @throws ArtemisClientException if locking failed permanently, or renewing the lock of the submission failed
+     */
+    public Optional<PreparedSubmission> take() throws ArtemisClientException, InterruptedException {
+        return this.next(null);
+    }
+
+    /**
+     * Like {@link #take()}, but waits at most the given time.
+     *
+     * @return the next submission, or empty if none became ready in time, there are no more submissions or the queue
+     *     has been closed
+     * @throws ArtemisClientException see {@link #take()}
+     */
+    public Optional<PreparedSubmission> poll(Duration timeout) throws ArtemisClientException, InterruptedException {
+        return this.next(timeout);
+    }
+
+    private Optional<PreparedSubmission> next(@Nullable Duration timeout)
+            throws ArtemisClientException, InterruptedException {
+        long deadline = timeout == null ? 0 : System.nanoTime() + timeout.toNanos();
+        while (true) {
+            PreparedSubmission next;
+            this.stateLock.lock();
+            try {
+                while (this.ready.isEmpty()
+                        && !this.closed
+                        && !((this.exhausted || this.failure != null) && this.inPreparation == 0)) {
+                    if (timeout == null) {
+                        this.stateChanged.await();
+                    } else {
+                        long remaining = deadline - System.nanoTime();
+                        if (remaining <= 0) {
+                            return Optional.empty();
+                        }
+                        this.stateChanged.awaitNanos(remaining);
+                    }
+                }
+
+                if (this.ready.isEmpty()) {
+                    if (this.failure != null && !this.closed) {
+                        throw new ArtemisClientException(
+                                "Failed to lock the next submission of exercise " + this.exercise.getId(),
+                                this.failure);
+                    }
+                    return Optional.empty();
+                }
+                next = this.ready.pollFirst();
+                // A slot became free, so a worker can lock the next submission
+                this.stateChanged.signalAll();
+            } finally {
+                this.stateLock.unlock();
+            }
+
+            boolean holdsLock;
+            try {
+                holdsLock = this.holdsLock(next);
+            } catch (ArtemisNetworkException e) {
+                // Keep the submission, so that it is cancelled on close if nobody takes it
+                this.pushBack(next);
+                throw e;
+            }
+
+            if (holdsLock) {
+                return Optional.of(next);
+            }
+
+            log.info("Lost the lock on submission {}, skipping it", next.assessment().getSubmission().getId());
+            next.assessment().forgetLock();
+            closeClone(next);
+        }
+    }
+
+    /**
+     * @return the number of submissions that are prepared and can be taken immediately
+     */
+    public int getReadyCount() {
+        this.stateLock.lock();
+        try {
+            return this.ready.size();
+        } finally {
+            this.stateLock.unlock();
+        }
+    }
+
+    /**
+     * @return the failure that made the queue stop locking submissions, or null if locking hasn't failed permanently
+     */
+    public @Nullable Exception getFailure() {
+        this.stateLock.lock();
+        try {
+            return this.failure;
+        } finally {
+            this.stateLock.unlock();
+        }
+    }
+
+    /**
+     * @return true if Artemis had no more submissions to lock
+     */
+    public boolean isExhausted() {
+        this.stateLock.lock();
+        try {
+            return this.exhausted;
+        } finally {
+            this.stateLock.unlock();
+        }
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Stops preparing submissions and cancels the locks of all submissions that have not been taken. Waits for
+     * running preparations to finish, so that their locks can be cancelled as well.
+     */
+    @Override
+    public void close() {
+        List<PreparedSubmission> unused;
+        this.stateLock.lock();
+        try {
+            if (this.closed) {
+                return;
+            }
+            this.closed = true;
+            this.stateChanged.signalAll();
+        } finally {
+            this.stateLock.unlock();
+        }
+
+        // Workers cancel the submissions they are preparing themselves once they see that the queue is closed
+        this.workers.close();
+
+        this.stateLock.lock();
+        try {
+            unused = new ArrayList<>(this.ready);
+            this.ready.clear();
+        } finally {
+            this.stateLock.unlock();
+        }
+
+        for (var submission : unused) {
+            cancel(submission);
+        }
+    }
+
+    private void work() {
+        while (this.awaitFreeSlot()) {
+            Assessment assessment;
+            try {
+                assessment = this.lockNext();
+            } catch (ArtemisNetworkException | AnnotationMappingException | RuntimeException e) {
+                // The failure has already been recorded, so this returns false if the queue has given up
+                if (this.sleepBeforeRetry()) {
+                    continue;
+                }
+                return;
+            }
+
+            if (assessment == null) {
+                continue;
+            }
+
+            var prepared = this.prepare(assessment);
+            if (!this.offer(prepared)) {
+                cancel(prepared);
+            }
+        }
+    }
+
+    /**
+     * Waits until fewer than depth submissions are locked, and reserves a slot for the next one.
+     *
+     * @return false if the queue has been closed, exhausted or has failed
+     */
+    private boolean awaitFreeSlot() {
+        this.stateLock.lock();
+        try {
+            while (!this.isStopped() && this.ready.size() + this.inPreparation >= this.depth) {
+                this.stateChanged.awaitUninterruptibly();
+            }
+            if (this.isStopped()) {
+                return false;
+            }
+            this.inPreparation++;
+            return true;
+        } finally {
+            this.stateLock.unlock();
+        }
+    }
+
+    private @Nullable Assessment lockNext() throws ArtemisNetworkException, AnnotationMappingException {
+        synchronized (this.lockNextLock) {
+            if (this.shouldStop()) {
+                // The queue has been closed, exhausted or has failed while this worker was waiting for its turn
+                this.releaseSlot(false);
+                return null;
+            }
+
+            Optional<Assessment> assessment;
+            try {
+                assessment = this.exercise.tryLockNextSubmission(this.correctionRound, this.gradingConfig);
+            } catch (ArtemisNetworkException | AnnotationMappingException | RuntimeException e) {
+                // Recorded before the next worker gets its turn, so that it doesn't repeat a hopeless request
+                this.recordFailure(e);
+                throw e;
+            }
+            if (assessment.isEmpty()) {
+                this.releaseSlot(true);
+                return null;
+            }
+
+            this.stateLock.lock();
+            try {
+                this.failedAttempts = 0;
+            } finally {
+                this.stateLock.unlock();
+            }
+            return assessment.get();
+        }
+    }
+
+    private PreparedSubmission prepare(Assessment assessment) {
+        var lockedAt = Instant.now();
+        try {
+            return new PreparedSubmission(assessment, this.preparer.prepare(assessment), null, lockedAt);
+        } catch (Exception e) {
+            log.warn("Failed to prepare submission {}", assessment.getSubmission().getId(), e);
+            return new PreparedSubmission(assessment, null, e, lockedAt);
+        }
+    }
+
+    /**
+     * @return false if the queue has been closed in the meantime, and the caller has to cancel the submission
+     */
+    private boolean offer(PreparedSubmission submission) {
+        this.stateLock.lock();
+        try {
+            this.inPreparation--;
+            if (this.closed) {
+                return false;
+            }
+            this.ready.addLast(submission);
+            this.stateChanged.signalAll();
+            return true;
+        } finally {
+            this.stateLock.unlock();
+        }
+    }
+
+    private void pushBack(PreparedSubmission submission) {
+        this.stateLock.lock();
+        try {
+            if (!this.closed) {
+                this.ready.addFirst(submission);
+                this.stateChanged.signalAll();
+                return;
+            }
+        } finally {
+            this.stateLock.unlock();
+        }
+        cancel(submission);
+    }
+
+    private void releaseSlot(boolean exhausted) {
+        this.stateLock.lock();
+        try {
+            this.inPreparation--;
+            this.exhausted |= exhausted;
+            this.stateChanged.signalAll();
+        } finally {
+            this.stateLock.unlock();
+        }
+    }
+
+    /**
+     * Frees the slot of a failed lock attempt, and gives up if the failure isn't transient or there have been too many
+     * attempts.
+     */
+    private void recordFailure(Exception e) {
+        this.stateLock.lock();
+        try {
+            this.inPreparation--;
+            this.stateChanged.signalAll();
+            // Anything but a transient network failure (e.g. a 403 or an invalid grading config) would fail again the
+            // same way
+            if (e instanceof ArtemisNetworkException networkException
+                    && networkException.isTransient()
+                    && ++this.failedAttempts < MAX_LOCK_ATTEMPTS) {
+                log.warn(
+                        "Failed to lock the next submission of exercise {} (attempt {} of {})",
+                        this.exercise.getId(),
+                        this.failedAttempts,
+                        MAX_LOCK_ATTEMPTS,
+                        e);
+                return;
+            }
+
+            log.error("Giving up locking submissions of exercise {}", this.exercise.getId(), e);
+            if (this.failure == null) {
+                this.failure = e;
+            }
+        } finally {
+            this.stateLock.unlock();
+        }
+    }
+
+    private boolean shouldStop() {
+        this.stateLock.lock();
+        try {
+            return this.isStopped();
+        } finally {
+            this.stateLock.unlock();
+        }
+    }
+
+    private boolean isStopped() {
+        return this.closed || this.exhausted || this.failure != null;
+    }
+
+    private boolean sleepBeforeRetry() {
+        this.stateLock.lock();
+        try {
+            long remaining = this.retryDelay.toNanos();
+            while (!this.isStopped() && remaining > 0) {
+                remaining = this.stateChanged.awaitNanos(remaining);
+            }
+            return !this.isStopped();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            this.stateLock.unlock();
+        }
+    }
+
+    private boolean holdsLock(PreparedSubmission submission) throws ArtemisNetworkException {
+        if (Duration.between(submission.lockedAt(), Instant.now()).compareTo(this.leaseDuration) < 0) {
+            return true;
+        }
+
+        return this.exercise.renewLock(submission.assessment().getSubmission().getId(), this.correctionRound);
+    }
+
+    private static void cancel(PreparedSubmission submission) {
+        cancelQuietly(submission.assessment());
+        closeClone(submission);
+    }
+
+    private static void cancelQuietly(Assessment assessment) {
+        try {
+            assessment.cancel();
+        } catch (ArtemisNetworkException e) {
+            log.warn("Failed to cancel the lock on submission {}", assessment.getSubmission().getId(), e);
+        }
+    }
+
+    private static void closeClone(PreparedSubmission submission) {
+        if (submission.clonedSubmission() == null) {
+            return;
+        }
+
+        try {
+            submission.clonedSubmission().close();
+        } catch (ArtemisClientException e) {
+            log.warn(
+                    "Failed to delete the clone of submission {}",
+                    submission.assessment().getSubmission().getId(),
+                    e);
+        }
+    }
+
+    /**
+     * Prepares a freshly locked submission, e.g. by cloning it and running the autograder on it. Called on a
+     * background thread, concurrently for different submissions.
+     */
+    @FunctionalInterface
+    public interface Preparer {
+        /**
+         * @return the clone of the submission, if the preparation created one
+         */
+        @Nullable ClonedProgrammingSubmission prepare(Assessment assessment) throws Exception;
+
+        /**
+         * Only locks and opens the assessments.
+         */
+        static Preparer openOnly() {
+            return assessment -> null;
+        }
+    }
+
+    /**
+     * A locked submission, ready to be graded.
+     *
+     * @param assessment         the opened assessment, holding the lock
+     * @param clonedSubmission   the clone created by the {@link Preparer}, or null
+     * @param preparationFailure the exception the {@link Preparer} failed with, or null if the preparation succeeded
+     * @param lockedAt           when the submission was locked
+     */
+    public record PreparedSubmission(
+            Assessment assessment,
+            @Nullable ClonedProgrammingSubmission clonedSubmission,
+            @Nullable Exception preparationFailure,
+            Instant lockedAt) {}
+}
@@ -0,0 +1,530 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j.grading;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import edu.kit.kastel.sdq.artemis4j.ArtemisClientException;
+import edu.kit.kastel.sdq.artemis4j.ArtemisNetworkException;
+import edu.kit.kastel.sdq.artemis4j.client.CourseDTO;
+import edu.kit.kastel.sdq.artemis4j.client.ProgrammingSubmissionDTO;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps track of the submissions locked via a connection, and cancels locks that are no longer worked on, so that a
+ * crashed tool doesn't block submissions until an instructor frees them.
+ * <p>
+ * Every lock and release of a programming submission is appended to a journal file. For every lock (a lease), the
+ * time of the last activity is tracked: changes to the annotations of the assessment count as activity (they are
+ * sampled on every sweep), as do calls to {@link #touch(Assessment)}. Leases without activity for longer than the
+ * idle timeout are cancelled in the background, which deletes the feedback of the assessment in Artemis. The last
+ * activity of each lease is appended to the journal on every sweep in which it has changed.
+ * <p>
+ * When started, the leases of the previous run are read from the journal. They have no assessment anymore, so their
+ * last activity is the last one that has been journaled (which may lag behind by one sweep). They are reconciled with
+ * the locked submissions of the courses in Artemis: leases whose lock has been freed in the meantime are dropped, and
+ * idle ones are cancelled right away. Locking the same submission again (e.g. after restarting a plugin) adopts the
+ * lease.
+ * <p>
+ * The leases of assessments that have been evicted by an {@link AssessmentSessionManager} are pinned: they are not
+ * cancelled while the assessment is evicted, since the tutor may come back to it at any time.
+ * <p>
+ * Locks that have not been taken via this connection (e.g. in the Artemis web UI) are never touched.
+ */
+public final class LockLeaseManager implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(LockLeaseManager.class);
+
+    public static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(30);
+    private static final Duration MIN_SWEEP_INTERVAL = Duration.ofSeconds(5);
+
+    private static final String LOCKED = "L";
+    private static final String ACTIVE = "A";
+    private static final String RELEASED = "R";
+
+    private final ArtemisConnection connection;
+    private final Path journal;
+    private final Duration idleTimeout;
+    private final ScheduledExecutorService sweeper;
+
+    // All following fields are guarded by this
+    private final Map<Long, Lease> leases = new LinkedHashMap<>();
+    private BufferedWriter journalWriter;
+    private boolean closed = false;
+
+    private LockLeaseManager(ArtemisConnection connection, Path journal, Duration idleTimeout) throws IOException {
+        this.connection = connection;
+        this.journal = journal;
+        this.idleTimeout = idleTimeout;
+
+        this.readJournal();
+        this.rewriteJournal();
+        this.journalWriter = openJournal(journal);
+
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofVirtual().name("artemis-lock-lease-sweeper").factory());
+    }
+
+    /**
+     * Reads the journal, reconciles the leases of the previous run with Artemis and starts tracking the locks of the
+     * connection. Only one manager may be started per connection.
+     *
+     * @param journal     the journal file, which is created if it doesn't exist. Use one file per user.
+     * @param idleTimeout the time without activity after which a lock is cancelled
+     * @throws IllegalStateException if a manager has already been started for the connection, and not been closed
+     */
+    public static LockLeaseManager start(ArtemisConnection connection, Path journal, Duration idleTimeout)
+            throws ArtemisClientException {
+        if (idleTimeout.isNegative() || idleTimeout.isZero()) {
+            throw new IllegalArgumentException("The idle timeout must be positive, but was " + idleTimeout);
+        }
+
+        // Checked before the journal is rewritten, since the other manager may be using the same file
+        if (connection.hasLockLeaseManager()) {
+            throw new IllegalStateException("A lock lease manager has already been started for this connection");
+        }
+
+        LockLeaseManager manager;
+        try {
+            manager = new LockLeaseManager(connection, journal, idleTimeout);
+        } catch (IOException e) {
+            throw new ArtemisClientException("Failed to open the lock journal " + journal, e);
+        }
+
+        Reconciliation reconciliation;
+        try {
+            connection.registerLockLeaseManager(manager);
+            reconciliation = manager.reconcile();
+        } catch (ArtemisNetworkException | RuntimeException e) {
+            manager.close();
+            throw e;
+        }
+        if (!reconciliation.cancelled().isEmpty() || !reconciliation.released().isEmpty()) {
+            log.info(
+                    "Cancelled {} idle and dropped {} released locks of the previous run",
+                    reconciliation.cancelled().size(),
+                    reconciliation.released().size());
+        }
+
+        long interval = Math.max(MIN_SWEEP_INTERVAL.toMillis(), idleTimeout.toMillis() / 4);
+        manager.sweeper.scheduleWithFixedDelay(manager::sweepQuietly, interval, interval, TimeUnit.MILLISECONDS);
+        return manager;
+    }
+
+    /**
+     * Compares the leases with the locked submissions in Artemis. Leases whose lock has been freed are dropped, and
+     * leases without an assessment that have been idle for too long are cancelled.
+     */
+    public Reconciliation reconcile() throws ArtemisNetworkException {
+        Set<Long> courses = new HashSet<>();
+        synchronized (this) {
+            for (var lease : this.leases.values()) {
+                courses.add(lease.courseId);
+            }
+        }
+
+        Set<Long> lockedInArtemis = new HashSet<>();
+        for (long courseId : courses) {
+            for (var submission : CourseDTO.fetchLockedSubmissions(this.connection.getClient(), courseId)) {
+                lockedInArtemis.add(submission.id());
+            }
+        }
+
+        List<Long> released = new ArrayList<>();
+        List<Long> untracked = new ArrayList<>(lockedInArtemis);
+        synchronized (this) {
+            for (var lease : new ArrayList<>(this.leases.values())) {
+                untracked.remove(lease.submissionId);
+                if (!lockedInArtemis.contains(lease.submissionId)) {
+                    this.release(lease.submissionId);
+                    released.add(lease.submissionId);
+                }
+            }
+        }
+
+        List<Long> cancelled = this.sweep();
+        return new Reconciliation(cancelled, released, untracked);
+    }
+
+    /**
+     * Marks the lease of the assessment as active, e.g. when the tutor looks at it without changing anything.
+     */
+    public synchronized void touch(Assessment assessment) {
+        var lease = this.leases.get(assessment.getSubmission().getId());
+        if (lease != null) {
+            lease.lastActivity = Instant.now();
+        }
+    }
+
+    /**
+     * Cancels all leases that have been idle for longer than the idle timeout, except for pinned ones.
+     *
+     * @return the ids of the submissions whose locks have been cancelled
+     */
+    public List<Long> sweep() {
+        Instant now = Instant.now();
+        List<Lease> idle = new ArrayList<>();
+        synchronized (this) {
+            for (var lease : this.leases.values()) {
+                lease.sampleActivity(now);
+                if (!this.closed && lease.lastActivity.isAfter(lease.journaledActivity)) {
+                    this.appendToJournal(activityLine(lease));
+                    lease.journaledActivity = lease.lastActivity;
+                }
+                if (this.isCancellable(lease, now)) {
+                    idle.add(lease);
+                }
+            }
+        }
+
+        List<Long> cancelled = new ArrayList<>();
+        boolean cancelledDetached = false;
+        for (var lease : idle) {
+            // The lease may have been touched, edited, pinned or released (and locked again) in the meantime
+            if (!this.isStillCancellable(lease)) {
+                continue;
+            }
+
+            var assessment = lease.assessment.get();
+            log.info(
+                    "Cancelling the lock on submission {}, which has been idle since {}",
+                    lease.submissionId,
+                    lease.lastActivity);
+            try {
+                if (assessment != null) {
+                    // Releases the lease via the connection
+                    assessment.cancel();
+                } else {
+                    ProgrammingSubmissionDTO.cancelAssessment(this.connection.getClient(), lease.submissionId);
+                    cancelledDetached = true;
+                    synchronized (this) {
+                        this.release(lease.submissionId);
+                    }
+                }
+                cancelled.add(lease.submissionId);
+            } catch (ArtemisNetworkException e) {
+                log.warn("Failed to cancel the lock on submission {}", lease.submissionId, e);
+            }
+        }
+
+        if (cancelledDetached) {
+            // The counters only know about cancellations of assessments
+            this.connection.invalidateAssessmentCounters();
+        }
+        return cancelled;
+    }
+
+    /**
+     * @return a snapshot of all leases, in the order they were taken
+     */
+    public synchronized List<LeaseInfo> getLeases() {
+        List<LeaseInfo> result = new ArrayList<>(this.leases.size());
+        for (var lease : this.leases.values()) {
+            result.add(new LeaseInfo(
+                    lease.submissionId,
+                    lease.correctionRound,
+                    lease.courseId,
+                    lease.lockedAt,
+                    lease.lastActivity,
+                    lease.assessment.get() != null,
+                    lease.pinned));
+        }
+        return result;
+    }
+
+    public Duration getIdleTimeout() {
+        return this.idleTimeout;
+    }
+
+    /**
+     * Stops tracking locks and cancelling idle ones. The leases remain in the journal, so that the next manager can
+     * reconcile them.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (this.closed) {
+                return;
+            }
+            this.closed = true;
+        }
+
+        this.sweeper.shutdownNow();
+        this.sweeper.close();
+        this.connection.unregisterLockLeaseManager(this);
+        synchronized (this) {
+            try {
+                this.journalWriter.close();
+            } catch (IOException e) {
+                log.warn("Failed to close the lock journal {}", this.journal, e);
+            }
+        }
+    }
+
+    synchronized void onLockAcquired(Assessment assessment) {
+        if (this.closed) {
+            return;
+        }
+
+        long submissionId = assessment.getSubmission().getId();
+        var lease = this.leases.get(submissionId);
+        if (lease != null) {
+            // Locking is reentrant, and restored assessments are reported again
+            lease.attach(assessment);
+            return;
+        }
+
+        lease = new Lease(
+                submissionId,
+                assessment.getCorrectionRound(),
+                assessment.getSubmission().getExercise().getCourse().getId(),
+                Instant.now());
+        lease.attach(assessment);
+        this.leases.put(submissionId, lease);
+        this.appendToJournal(String.join(
+                " ",
+                LOCKED,
+                Long.toString(submissionId),
+                lease.correctionRound.name(),
+                Long.toString(lease.courseId),
+                Long.toString(lease.lockedAt.toEpochMilli())));
+    }
+
+    /**
+     * Keeps the lease of the submission from being cancelled, while its assessment is evicted.
+     */
+    synchronized void pin(long submissionId) {
+        var lease = this.leases.get(submissionId);
+        if (lease != null) {
+            lease.pinned = true;
+        }
+    }
+
+    /**
+     * Undoes {@link #pin(long)} for an evicted assessment that won't be restored. The idle timeout starts now.
+     */
+    synchronized void unpin(long submissionId) {
+        var lease = this.leases.get(submissionId);
+        if (lease != null && lease.pinned) {
+            lease.pinned = false;
+            lease.lastActivity = Instant.now();
+        }
+    }
+
+    synchronized void onLockReleased(long submissionId) {
+        if (!this.closed) {
+            this.release(submissionId);
+        }
+    }
+
+    private void release(long submissionId) {
+        if (this.leases.remove(submissionId) != null) {
+            this.appendToJournal(RELEASED + " " + submissionId);
+        }
+    }
+
+    private synchronized boolean isStillCancellable(Lease lease) {
+        if (this.closed || this.leases.get(lease.submissionId) != lease) {
+            return false;
+        }
+        Instant now = Instant.now();
+        lease.sampleActivity(now);
+        return this.isCancellable(lease, now);
+    }
+
+    private boolean isCancellable(Lease lease, Instant now) {
+        return !lease.pinned && Duration.between(lease.lastActivity, now).compareTo(this.idleTimeout) > 0;
+    }
+
+    private void sweepQuietly() {
+        try {
+            this.sweep();
+        } catch (RuntimeException e) {
+            log.error("Failed to cancel idle locks", e);
+        }
+    }
+
+    private void appendToJournal(String line) {
+        try {
+            this.journalWriter.write(line);
+            this.journalWriter.newLine();
+            this.journalWriter.flush();
+        } catch (IOException e) {
+            // The lease is still tracked in memory, it is only lost if the tool crashes as well
+            log.warn("Failed to write to the lock journal {}", this.journal, e);
+        }
+    }
+
+    private void readJournal() throws IOException {
+        if (!Files.exists(this.journal)) {
+            return;
+        }
+
+        Map<Long, Lease> journaled = new HashMap<>();
+        for (String line : Files.readAllLines(this.journal, StandardCharsets.UTF_8)) {
+            String[] parts = line.split(" ");
+            try {
+                if (parts.length == 5 && parts[0].equals(LOCKED)) {
+                    long submissionId = Long.parseLong(parts[1]);
+                    journaled.put(
+                            submissionId,
+                            new Lease(
+                                    submissionId,
+                                    CorrectionRound.valueOf(parts[2]),
+                                    Long.parseLong(parts[3]),
+                                    Instant.ofEpochMilli(Long.parseLong(parts[4]))));
+                } else if (parts.length == 3 && parts[0].equals(ACTIVE)) {
+                    var lease = journaled.get(Long.parseLong(parts[1]));
+                    if (lease != null) {
+                        lease.lastActivity = Instant.ofEpochMilli(Long.parseLong(parts[2]));
+                        lease.journaledActivity = lease.lastActivity;
+                    }
+                } else if (parts.length == 2 && parts[0].equals(RELEASED)) {
+                    journaled.remove(Long.parseLong(parts[1]));
+                } else if (!line.isBlank()) {
+                    log.warn("Skipping invalid line in the lock journal {}: {}", this.journal, line);
+                }
+            } catch (IllegalArgumentException e) {
+                // Most likely the last line, which has been cut off by a crash
+                log.warn("Skipping invalid line in the lock journal {}: {}", this.journal, line);
+            }
+        }
+
+        // Keep the order of the locks
+        List<Lease> sorted = new ArrayList<>(journaled.values());
+        sorted.sort((a, b) -> a.lockedAt.compareTo(b.lockedAt));
+        for (var lease : sorted) {
+            this.leases.put(lease.submissionId, lease);
+        }
+    }
+
+    /**
+     * Replaces the journal with one that only contains the current leases.
+     */
+    private void rewriteJournal() throws IOException {
+        Path parent = this.journal.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temporary = Files.createTempFile(parent, "locks", ".tmp");
+        try {
+            List<String> lines = new ArrayList<>(this.leases.size());
+            for (var lease : this.leases.values()) {
+                lines.add(String.join(
+                        " ",
+                        LOCKED,
+                        Long.toString(lease.submissionId),
+                        lease.correctionRound.name(),
+                        Long.toString(lease.courseId),
+                        Long.toString(lease.lockedAt.toEpochMilli())));
+                if (lease.journaledActivity.isAfter(lease.lockedAt)) {
+                    lines.add(activityLine(lease));
+                }
+            }
+            Files.write(temporary, lines, StandardCharsets.UTF_8);
+            try {
+                Files.move(
+                        temporary, this.journal, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, this.journal, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static String activityLine(Lease lease) {
+        return String.join(
+                " ", ACTIVE, Long.toString(lease.submissionId), Long.toString(lease.lastActivity.toEpochMilli()));
+    }
+
+    private static BufferedWriter openJournal(Path journal) throws IOException {
+        return Files.newBufferedWriter(
+                journal, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * The result of {@link #reconcile()}.
+     *
+     * @param cancelled the submissions whose idle locks have been cancelled
+     * @param released  the submissions whose locks had already been freed, e.g. by an instructor
+     * @param untracked the submissions that are locked in the courses of the leases, but not by this connection (or
+     *                  only before the journal was started)
+     */
+    public record Reconciliation(List<Long> cancelled, List<Long> released, List<Long> untracked) {}
+
+    /**
+     * @param attached true if the assessment of the lease is still open in this JVM
+     * @param pinned   true if the assessment has been evicted by an {@link AssessmentSessionManager}, so the lease is
+     *                 not cancelled
+     */
+    public record LeaseInfo(
+            long submissionId,
+            CorrectionRound correctionRound,
+            long courseId,
+            Instant lockedAt,
+            Instant lastActivity,
+            boolean attached,
+            boolean pinned) {}
+
+    private static final class Lease {
+        private final long submissionId;
+        private final CorrectionRound correctionRound;
+        private final long courseId;
+        private final Instant lockedAt;
+        // Weak, so that leases don't keep dropped or evicted assessments alive
+        private WeakReference<Assessment> assessment = new WeakReference<>(null);
+        private long lastVersion = -1;
+        private Instant lastActivity;
+        // The last activity that has been written to the journal
+        private Instant journaledActivity;
+        private boolean pinned = false;
+
+        private Lease(long submissionId, CorrectionRound correctionRound, long courseId, Instant lockedAt) {
+            this.submissionId = submissionId;
+            this.correctionRound = correctionRound;
+            this.courseId = courseId;
+            this.lockedAt = lockedAt;
+            this.lastActivity = lockedAt;
+            this.journaledActivity = lockedAt;
+        }
+
+        private void attach(Assessment assessment) {
+            this.assessment = new WeakReference<>(assessment);
+            this.lastVersion = assessment.getModificationVersion();
+            this.lastActivity = Instant.now();
+            this.pinned = false;
+        }
+
+        private void sampleActivity(Instant now) {
+            @Nullable Assessment current = this.assessment.get();
+            if (current == null) {
+                return;
+            }
+
+            long version = current.getModificationVersion();
+            if (version != this.lastVersion) {
+                this.lastVersion = version;
+                this.lastActivity = now;
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j.grading;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts how submissions are locked via {@link ProgrammingExercise#tryLockNextSubmission(CorrectionRound,
+ * edu.kit.kastel.sdq.artemis4j.grading.penalty.GradingConfig)}, and how long that takes.
+ */
+final class LockMetrics {
+    private final LongAdder locks = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    /**
+     * @param usedFallback whether a second lock request was needed to get the result
+     * @param nanos        the time from the first request until the assessment was opened
+     */
+    void record(boolean usedFallback, long nanos) {
+        this.locks.increment();
+        if (usedFallback) {
+            this.fallbacks.increment();
+        }
+        this.totalNanos.add(nanos);
+        this.maxNanos.accumulate(nanos);
+    }
+
+    ConnectionDiagnostics.LockStatistics snapshot() {
+        long count = this.locks.sum();
+        return new ConnectionDiagnostics.LockStatistics(
+                count,
+                this.fallbacks.sum(),
+                count == 0 ? Duration.ZERO : Duration.ofNanos(this.totalNanos.sum() / count),
+                Duration.ofNanos(this.maxNanos.get()));
+    }
+}
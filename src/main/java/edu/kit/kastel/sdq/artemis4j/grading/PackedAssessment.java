@@ -62,6 +62,10 @@ public record PackedAssessment(ResultDTO result, CorrectionRound round, Programm
 
     public void cancel() throws ArtemisNetworkException {
         ProgrammingSubmissionDTO.cancelAssessment(this.getConnection().getClient(), this.submission.getId());
+        this.getConnection().onLockReleased(this.submission.getId());
+        this.getConnection()
+                .getAssessmentCounters()
+                .onCancelled(this.submission.getExercise(), this.round, this.submission.getId());
     }
 
     private ArtemisConnection getConnection() {
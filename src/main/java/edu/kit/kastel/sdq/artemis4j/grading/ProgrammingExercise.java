@@ -1,12 +1,15 @@
 /* Licensed under EPL-2.0 2024-2026. */
 package edu.kit.kastel.sdq.artemis4j.grading;
 
+import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 import edu.kit.kastel.sdq.artemis4j.ArtemisNetworkException;
+import edu.kit.kastel.sdq.artemis4j.LazyNetworkValue;
+import edu.kit.kastel.sdq.artemis4j.ParallelTasks;
 import edu.kit.kastel.sdq.artemis4j.client.AssessmentStatsDTO;
 import edu.kit.kastel.sdq.artemis4j.client.ParticipationDTO;
 import edu.kit.kastel.sdq.artemis4j.client.ProgrammingExerciseDTO;
@@ -120,62 +123,29 @@ public class ProgrammingExercise extends ArtemisConnectionHolder implements Exer
                 this);
     }
 
+    /**
+     * Fetches the assessments of the current user for all correction rounds of this exercise. The rounds are fetched
+     * concurrently.
+     */
     public List<PackedAssessment> fetchMyAssessments() throws ArtemisNetworkException {
-        var assessments = new ArrayList<>(this.fetchMyAssessments(CorrectionRound.FIRST));
-        if (this.hasSecondCorrectionRound()) {
-            assessments.addAll(this.fetchMyAssessments(CorrectionRound.SECOND));
-        }
-        return assessments;
+        return this.fetchMyResultsForAllRounds(this::packAssessment);
     }
 
     public List<PackedAssessment> fetchMyAssessments(CorrectionRound correctionRound) throws ArtemisNetworkException {
-        if (correctionRound == CorrectionRound.SECOND && !this.hasSecondCorrectionRound()) {
-            throw new IllegalArgumentException("This exercise does not have a second correction round");
-        }
-
-        if (correctionRound == CorrectionRound.REVIEW) {
-            throw new IllegalArgumentException(
-                    "Can't fetch assessments for the review 'round'. Instead fetch the assessments for the second review round and that open for the review round.");
-        }
-
-        var submissions =
-                ProgrammingSubmissionDTO.fetchAll(
-                                this.getConnection().getClient(), this.getId(), correctionRound.toArtemis(), true)
-                        .stream()
-                        .map(submissionDto -> new ProgrammingSubmission(submissionDto, this))
-                        .toList();
-
-        var assessments = new ArrayList<PackedAssessment>(submissions.size());
-        for (var submission : submissions) {
-            // For a non-instructor this returns only one result
-            // For an instructor, this returns all results!
-            // There is one caveat: Sometimes, there are multiple semiautomatic results
-            // for the same correction round (no idea why). In this case, the following
-            // logic breaks.
-            var results = submission.getDTO().nonAutomaticResults();
+        return this.fetchMyResults(correctionRound, this.resolveIsInstructor(), this::packAssessment);
+    }
 
-            if (results.size() > 2) {
-                throw new IllegalStateException("Submission %d has more than two non-automatic results: %s"
-                        .formatted(submission.getId(), results));
-            }
+    /**
+     * Like {@link #fetchMyAssessments()}, but only returns a lightweight projection of the assessments. Use this if
+     * the feedbacks and submissions are not needed, e.g. to count or filter the assessments.
+     */
+    public List<AssessmentSummary> fetchMyAssessmentSummaries() throws ArtemisNetworkException {
+        return this.fetchMyResultsForAllRounds(AssessmentSummary::of);
+    }
 
-            ResultDTO relevantResult;
-            if (results.size() == 1) {
-                relevantResult = results.getFirst();
-            } else {
-                var assessor = this.getConnection().getAssessor();
-                if (this.course.isInstructor(assessor)) {
-                    // Instructors can see all results, so select the relevant one
-                    relevantResult = results.get(correctionRound.toArtemis());
-                } else {
-                    throw new IllegalStateException("Too many non-automatic results for a non-instructor: "
-                            + results.size() + ". Course " + getCourse().getId() + ", Exercise " + getId()
-                            + ", Submission " + submission.getId());
-                }
-            }
-            assessments.add(new PackedAssessment(relevantResult, correctionRound, submission));
-        }
-        return assessments;
+    public List<AssessmentSummary> fetchMyAssessmentSummaries(CorrectionRound correctionRound)
+            throws ArtemisNetworkException {
+        return this.fetchMyResults(correctionRound, this.resolveIsInstructor(), AssessmentSummary::of);
     }
 
     /**
@@ -188,19 +158,38 @@ public class ProgrammingExercise extends ArtemisConnectionHolder implements Exer
     public Optional<Assessment> tryLockNextSubmission(CorrectionRound correctionRound, GradingConfig gradingConfig)
             throws AnnotationMappingException, ArtemisNetworkException {
         this.assertGradingConfigValid(gradingConfig);
+        long start = System.nanoTime();
 
-        // This line already locks the submission, but doesn't tell us what the relevant
-        // ResultDTO is
+        // This line already locks the submission
         var nextSubmissionDto = ProgrammingSubmissionDTO.lockNextSubmission(
                 this.getConnection().getClient(), this.getId(), correctionRound.toArtemis());
         if (nextSubmissionDto.isEmpty()) {
             return Optional.empty();
         }
 
+        // Usually, the response already contains the locked result, so no second request is needed
+        var embeddedResult = findLockedResult(nextSubmissionDto.get(), correctionRound);
+        if (embeddedResult.isPresent() && this.canAssess(embeddedResult.get())) {
+            var submission = new ProgrammingSubmission(nextSubmissionDto.get(), this);
+            var assessment = new Assessment(embeddedResult.get(), gradingConfig, submission, correctionRound);
+            this.getConnection()
+                    .getAssessmentCounters()
+                    .onLocked(
+                            this,
+                            correctionRound,
+                            submission.getId(),
+                            embeddedResult.get().completionDate() != null);
+            this.getConnection().onLockAcquired(assessment);
+            this.getConnection().getLockMetrics().record(false, System.nanoTime() - start);
+            return Optional.of(assessment);
+        }
+
         // Second lock call to get the ResultDTO
         try {
             var lockResult = this.tryLockSubmission(nextSubmissionDto.get().id(), correctionRound, gradingConfig);
-            return Optional.of(lockResult.orElseThrow(IllegalStateException::new));
+            var assessment = lockResult.orElseThrow(IllegalStateException::new);
+            this.getConnection().getLockMetrics().record(true, System.nanoTime() - start);
+            return Optional.of(assessment);
         } catch (MoreRecentSubmissionException ex) {
             // The student has submitted a new submission between our two lock calls
             // We assume that this doesn't happen to make downstream error handling simpler
@@ -252,18 +241,85 @@ public class ProgrammingExercise extends ArtemisConnectionHolder implements Exer
             return Optional.empty();
         }
 
+        this.getConnection()
+                .getAssessmentCounters()
+                .onLocked(this, correctionRound, submissionId, result.completionDate() != null);
+
         var submission = new ProgrammingSubmission(locked, this);
-        return Optional.of(new Assessment(result, gradingConfig, submission, correctionRound));
+        var assessment = new Assessment(result, gradingConfig, submission, correctionRound);
+        this.getConnection().onLockAcquired(assessment);
+        return Optional.of(assessment);
+    }
+
+    /**
+     * Analyzes all completed manual assessments of this exercise, e.g. to find the most frequent mistakes or to
+     * compare the assessors. The feedbacks of the assessments are fetched and parsed concurrently.
+     *
+     * @param config      the grading config the assessments have been made with
+     * @param parallelism the maximum number of assessments that are fetched and parsed at once
+     */
+    public GradingAnalytics analyzeGrading(GradingConfig config, int parallelism) throws ArtemisNetworkException {
+        this.assertGradingConfigValid(config);
+        return new GradingAnalyzer(this, config, parallelism).analyze();
+    }
+
+    /**
+     * Creates a queue that keeps the next submissions of this exercise locked and prepared in the background, see
+     * {@link GradingQueue}. The queue must be closed to release the locks of submissions that have not been taken.
+     *
+     * @param depth    the maximum number of submissions that are locked ahead
+     * @param preparer prepares every locked submission, e.g. clones it and runs the autograder
+     */
+    public GradingQueue createGradingQueue(
+            CorrectionRound correctionRound, GradingConfig gradingConfig, int depth, GradingQueue.Preparer preparer) {
+        return this.createGradingQueue(
+                correctionRound, gradingConfig, depth, GradingQueue.DEFAULT_LEASE_DURATION, preparer);
+    }
+
+    /**
+     * @param leaseDuration after this time, the lock of a prepared submission is renewed before handing it out
+     * @see #createGradingQueue(CorrectionRound, GradingConfig, int, GradingQueue.Preparer)
+     */
+    public GradingQueue createGradingQueue(
+            CorrectionRound correctionRound,
+            GradingConfig gradingConfig,
+            int depth,
+            Duration leaseDuration,
+            GradingQueue.Preparer preparer) {
+        this.assertGradingConfigValid(gradingConfig);
+        return new GradingQueue(this, correctionRound, gradingConfig, depth, leaseDuration, preparer);
+    }
+
+    /**
+     * Locks the submission again, to make sure that the lock hasn't been released by someone else.
+     *
+     * @return false if the submission is now locked by someone else, or has been replaced by a newer submission
+     */
+    boolean renewLock(long submissionId, CorrectionRound correctionRound) throws ArtemisNetworkException {
+        var locked = ProgrammingSubmissionDTO.lock(
+                this.getConnection().getClient(), submissionId, correctionRound.toArtemis());
+        if (locked.id() != submissionId || locked.results() == null || locked.results().size() != 1) {
+            return false;
+        }
+        return this.canAssess(locked.results().getFirst());
     }
 
+    /**
+     * Returns the number of submitted and locked assessments of the current user. The count is cached and kept up
+     * to date from the locks, submits and cancellations of this connection. Changes made by other clients (e.g. the
+     * Artemis web UI) only show up after the cache is reconciled with Artemis, which happens every two minutes, or
+     * after {@link ArtemisConnection#invalidateAssessmentCounters()}.
+     */
     public int fetchMyAssessmentCount(CorrectionRound correctionRound) throws ArtemisNetworkException {
-        return this.fetchMyAssessments(correctionRound).size();
+        return this.getConnection().getAssessmentCounters().countMyAssessments(this, correctionRound);
     }
 
+    /**
+     * Returns the number of submissions locked by the current user. Cached like
+     * {@link #fetchMyAssessmentCount(CorrectionRound)}, so it may be up to two minutes out of date.
+     */
     public int fetchLockedSubmissionCount(CorrectionRound correctionRound) throws ArtemisNetworkException {
-        return (int) this.fetchMyAssessments(correctionRound).stream()
-                .filter(s -> !s.isSubmitted())
-                .count();
+        return this.getConnection().getAssessmentCounters().countLocked(this, correctionRound);
     }
 
     @Override
@@ -277,6 +333,98 @@ public class ProgrammingExercise extends ArtemisConnectionHolder implements Exer
         }
     }
 
+    private <T> List<T> fetchMyResultsForAllRounds(ResultMapper<T> mapper) throws ArtemisNetworkException {
+        var rounds = this.hasSecondCorrectionRound()
+                ? List.of(CorrectionRound.FIRST, CorrectionRound.SECOND)
+                : List.of(CorrectionRound.FIRST);
+
+        // Shared by both rounds, so the role is resolved at most once
+        var isInstructor = this.resolveIsInstructor();
+        var perRound = ParallelTasks.map(
+                rounds, rounds.size(), round -> this.fetchMyResults(round, isInstructor, mapper));
+
+        List<T> results = new ArrayList<>();
+        for (var roundResults : perRound) {
+            results.addAll(roundResults);
+        }
+        return results;
+    }
+
+    private <T> List<T> fetchMyResults(
+            CorrectionRound correctionRound, LazyNetworkValue<Boolean> isInstructor, ResultMapper<T> mapper)
+            throws ArtemisNetworkException {
+        if (correctionRound == CorrectionRound.SECOND && !this.hasSecondCorrectionRound()) {
+            throw new IllegalArgumentException("This exercise does not have a second correction round");
+        }
+
+        if (correctionRound == CorrectionRound.REVIEW) {
+            throw new IllegalArgumentException(
+                    "Can't fetch assessments for the review 'round'. Instead fetch the assessments for the second review round and that open for the review round.");
+        }
+
+        var submissions = ProgrammingSubmissionDTO.fetchAll(
+                this.getConnection().getClient(), this.getId(), correctionRound.toArtemis(), true);
+
+        var results = new ArrayList<T>(submissions.size());
+        for (var submission : submissions) {
+            // For a non-instructor this returns only one result
+            // For an instructor, this returns all results!
+            // There is one caveat: Sometimes, there are multiple semiautomatic results
+            // for the same correction round (no idea why). In this case, the following
+            // logic breaks.
+            var manualResults = submission.nonAutomaticResults();
+
+            if (manualResults.size() > 2) {
+                throw new IllegalStateException("Submission %d has more than two non-automatic results: %s"
+                        .formatted(submission.id(), manualResults));
+            }
+
+            ResultDTO relevantResult;
+            if (manualResults.size() == 1) {
+                relevantResult = manualResults.getFirst();
+            } else if (isInstructor.get()) {
+                // Instructors can see all results, so select the relevant one
+                relevantResult = manualResults.get(correctionRound.toArtemis());
+            } else {
+                throw new IllegalStateException("Too many non-automatic results for a non-instructor: "
+                        + manualResults.size() + ". Course " + getCourse().getId() + ", Exercise " + getId()
+                        + ", Submission " + submission.id());
+            }
+            results.add(mapper.map(submission, relevantResult, correctionRound));
+        }
+        return results;
+    }
+
+    private PackedAssessment packAssessment(
+            ProgrammingSubmissionDTO submission, ResultDTO result, CorrectionRound round) {
+        return new PackedAssessment(result, round, new ProgrammingSubmission(submission, this));
+    }
+
+    /**
+     * Only resolves the role when it is needed, i.e. when a submission has results of both correction rounds.
+     */
+    private LazyNetworkValue<Boolean> resolveIsInstructor() {
+        return new LazyNetworkValue<>(() -> this.course.isInstructor(this.getConnection().getAssessor()));
+    }
+
+    /**
+     * Finds the result that has been created (or reused) by locking the submission, if Artemis included it in the
+     * response. Besides the result of the requested round, the response may contain the results of earlier rounds.
+     */
+    private static Optional<ResultDTO> findLockedResult(ProgrammingSubmissionDTO locked, CorrectionRound round) {
+        if (locked.participation() == null) {
+            return Optional.empty();
+        }
+
+        var results = locked.nonAutomaticResults();
+        if (results.size() != round.toArtemis() + 1) {
+            return Optional.empty();
+        }
+
+        var result = results.get(round.toArtemis());
+        return result.completionDate() == null ? Optional.of(result) : Optional.empty();
+    }
+
     private boolean canAssess(ResultDTO result) throws ArtemisNetworkException {
         // We can assess if either no assessor is set, we are the assessor,
         // or if we are an instructor (who can overwrite any assessment)
@@ -285,4 +433,9 @@ public class ProgrammingExercise extends ArtemisConnectionHolder implements Exer
                 || result.assessor().id() == assessor.getId()
                 || this.getCourse().isInstructor(assessor);
     }
+
+    @FunctionalInterface
+    private interface ResultMapper<T> {
+        T map(ProgrammingSubmissionDTO submission, ResultDTO result, CorrectionRound round);
+    }
 }
@@ -0,0 +1,56 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j.grading;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import edu.kit.kastel.sdq.artemis4j.client.CourseRole;
+
+/**
+ * A single change that is necessary to bring the roster of a course in sync, see {@link Course#syncRoster}.
+ *
+ * @param login  the login of the user
+ * @param role   the role that is assigned or removed
+ * @param action whether the user is assigned to or removed from the role
+ */
+public record RosterChange(String login, CourseRole role, Action action) {
+    public enum Action {
+        ASSIGN,
+        REMOVE
+    }
+
+    /**
+     * Computes the minimal changes that turn the current students and tutors into the desired roster. A role is only
+     * synced if the roster contains at least one user with that role, so e.g. a roster of students never removes any
+     * tutors. All removals come before the assignments, both sorted by login.
+     */
+    static List<RosterChange> diff(Map<String, CourseRole> roster, Set<String> students, Set<String> tutors) {
+        List<RosterChange> changes = new ArrayList<>();
+        if (roster.containsValue(CourseRole.STUDENT)) {
+            for (String student : new TreeSet<>(students)) {
+                if (roster.get(student) != CourseRole.STUDENT) {
+                    changes.add(new RosterChange(student, CourseRole.STUDENT, Action.REMOVE));
+                }
+            }
+        }
+        if (roster.containsValue(CourseRole.TUTOR)) {
+            for (String tutor : new TreeSet<>(tutors)) {
+                if (roster.get(tutor) != CourseRole.TUTOR) {
+                    changes.add(new RosterChange(tutor, CourseRole.TUTOR, Action.REMOVE));
+                }
+            }
+        }
+
+        for (String login : new TreeSet<>(roster.keySet())) {
+            var role = roster.get(login);
+            var current = role == CourseRole.STUDENT ? students : tutors;
+            if (!current.contains(login)) {
+                changes.add(new RosterChange(login, role, Action.ASSIGN));
+            }
+        }
+        return changes;
+    }
+}
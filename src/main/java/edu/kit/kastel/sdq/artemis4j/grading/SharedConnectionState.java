@@ -0,0 +1,120 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j.grading;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import edu.kit.kastel.sdq.artemis4j.ArtemisNetworkException;
+import edu.kit.kastel.sdq.artemis4j.LazyNetworkValue;
+import edu.kit.kastel.sdq.artemis4j.client.ArtemisClient;
+import edu.kit.kastel.sdq.artemis4j.client.CourseRole;
+import edu.kit.kastel.sdq.artemis4j.client.ExerciseDTO;
+import edu.kit.kastel.sdq.artemis4j.client.ManagementInfoDTO;
+import edu.kit.kastel.sdq.artemis4j.grading.penalty.GradingConfig;
+import edu.kit.kastel.sdq.artemis4j.grading.penalty.InvalidGradingConfigException;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Data that is the same for every user of an Artemis instance, shared by the connections of an
+ * {@link ArtemisConnectionPool}. Only DTOs and immutable values are shared here, the grading objects built from
+ * them stay per connection, since they carry the connection (and thereby the user) with them.
+ * <p>
+ * The exercises of a course are shared per course role, since Artemis shows e.g. unreleased exercises only to
+ * editors and instructors. All values expire after the time to live, so that changes made outside the pool (e.g.
+ * in the Artemis web UI) are picked up eventually. Pooled connections apply the same time to live to the values
+ * they hold themselves, see {@link ArtemisConnection#getUnexpired(LazyNetworkValue)}.
+ */
+final class SharedConnectionState {
+    private final Duration timeToLive;
+    private final Map<String, LazyNetworkValue<ManagementInfoDTO>> managementInfo = new ConcurrentHashMap<>();
+    private final Map<CourseExercisesKey, LazyNetworkValue<List<ExerciseDTO>>> courseExercises =
+            new ConcurrentHashMap<>();
+    private final Map<GradingConfigKey, ParsedGradingConfig> gradingConfigs = new ConcurrentHashMap<>();
+
+    SharedConnectionState(Duration timeToLive) {
+        if (timeToLive.isNegative() || timeToLive.isZero()) {
+            throw new IllegalArgumentException("The time to live must be positive, but was " + timeToLive);
+        }
+        this.timeToLive = timeToLive;
+    }
+
+    ManagementInfoDTO getManagementInfo(ArtemisClient client) throws ArtemisNetworkException {
+        // All connections of a pool point to the same instance, the key only exists to reuse getOrFetch
+        return this.getOrFetch(
+                this.managementInfo, client.getInstance().getDomain(), () -> ManagementInfoDTO.fetch(client));
+    }
+
+    /**
+     * @param roles the roles of the client's user in the course, must not be empty or only contain the student role
+     */
+    List<ExerciseDTO> getCourseExercises(ArtemisClient client, long courseId, Set<CourseRole> roles)
+            throws ArtemisNetworkException {
+        var key = new CourseExercisesKey(courseId, Collections.max(roles));
+        return this.getOrFetch(this.courseExercises, key, () -> ExerciseDTO.fetchAllForCourse(client, courseId));
+    }
+
+    void invalidateCourseExercises(long courseId) {
+        this.courseExercises.keySet().removeIf(key -> key.courseId() == courseId);
+    }
+
+    GradingConfig getGradingConfig(String configString, ProgrammingExercise exercise)
+            throws InvalidGradingConfigException {
+        var key = new GradingConfigKey(exercise.getId(), configString);
+        var parsed = this.gradingConfigs.get(key);
+        if (parsed == null || this.isExpired(parsed.parsedAt())) {
+            // Parsing twice in a race is harmless, the configs are equivalent
+            parsed = new ParsedGradingConfig(GradingConfig.readFromString(configString, exercise), Instant.now());
+            this.gradingConfigs.put(key, parsed);
+        }
+        return parsed.config();
+    }
+
+    /**
+     * Removes all expired values, so that values that are no longer requested don't stay in memory.
+     */
+    void evictExpired() {
+        this.managementInfo.values().removeIf(value -> this.isExpired(value.getLoadedAt()));
+        this.courseExercises.values().removeIf(value -> this.isExpired(value.getLoadedAt()));
+        this.gradingConfigs.values().removeIf(parsed -> this.isExpired(parsed.parsedAt()));
+    }
+
+    void clear() {
+        this.managementInfo.clear();
+        this.courseExercises.clear();
+        this.gradingConfigs.clear();
+    }
+
+    private <K, T> T getOrFetch(
+            Map<K, LazyNetworkValue<T>> values, K key, LazyNetworkValue.NetworkSupplier<T> supplier)
+            throws ArtemisNetworkException {
+        // The value is fetched with the client of the first caller, concurrent callers wait for that request
+        var value = values.compute(key, (k, existing) -> existing == null || this.isExpired(existing.getLoadedAt())
+                ? new LazyNetworkValue<>(supplier)
+                : existing);
+        try {
+            return value.get();
+        } catch (ArtemisNetworkException e) {
+            // Don't keep the failed fetch around, the next caller should try again with its own client
+            values.remove(key, value);
+            throw e;
+        }
+    }
+
+    /**
+     * @param loadedAt when the value was loaded, or null if it is still being loaded
+     */
+    boolean isExpired(@Nullable Instant loadedAt) {
+        return loadedAt != null && loadedAt.plus(this.timeToLive).isBefore(Instant.now());
+    }
+
+    private record CourseExercisesKey(long courseId, CourseRole role) {}
+
+    private record GradingConfigKey(long exerciseId, String configString) {}
+
+    private record ParsedGradingConfig(GradingConfig config, Instant parsedAt) {}
+}
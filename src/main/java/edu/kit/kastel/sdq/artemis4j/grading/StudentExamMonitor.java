@@ -0,0 +1,138 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j.grading;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import edu.kit.kastel.sdq.artemis4j.ArtemisNetworkException;
+import edu.kit.kastel.sdq.artemis4j.client.StudentExamLoginDTO;
+import edu.kit.kastel.sdq.artemis4j.client.StudentExamStateDTO;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Monitors the student exams of a running exam, and reports when students start or submit their exam.
+ * <p>
+ * The first {@link #poll()} fetches the student exams with the students' logins (see {@link StudentExamLoginDTO}).
+ * Later polls only decode the state of the student exams (see {@link StudentExamStateDTO}) and compare it to a compact
+ * state table, so that polling a large exam every few seconds stays cheap. The logins are only fetched again if new
+ * student exams show up.
+ * <p>
+ * Polls run one at a time. The getters don't wait for a running poll, they return the state of the last one.
+ */
+public final class StudentExamMonitor {
+    private final Exam exam;
+    private final StudentExamStateTable table = new StudentExamStateTable();
+    private final List<Consumer<StudentExamTransition>> listeners = new CopyOnWriteArrayList<>();
+    // Held during a poll, so that polls and their notifications don't interleave
+    private final ReentrantLock pollLock = new ReentrantLock();
+    // Guarded by this, as is the table
+    private boolean initialized = false;
+
+    public StudentExamMonitor(Exam exam) {
+        this.exam = exam;
+    }
+
+    /**
+     * Adds a listener that is called for every transition found by {@link #poll()}, on the polling thread. Listeners
+     * are called without holding the monitor, so they may call the getters (from any thread).
+     */
+    public void addListener(Consumer<StudentExamTransition> listener) {
+        this.listeners.add(listener);
+    }
+
+    public void removeListener(Consumer<StudentExamTransition> listener) {
+        this.listeners.remove(listener);
+    }
+
+    /**
+     * Fetches the state of all student exams and notifies the listeners about the transitions since the last poll.
+     * The first poll only records the current state and reports no transitions.
+     *
+     * @return the transitions since the previous poll
+     */
+    public List<StudentExamTransition> poll() throws ArtemisNetworkException {
+        this.pollLock.lock();
+        try {
+            var transitions = this.fetchTransitions();
+            for (var transition : transitions) {
+                for (var listener : this.listeners) {
+                    listener.accept(transition);
+                }
+            }
+            return transitions;
+        } finally {
+            this.pollLock.unlock();
+        }
+    }
+
+    /**
+     * Must be called with the poll lock held. The requests are sent without holding the monitor.
+     */
+    private List<StudentExamTransition> fetchTransitions() throws ArtemisNetworkException {
+        var client = this.exam.getConnection().getClient();
+        long courseId = this.exam.getCourse().getId();
+
+        boolean initialized;
+        synchronized (this) {
+            initialized = this.initialized;
+        }
+        if (!initialized) {
+            var studentExams = StudentExamLoginDTO.fetchAll(client, courseId, this.exam.getId());
+            synchronized (this) {
+                this.table.addMissing(studentExams, true);
+                this.initialized = true;
+            }
+            return List.of();
+        }
+
+        var states = StudentExamStateDTO.fetchAll(client, courseId, this.exam.getId());
+        boolean known;
+        synchronized (this) {
+            known = this.table.containsAll(states);
+        }
+        @Nullable List<StudentExamLoginDTO> newStudentExams = null;
+        if (!known) {
+            // New student exams (e.g. for students that registered late), so we need their logins
+            newStudentExams = StudentExamLoginDTO.fetchAll(client, courseId, this.exam.getId());
+            states = new ArrayList<>(newStudentExams.size());
+            for (var studentExam : newStudentExams) {
+                states.add(studentExam.toState());
+            }
+        }
+
+        synchronized (this) {
+            if (newStudentExams != null) {
+                this.table.addMissing(newStudentExams, false);
+            }
+            return this.table.update(states);
+        }
+    }
+
+    /**
+     * @return the number of student exams, as of the last poll
+     */
+    public synchronized int getStudentExamCount() {
+        return this.table.size();
+    }
+
+    /**
+     * @return the number of started student exams, as of the last poll
+     */
+    public synchronized int getStartedCount() {
+        return this.table.countStarted();
+    }
+
+    /**
+     * @return the number of submitted student exams, as of the last poll
+     */
+    public synchronized int getSubmittedCount() {
+        return this.table.countSubmitted();
+    }
+
+    public Exam getExam() {
+        return exam;
+    }
+}
@@ -0,0 +1,144 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j.grading;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import edu.kit.kastel.sdq.artemis4j.client.StudentExamLoginDTO;
+import edu.kit.kastel.sdq.artemis4j.client.StudentExamStateDTO;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * The started/submitted state of all student exams of an exam, stored in primitive arrays sorted by the student
+ * exam id. The logins are only stored once, when a student exam is first seen. A login is null if Artemis didn't
+ * include the user of the student exam.
+ */
+final class StudentExamStateTable {
+    private static final byte STARTED = 1;
+    private static final byte SUBMITTED = 2;
+
+    private long[] ids = new long[0];
+    private byte[] states = new byte[0];
+    private @Nullable String[] logins = new String[0];
+
+    /**
+     * Adds the student exams that are not yet part of the table.
+     *
+     * @param adoptState whether to take over the current state of the added student exams. If false, they are added
+     *                   as neither started nor submitted, so that the next {@link #update} reports their state as
+     *                   transitions.
+     */
+    void addMissing(List<StudentExamLoginDTO> studentExams, boolean adoptState) {
+        List<StudentExamLoginDTO> missing = new ArrayList<>();
+        for (var studentExam : studentExams) {
+            if (Arrays.binarySearch(this.ids, studentExam.id()) < 0) {
+                missing.add(studentExam);
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        int size = this.ids.length + missing.size();
+        long[] ids = Arrays.copyOf(this.ids, size);
+        byte[] states = Arrays.copyOf(this.states, size);
+        @Nullable String[] logins = Arrays.copyOf(this.logins, size);
+        for (int i = 0; i < missing.size(); i++) {
+            var studentExam = missing.get(i);
+            int index = this.ids.length + i;
+            ids[index] = studentExam.id();
+            states[index] = adoptState ? state(studentExam.started(), studentExam.submitted()) : 0;
+            logins[index] = studentExam.login();
+        }
+
+        // Sort all three arrays by id
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(ids[a], ids[b]));
+
+        this.ids = new long[size];
+        this.states = new byte[size];
+        this.logins = new String[size];
+        for (int i = 0; i < size; i++) {
+            this.ids[i] = ids[order[i]];
+            this.states[i] = states[order[i]];
+            this.logins[i] = logins[order[i]];
+        }
+    }
+
+    /**
+     * @return whether the table knows all the given student exams
+     */
+    boolean containsAll(List<StudentExamStateDTO> studentExams) {
+        for (var studentExam : studentExams) {
+            if (Arrays.binarySearch(this.ids, studentExam.id()) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Updates the states of the given student exams, which must all be known to the table.
+     *
+     * @return the transitions, in the order of the given student exams
+     */
+    List<StudentExamTransition> update(List<StudentExamStateDTO> studentExams) {
+        List<StudentExamTransition> transitions = new ArrayList<>();
+        for (var studentExam : studentExams) {
+            int index = Arrays.binarySearch(this.ids, studentExam.id());
+            if (index < 0) {
+                throw new IllegalArgumentException("Unknown student exam " + studentExam.id());
+            }
+
+            byte previous = this.states[index];
+            byte next = state(studentExam.started(), studentExam.submitted());
+            if (previous == next) {
+                continue;
+            }
+            this.states[index] = next;
+
+            if ((previous & STARTED) == 0 && (next & STARTED) != 0) {
+                transitions.add(new StudentExamTransition(
+                        studentExam.id(), this.logins[index], StudentExamTransition.Type.STARTED));
+            }
+            if ((previous & SUBMITTED) == 0 && (next & SUBMITTED) != 0) {
+                transitions.add(new StudentExamTransition(
+                        studentExam.id(), this.logins[index], StudentExamTransition.Type.SUBMITTED));
+            } else if ((previous & SUBMITTED) != 0 && (next & SUBMITTED) == 0) {
+                transitions.add(new StudentExamTransition(
+                        studentExam.id(), this.logins[index], StudentExamTransition.Type.UNSUBMITTED));
+            }
+        }
+        return transitions;
+    }
+
+    int size() {
+        return this.ids.length;
+    }
+
+    int countStarted() {
+        return this.count(STARTED);
+    }
+
+    int countSubmitted() {
+        return this.count(SUBMITTED);
+    }
+
+    private int count(byte flag) {
+        int count = 0;
+        for (byte state : this.states) {
+            if ((state & flag) != 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static byte state(boolean started, boolean submitted) {
+        return (byte) ((started ? STARTED : 0) | (submitted ? SUBMITTED : 0));
+    }
+}
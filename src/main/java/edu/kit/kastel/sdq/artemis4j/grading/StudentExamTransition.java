@@ -0,0 +1,28 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j.grading;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A change of the state of a student exam, observed by a {@link StudentExamMonitor}.
+ *
+ * @param studentExamId the id of the student exam
+ * @param studentLogin  the login of the student the exam belongs to, or null if Artemis didn't include the user
+ * @param type          what changed
+ */
+public record StudentExamTransition(long studentExamId, @Nullable String studentLogin, Type type) {
+    public enum Type {
+        /**
+         * The student started the exam.
+         */
+        STARTED,
+        /**
+         * The exam has been submitted, by the student or by toggling it.
+         */
+        SUBMITTED,
+        /**
+         * The exam is no longer marked as submitted, e.g. because an instructor toggled it back.
+         */
+        UNSUBMITTED
+    }
+}
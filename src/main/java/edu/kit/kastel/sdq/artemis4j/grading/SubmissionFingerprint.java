@@ -0,0 +1,83 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j.grading;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import edu.kit.kastel.sdq.artemis4j.client.ProgrammingSubmissionDTO;
+import edu.kit.kastel.sdq.artemis4j.client.ResultDTO;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * The parts of a submission that an {@link ExerciseWatcher} compares between two polls. Only primitives and the
+ * commit hash are kept, so that watching an exercise with many submissions needs little memory.
+ */
+final class SubmissionFingerprint {
+    private static final long NOT_COMPLETED = Long.MIN_VALUE;
+
+    private final long submissionId;
+    private final @Nullable String commitHash;
+    private final long[] resultIds;
+    private final long[] completionDates;
+
+    private SubmissionFingerprint(
+            long submissionId, @Nullable String commitHash, long[] resultIds, long[] completionDates) {
+        this.submissionId = submissionId;
+        this.commitHash = commitHash;
+        this.resultIds = resultIds;
+        this.completionDates = completionDates;
+    }
+
+    static SubmissionFingerprint of(ProgrammingSubmissionDTO dto) {
+        var results = dto.results() == null
+                ? new ResultDTO[0]
+                : dto.results().stream().filter(Objects::nonNull).toArray(ResultDTO[]::new);
+
+        long[] resultIds = new long[results.length];
+        long[] completionDates = new long[results.length];
+        for (int i = 0; i < results.length; i++) {
+            resultIds[i] = results[i].id();
+            completionDates[i] = results[i].completionDate() == null
+                    ? NOT_COMPLETED
+                    : results[i].completionDate().toInstant().toEpochMilli();
+        }
+        return new SubmissionFingerprint(dto.id(), dto.commitHash(), resultIds, completionDates);
+    }
+
+    boolean hasResult(long resultId) {
+        return this.indexOf(resultId) >= 0;
+    }
+
+    boolean isCompleted(long resultId) {
+        int index = this.indexOf(resultId);
+        return index >= 0 && this.completionDates[index] != NOT_COMPLETED;
+    }
+
+    private int indexOf(long resultId) {
+        for (int i = 0; i < this.resultIds.length; i++) {
+            if (this.resultIds[i] == resultId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SubmissionFingerprint that)) {
+            return false;
+        }
+        return this.submissionId == that.submissionId
+                && Objects.equals(this.commitHash, that.commitHash)
+                && Arrays.equals(this.resultIds, that.resultIds)
+                && Arrays.equals(this.completionDates, that.completionDates);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.submissionId, this.commitHash, Arrays.hashCode(this.resultIds));
+    }
+}
@@ -1,4 +1,4 @@
-/* Licensed under EPL-2.0 2024. */
+/* Licensed under EPL-2.0 2024-2026. */
 package edu.kit.kastel.sdq.artemis4j.grading;
 
 import java.util.ArrayList;
@@ -123,6 +123,12 @@ public class TextAssessment extends ArtemisConnectionHolder {
                 this.resultDTO.id(),
                 feedbacks,
                 textBlocks);
+        this.getConnection()
+                .getAssessmentCounters()
+                .onSubmitted(
+                        this.submission.getExercise(),
+                        CorrectionRound.fromArtemis(this.correctionRound),
+                        this.submission.getId());
     }
 
     /**
@@ -133,5 +139,11 @@ public class TextAssessment extends ArtemisConnectionHolder {
     public void cancel() throws ArtemisNetworkException {
         TextSubmissionDTO.cancelAssessment(
                 this.getConnection().getClient(), this.submission.getId(), this.submission.getParticipationId());
+        this.getConnection()
+                .getAssessmentCounters()
+                .onCancelled(
+                        this.submission.getExercise(),
+                        CorrectionRound.fromArtemis(this.correctionRound),
+                        this.submission.getId());
     }
 }
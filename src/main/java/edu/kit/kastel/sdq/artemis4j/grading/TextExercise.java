@@ -1,4 +1,4 @@
-/* Licensed under EPL-2.0 2024. */
+/* Licensed under EPL-2.0 2024-2026. */
 package edu.kit.kastel.sdq.artemis4j.grading;
 
 import java.time.ZonedDateTime;
@@ -152,6 +152,13 @@ public class TextExercise extends ArtemisConnectionHolder implements Exercise {
                     .formatted(locked.results().size()));
         }
         var result = locked.results().get(0);
+        this.getConnection()
+                .getAssessmentCounters()
+                .onLocked(
+                        this,
+                        CorrectionRound.fromArtemis(correctionRound),
+                        locked.id(),
+                        result.completionDate() != null);
 
         if (this.canAssess(result)) {
             return Optional.empty();
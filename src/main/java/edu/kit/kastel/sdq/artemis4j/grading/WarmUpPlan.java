@@ -0,0 +1,55 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j.grading;
+
+import java.util.Set;
+
+/**
+ * Describes what {@link ArtemisConnection#warmUp(WarmUpPlan)} should fetch.
+ *
+ * @param courseIds             the courses for which exercises and exams should be fetched, empty for all courses
+ * @param includeExercises      whether the exercises of the selected courses should be fetched
+ * @param includeExams          whether the exams of the selected courses should be fetched
+ * @param includeManagementInfo whether the management info should be fetched
+ * @param parallelism           the maximum number of concurrent per-course requests, must be at least 1
+ */
+public record WarmUpPlan(
+        Set<Long> courseIds,
+        boolean includeExercises,
+        boolean includeExams,
+        boolean includeManagementInfo,
+        int parallelism) {
+    private static final int DEFAULT_PARALLELISM = 8;
+
+    public WarmUpPlan {
+        courseIds = Set.copyOf(courseIds);
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1, but was " + parallelism);
+        }
+    }
+
+    /**
+     * Fetches everything for all courses of the user.
+     */
+    public static WarmUpPlan everything() {
+        return new WarmUpPlan(Set.of(), true, true, true, DEFAULT_PARALLELISM);
+    }
+
+    /**
+     * Fetches everything, but only resolves exercises and exams of the given courses.
+     */
+    public static WarmUpPlan forCourses(Set<Long> courseIds) {
+        return new WarmUpPlan(courseIds, true, true, true, DEFAULT_PARALLELISM);
+    }
+
+    public WarmUpPlan withoutExams() {
+        return new WarmUpPlan(courseIds, includeExercises, false, includeManagementInfo, parallelism);
+    }
+
+    public WarmUpPlan withParallelism(int parallelism) {
+        return new WarmUpPlan(courseIds, includeExercises, includeExams, includeManagementInfo, parallelism);
+    }
+
+    boolean isSelected(Course course) {
+        return this.courseIds.isEmpty() || this.courseIds.contains(course.getId());
+    }
+}
@@ -0,0 +1,41 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j.grading;
+
+import java.time.Duration;
+import java.util.List;
+
+import edu.kit.kastel.sdq.artemis4j.ArtemisNetworkException;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * The result of {@link ArtemisConnection#warmUp(WarmUpPlan)}.
+ *
+ * @param steps the individual steps, in the order in which they were started
+ * @param total the wall-clock time of the whole warm-up
+ */
+public record WarmUpReport(List<Step> steps, Duration total) {
+    public WarmUpReport {
+        steps = List.copyOf(steps);
+    }
+
+    public boolean isSuccessful() {
+        return this.steps.stream().allMatch(Step::isSuccessful);
+    }
+
+    public List<Step> failedSteps() {
+        return this.steps.stream().filter(step -> !step.isSuccessful()).toList();
+    }
+
+    /**
+     * A single request (or group of dependent requests) of the warm-up.
+     *
+     * @param name     a human-readable name, e.g. "course 42 exercises"
+     * @param duration how long the step took
+     * @param failure  the exception if the step failed, otherwise null
+     */
+    public record Step(String name, Duration duration, @Nullable ArtemisNetworkException failure) {
+        public boolean isSuccessful() {
+            return this.failure == null;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j.grading;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import edu.kit.kastel.sdq.artemis4j.ArtemisNetworkException;
+import edu.kit.kastel.sdq.artemis4j.client.ResultDTO;
+import edu.kit.kastel.sdq.artemis4j.grading.metajson.AnnotationMappingException;
+import edu.kit.kastel.sdq.artemis4j.grading.penalty.GradingConfig;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Distributes the submissions of an exercise among a team of tutors according to their quotas, instead of handing
+ * them out first come, first served like {@link ProgrammingExercise#tryLockNextSubmission(CorrectionRound,
+ * GradingConfig)}.
+ * <p>
+ * {@link #refresh()} fetches all submissions of the exercise (which requires at least editor rights) and plans every
+ * submission that still has to be assessed for one of the tutors: the one with the lowest load relative to their
+ * quota, where the load counts the assessments a tutor has already started or finished in Artemis. Second round
+ * assessments are planned first, and never for the tutor who did the first round. Submissions that exceed all quotas
+ * are handed out to tutors who are done with their share.
+ * <p>
+ * Tutors get their next submission from {@link #lockNext(ProgrammingExercise, GradingConfig)}, which locks it via
+ * {@link ProgrammingExercise#tryLockSubmission(long, CorrectionRound, GradingConfig)} on the tutor's own connection.
+ * Submissions planned for a tutor who doesn't show up are only redistributed when the tutor's quota is lowered or the
+ * tutor is removed. Call {@link #refresh()} regularly to pick up new submissions and assessments that have been
+ * cancelled.
+ * <p>
+ * All methods are thread-safe.
+ */
+public final class WorkDistributor {
+    private static final Logger log = LoggerFactory.getLogger(WorkDistributor.class);
+
+    private final ProgrammingExercise exercise;
+    private final WorkPlan plan = new WorkPlan();
+
+    public WorkDistributor(ProgrammingExercise exercise) {
+        this.exercise = exercise;
+    }
+
+    /**
+     * Adds a tutor, or changes the quota of a tutor. Open submissions are planned again.
+     *
+     * @param quota the number of assessments (of both correction rounds) the tutor should do for this exercise
+     */
+    public void setQuota(User tutor, int quota) {
+        this.plan.setQuota(tutor.getUserIdentifier(), quota);
+    }
+
+    /**
+     * Removes a tutor, and plans their open submissions for the other tutors.
+     *
+     * @return false if the user is not a tutor of this distribution
+     */
+    public boolean removeTutor(User tutor) {
+        return this.plan.removeTutor(tutor.getUserIdentifier());
+    }
+
+    /**
+     * Fetches all submissions of the exercise, and plans the open ones again.
+     */
+    public void refresh() throws ArtemisNetworkException {
+        Instant fetchStarted = Instant.now();
+        boolean secondRound = this.exercise.hasSecondCorrectionRound();
+
+        List<WorkPlan.WorkItem> open = new ArrayList<>();
+        Map<UserIdentifier, Integer> assessed = new HashMap<>();
+        for (var submission : this.exercise.fetchAllSubmissions()) {
+            long submissionId = submission.getSubmission().getId();
+            var firstRound = submission.getFirstRoundAssessment();
+            var firstAssessor = firstRound == null ? null : assessor(firstRound.result());
+            countAssessment(assessed, firstAssessor);
+
+            var secondRoundAssessment = submission.getSecondRoundAssessment();
+            if (secondRoundAssessment != null) {
+                countAssessment(assessed, assessor(secondRoundAssessment.result()));
+            }
+
+            if (!submission.isFirstRoundStarted()) {
+                open.add(new WorkPlan.WorkItem(submissionId, CorrectionRound.FIRST, null));
+            } else if (secondRound && submission.isFirstRoundFinished() && !submission.isSecondRoundStarted()) {
+                open.add(new WorkPlan.WorkItem(submissionId, CorrectionRound.SECOND, firstAssessor));
+            }
+        }
+
+        this.plan.update(open, assessed, fetchStarted);
+        log.debug("Planned {} open submissions of exercise {}", open.size(), this.exercise.getId());
+    }
+
+    /**
+     * Hands out the next submission the tutor should assess, without locking it. The tutor should lock it right away
+     * via {@link ProgrammingExercise#tryLockSubmission(long, CorrectionRound, GradingConfig)}, otherwise it may be
+     * handed out again after the next {@link #refresh()}.
+     *
+     * @return the next submission, or an empty optional if there is no work left for the tutor
+     * @throws IllegalArgumentException if the user is not a tutor of this distribution
+     */
+    public Optional<Assignment> next(User tutor) {
+        return this.plan
+                .next(tutor.getUserIdentifier())
+                .map(item -> new Assignment(item.submissionId(), item.correctionRound()));
+    }
+
+    /**
+     * Locks the next submission of the tutor who owns the connection of the given exercise. Submissions that can't be
+     * locked anymore (e.g. because someone else was faster) are skipped.
+     *
+     * @param tutorExercise this exercise, fetched via the tutor's connection
+     * @return the locked assessment, or an empty optional if there is no work left for the tutor
+     * @throws IllegalArgumentException if the tutor is not part of this distribution
+     */
+    public Optional<Assessment> lockNext(ProgrammingExercise tutorExercise, GradingConfig config)
+            throws ArtemisNetworkException, AnnotationMappingException {
+        if (tutorExercise.getId() != this.exercise.getId()) {
+            throw new IllegalArgumentException("Expected exercise %d, but got exercise %d"
+                    .formatted(this.exercise.getId(), tutorExercise.getId()));
+        }
+
+        var tutor = tutorExercise.getConnection().getAssessor();
+        while (true) {
+            var assignment = this.next(tutor);
+            if (assignment.isEmpty()) {
+                return Optional.empty();
+            }
+
+            long submissionId = assignment.get().submissionId();
+            try {
+                var assessment =
+                        tutorExercise.tryLockSubmission(submissionId, assignment.get().correctionRound(), config);
+                if (assessment.isPresent()) {
+                    return assessment;
+                }
+                log.info("Submission {} has been locked by someone else, skipping it", submissionId);
+            } catch (MoreRecentSubmissionException e) {
+                // The newer submission is planned with the next refresh
+                log.info("Submission {} has been replaced by a newer submission, skipping it", submissionId);
+            }
+        }
+    }
+
+    /**
+     * @return the load and plan of every tutor, in the order they were added
+     */
+    public List<TutorStatus> getStatus() {
+        return this.plan.getStatus();
+    }
+
+    /**
+     * @return the number of open submissions that exceed the quotas of all tutors
+     */
+    public int getUnassignedCount() {
+        return this.plan.getUnassignedCount();
+    }
+
+    private static @Nullable UserIdentifier assessor(ResultDTO result) {
+        return result.assessor() == null ? null : new User(result.assessor()).getUserIdentifier();
+    }
+
+    private static void countAssessment(Map<UserIdentifier, Integer> assessed, @Nullable UserIdentifier assessor) {
+        if (assessor != null) {
+            assessed.merge(assessor, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * A submission handed out to a tutor.
+     */
+    public record Assignment(long submissionId, CorrectionRound correctionRound) {}
+
+    /**
+     * @param load    the number of assessments the tutor has started, finished, or been handed out
+     * @param planned the number of submissions that are planned for the tutor
+     */
+    public record TutorStatus(UserIdentifier tutor, int quota, int load, int planned) {}
+}
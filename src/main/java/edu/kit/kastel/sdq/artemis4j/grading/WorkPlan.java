@@ -0,0 +1,192 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j.grading;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * The state of a {@link WorkDistributor}, without any network access.
+ * <p>
+ * Every open work item is planned for the tutor with the lowest relative load (the number of their assessments,
+ * handed out and planned items divided by their quota) who still has room in their quota and doesn't conflict with
+ * the item. Second round items are planned first, so that they don't wait for the first round to be done. Items that
+ * don't fit into any quota are handed out to tutors whose plan is empty.
+ * <p>
+ * All methods are thread-safe.
+ */
+final class WorkPlan {
+    // All following fields are guarded by this
+    private final Map<UserIdentifier, Tutor> tutors = new LinkedHashMap<>();
+    private final List<WorkItem> unassigned = new LinkedList<>();
+    // Items that have been handed out, but might not be locked in Artemis yet, by submission id
+    private final Map<Long, HandedOut> handedOut = new HashMap<>();
+    private List<WorkItem> open = List.of();
+    private Map<UserIdentifier, Integer> assessed = Map.of();
+
+    synchronized void setQuota(UserIdentifier tutor, int quota) {
+        if (quota < 0) {
+            throw new IllegalArgumentException("The quota must not be negative, but was " + quota);
+        }
+
+        this.tutors.computeIfAbsent(tutor, t -> new Tutor()).quota = quota;
+        this.replan();
+    }
+
+    synchronized boolean removeTutor(UserIdentifier tutor) {
+        if (this.tutors.remove(tutor) == null) {
+            return false;
+        }
+        this.replan();
+        return true;
+    }
+
+    /**
+     * Replaces the known state of the exercise and plans all open items again.
+     *
+     * @param open         the items that haven't been started in Artemis, in the order they should be worked on
+     * @param assessed     the number of started or finished assessments per assessor
+     * @param fetchStarted when fetching the state started. Items handed out before are expected to be part of it.
+     */
+    synchronized void update(List<WorkItem> open, Map<UserIdentifier, Integer> assessed, Instant fetchStarted) {
+        Map<Long, WorkItem> openById = new HashMap<>();
+        for (var item : open) {
+            openById.put(item.submissionId(), item);
+        }
+        // Handed out items that have been locked since show up as assessed, and the others have probably been given up
+        this.handedOut
+                .entrySet()
+                .removeIf(entry -> entry.getValue().at().isBefore(fetchStarted)
+                        || !openById.containsKey(entry.getKey()));
+
+        this.open = List.copyOf(open);
+        this.assessed = Map.copyOf(assessed);
+        this.replan();
+    }
+
+    /**
+     * Hands out the next item of the tutor's plan, or an unassigned one if the plan is empty.
+     */
+    synchronized Optional<WorkItem> next(UserIdentifier tutor) {
+        var state = this.tutors.get(tutor);
+        if (state == null) {
+            throw new IllegalArgumentException("%s is not a tutor of this distribution".formatted(tutor));
+        }
+
+        WorkItem item = state.planned.isEmpty() ? null : state.planned.removeFirst();
+        if (item == null) {
+            item = takeFirstAllowed(this.unassigned, tutor);
+        }
+        if (item == null) {
+            return Optional.empty();
+        }
+
+        this.handedOut.put(item.submissionId(), new HandedOut(tutor, Instant.now()));
+        state.handedOut++;
+        return Optional.of(item);
+    }
+
+    synchronized List<WorkDistributor.TutorStatus> getStatus() {
+        List<WorkDistributor.TutorStatus> status = new ArrayList<>(this.tutors.size());
+        for (var entry : this.tutors.entrySet()) {
+            var state = entry.getValue();
+            status.add(new WorkDistributor.TutorStatus(
+                    entry.getKey(), state.quota, state.assessed + state.handedOut, state.planned.size()));
+        }
+        return status;
+    }
+
+    synchronized int getUnassignedCount() {
+        return this.unassigned.size();
+    }
+
+    private void replan() {
+        for (var entry : this.tutors.entrySet()) {
+            var state = entry.getValue();
+            state.assessed = this.assessed.getOrDefault(entry.getKey(), 0);
+            state.handedOut = 0;
+            state.planned.clear();
+        }
+        for (var handed : this.handedOut.values()) {
+            var state = this.tutors.get(handed.tutor());
+            if (state != null) {
+                state.handedOut++;
+            }
+        }
+
+        List<WorkItem> items = new ArrayList<>(this.open.size());
+        for (var item : this.open) {
+            if (!this.handedOut.containsKey(item.submissionId())) {
+                items.add(item);
+            }
+        }
+        // Stable, so that the order within a round is kept
+        items.sort((a, b) -> Boolean.compare(
+                a.correctionRound() != CorrectionRound.SECOND, b.correctionRound() != CorrectionRound.SECOND));
+
+        this.unassigned.clear();
+        for (var item : items) {
+            var tutor = this.findLeastLoaded(item);
+            if (tutor == null) {
+                this.unassigned.add(item);
+            } else {
+                tutor.planned.add(item);
+            }
+        }
+    }
+
+    private @Nullable Tutor findLeastLoaded(WorkItem item) {
+        Tutor best = null;
+        for (var entry : this.tutors.entrySet()) {
+            var candidate = entry.getValue();
+            if (candidate.load() >= candidate.quota || entry.getKey().equals(item.excludedTutor())) {
+                continue;
+            }
+            // Compares load / quota without rounding, the quotas are positive here
+            if (best == null || (long) candidate.load() * best.quota < (long) best.load() * candidate.quota) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    private static @Nullable WorkItem takeFirstAllowed(List<WorkItem> items, UserIdentifier tutor) {
+        Iterator<WorkItem> iterator = items.iterator();
+        while (iterator.hasNext()) {
+            var item = iterator.next();
+            if (!tutor.equals(item.excludedTutor())) {
+                iterator.remove();
+                return item;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * A submission that still has to be assessed in a correction round.
+     *
+     * @param excludedTutor the tutor who must not assess it, e.g. because they did the first round
+     */
+    record WorkItem(long submissionId, CorrectionRound correctionRound, @Nullable UserIdentifier excludedTutor) {}
+
+    private record HandedOut(UserIdentifier tutor, Instant at) {}
+
+    private static final class Tutor {
+        private int quota;
+        private int assessed;
+        private int handedOut;
+        private final LinkedList<WorkItem> planned = new LinkedList<>();
+
+        private int load() {
+            return this.assessed + this.handedOut + this.planned.size();
+        }
+    }
+}
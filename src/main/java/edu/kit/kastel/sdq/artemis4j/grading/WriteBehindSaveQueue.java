@@ -0,0 +1,292 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j.grading;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import edu.kit.kastel.sdq.artemis4j.ArtemisNetworkException;
+import edu.kit.kastel.sdq.artemis4j.grading.metajson.AnnotationMappingException;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Saves assessments in the background, so that the caller doesn't have to wait for Artemis.
+ * <p>
+ * {@link #enqueue(Assessment)} returns immediately with a future that completes once a save that includes all
+ * changes made before the call has reached Artemis. Requests for an assessment whose save hasn't started yet are
+ * merged: they share a single save, which packs the assessment in the state it has when the save starts. If a save of
+ * the assessment is already running, another one is queued after it.
+ * <p>
+ * At most {@code parallelism} saves run at a time, each one on a virtual thread. Saves that fail with a transient
+ * {@link ArtemisNetworkException} (no response at all, or a 408, 429 or 5xx status) are retried with an exponentially
+ * growing delay. While a save waits for its retry, its worker continues with other saves. Other failures (e.g. a 4xx
+ * status or an {@link AnnotationMappingException}) are not retried. Either way, the future completes exceptionally once
+ * the save is given up.
+ * <p>
+ * To submit an assessment, wait for its last future first, so that the submit doesn't overtake a pending save.
+ * {@link #close()} waits until all queued saves are done.
+ */
+public final class WriteBehindSaveQueue implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindSaveQueue.class);
+
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+    public static final Duration DEFAULT_RETRY_DELAY = Duration.ofSeconds(1);
+
+    private final int maxAttempts;
+    private final Duration retryDelay;
+    private final ExecutorService workers;
+    private final ScheduledExecutorService retryScheduler;
+
+    private final ReentrantLock stateLock = new ReentrantLock();
+    private final Condition stateChanged = this.stateLock.newCondition();
+    // The following fields are guarded by stateLock
+    private final Map<Assessment, Slot> slots = new IdentityHashMap<>();
+    private final Deque<Assessment> ready = new ArrayDeque<>();
+    private int waitingForRetry = 0;
+    private boolean closed = false;
+
+    public WriteBehindSaveQueue(int parallelism) {
+        this(parallelism, DEFAULT_MAX_ATTEMPTS, DEFAULT_RETRY_DELAY);
+    }
+
+    /**
+     * @param parallelism the maximum number of saves that run at the same time
+     * @param maxAttempts the maximum number of attempts per save, including the first one
+     * @param retryDelay  the delay before the first retry, doubled for every further retry
+     */
+    public WriteBehindSaveQueue(int parallelism, int maxAttempts, Duration retryDelay) {
+        if (parallelism < 1 || maxAttempts < 1) {
+            throw new IllegalArgumentException(
+                    "parallelism (%d) and maxAttempts (%d) must be positive".formatted(parallelism, maxAttempts));
+        }
+
+        this.maxAttempts = maxAttempts;
+        this.retryDelay = retryDelay;
+        this.workers = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("artemis-save-queue-", 0).factory());
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofVirtual().name("artemis-save-queue-retry").factory());
+        for (int i = 0; i < parallelism; i++) {
+            this.workers.execute(this::work);
+        }
+    }
+
+    /**
+     * Queues a save of the assessment.
+     *
+     * @return a future that completes once all changes made before this call have been saved, or completes
+     *     exceptionally if the save failed
+     */
+    public CompletableFuture<Void> enqueue(Assessment assessment) {
+        this.stateLock.lock();
+        try {
+            if (this.closed) {
+                throw new IllegalStateException("The save queue has been closed");
+            }
+
+            var slot = this.slots.computeIfAbsent(assessment, a -> new Slot());
+            if (slot.queued == null) {
+                slot.queued = new CompletableFuture<>();
+                if (slot.current == null) {
+                    this.ready.addLast(assessment);
+                    this.stateChanged.signalAll();
+                }
+            }
+            return slot.queued;
+        } finally {
+            this.stateLock.unlock();
+        }
+    }
+
+    /**
+     * @return a future that completes once all saves that are currently queued or running are done, regardless of
+     *     whether they succeeded
+     */
+    public CompletableFuture<Void> flush() {
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        this.stateLock.lock();
+        try {
+            for (var slot : this.slots.values()) {
+                if (slot.queued != null) {
+                    futures.add(slot.queued);
+                } else if (slot.current != null) {
+                    futures.add(slot.current);
+                }
+            }
+        } finally {
+            this.stateLock.unlock();
+        }
+
+        List<CompletableFuture<Void>> settled = new ArrayList<>(futures.size());
+        for (var future : futures) {
+            settled.add(future.exceptionally(e -> null));
+        }
+        return CompletableFuture.allOf(settled.toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * @return the number of assessments with a queued or running save
+     */
+    public int getPendingCount() {
+        this.stateLock.lock();
+        try {
+            return this.slots.size();
+        } finally {
+            this.stateLock.unlock();
+        }
+    }
+
+    /**
+     * Stops accepting saves, and waits until all queued saves are done, including their retries.
+     */
+    @Override
+    public void close() {
+        this.stateLock.lock();
+        try {
+            if (this.closed) {
+                return;
+            }
+            this.closed = true;
+            this.stateChanged.signalAll();
+        } finally {
+            this.stateLock.unlock();
+        }
+
+        this.workers.close();
+        this.retryScheduler.close();
+    }
+
+    private void work() {
+        while (true) {
+            Assessment assessment;
+            CompletableFuture<Void> future;
+            int attempt;
+            this.stateLock.lock();
+            try {
+                // Retries that are still waiting will become ready later
+                while (this.ready.isEmpty() && !(this.closed && this.waitingForRetry == 0)) {
+                    this.stateChanged.awaitUninterruptibly();
+                }
+                if (this.ready.isEmpty()) {
+                    return;
+                }
+
+                assessment = this.ready.pollFirst();
+                var slot = this.slots.get(assessment);
+                if (slot.current == null) {
+                    slot.current = slot.queued;
+                    slot.queued = null;
+                    slot.attempts = 0;
+                }
+                future = slot.current;
+                attempt = ++slot.attempts;
+            } finally {
+                this.stateLock.unlock();
+            }
+
+            var failure = this.save(assessment, attempt);
+            if (failure != null && attempt < this.maxAttempts && isTransient(failure)) {
+                this.scheduleRetry(assessment, attempt);
+                continue;
+            }
+
+            this.stateLock.lock();
+            try {
+                var slot = this.slots.get(assessment);
+                slot.current = null;
+                if (slot.queued != null) {
+                    this.ready.addLast(assessment);
+                    this.stateChanged.signalAll();
+                } else {
+                    this.slots.remove(assessment);
+                }
+            } finally {
+                this.stateLock.unlock();
+            }
+
+            if (failure == null) {
+                future.complete(null);
+            } else {
+                future.completeExceptionally(failure);
+            }
+        }
+    }
+
+    /**
+     * @return the exception the save failed with, or null if it succeeded
+     */
+    private @Nullable Exception save(Assessment assessment, int attempt) {
+        long submissionId = assessment.getSubmission().getId();
+        try {
+            assessment.save();
+            return null;
+        } catch (ArtemisNetworkException e) {
+            if (attempt < this.maxAttempts && isTransient(e)) {
+                log.info(
+                        "Failed to save the assessment of submission {}, retrying (attempt {})", submissionId, attempt);
+            } else {
+                log.warn("Giving up saving the assessment of submission {}", submissionId, e);
+            }
+            return e;
+        } catch (AnnotationMappingException | RuntimeException e) {
+            log.warn("Failed to save the assessment of submission {}", submissionId, e);
+            return e;
+        }
+    }
+
+    /**
+     * Puts the assessment back into the ready queue after the delay of the attempt, without blocking a worker.
+     */
+    private void scheduleRetry(Assessment assessment, int attempt) {
+        this.stateLock.lock();
+        try {
+            this.waitingForRetry++;
+        } finally {
+            this.stateLock.unlock();
+        }
+
+        long delay = this.retryDelay.toNanos() << Math.min(attempt - 1, 30);
+        this.retryScheduler.schedule(
+                () -> {
+                    this.stateLock.lock();
+                    try {
+                        this.waitingForRetry--;
+                        this.ready.addLast(assessment);
+                        this.stateChanged.signalAll();
+                    } finally {
+                        this.stateLock.unlock();
+                    }
+                },
+                delay,
+                TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return true if the failure might go away by itself, i.e. Artemis couldn't be reached or is overloaded
+     */
+    private static boolean isTransient(Exception failure) {
+        return failure instanceof ArtemisNetworkException networkException && networkException.isTransient();
+    }
+
+    private static final class Slot {
+        // The future of the save that hasn't started yet, shared by all requests since the last save started
+        private @Nullable CompletableFuture<Void> queued;
+        // The future of the running save (or the one waiting for its retry), or null if none is running
+        private @Nullable CompletableFuture<Void> current;
+        // The number of attempts of the current save
+        private int attempts;
+    }
+}
@@ -0,0 +1,63 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j.grading.scenario;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.kit.kastel.sdq.artemis4j.client.CourseCreateDTO;
+import edu.kit.kastel.sdq.artemis4j.client.ProgrammingExerciseCreateDTO;
+import edu.kit.kastel.sdq.artemis4j.client.UserCreateDTO;
+
+/**
+ * Describes an environment (courses with users and programming exercises) that is provisioned by a
+ * {@link ScenarioSeeder}, e.g. for load tests.
+ *
+ * @param courses the courses to create
+ */
+public record Scenario(List<CourseSpec> courses) {
+    public Scenario {
+        courses = List.copyOf(courses);
+    }
+
+    /**
+     * @param course    the course to create
+     * @param students  the users to create and assign as students
+     * @param tutors    the users to create and assign as tutors
+     * @param exercises the programming exercises to create in the course
+     */
+    public record CourseSpec(
+            CourseCreateDTO course,
+            List<UserCreateDTO> students,
+            List<UserCreateDTO> tutors,
+            List<ExerciseSpec> exercises) {
+        public CourseSpec {
+            students = List.copyOf(students);
+            tutors = List.copyOf(tutors);
+            exercises = List.copyOf(exercises);
+        }
+
+        /**
+         * Generates the given number of users with logins of the form {@code <loginPrefix><number>}.
+         *
+         * @param loginPrefix the prefix of the logins, should be unique per scenario
+         * @param count       the number of users
+         * @param password    the password of all users, required to start participations
+         */
+        public static List<UserCreateDTO> generateUsers(String loginPrefix, int count, String password) {
+            List<UserCreateDTO> users = new ArrayList<>(count);
+            for (int i = 1; i <= count; i++) {
+                String login = loginPrefix + i;
+                users.add(new UserCreateDTO(login, "Load", "Test " + i, login + "@example.com", password, "en"));
+            }
+            return users;
+        }
+    }
+
+    /**
+     * @param exercise            the exercise to create, the course is set by the seeder
+     * @param emptyRepositories   whether to create the exercise with empty repositories instead of a template
+     * @param startParticipations whether every student of the course should start a participation
+     */
+    public record ExerciseSpec(
+            ProgrammingExerciseCreateDTO exercise, boolean emptyRepositories, boolean startParticipations) {}
+}
@@ -0,0 +1,257 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j.grading.scenario;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+
+import edu.kit.kastel.sdq.artemis4j.ArtemisClientException;
+import edu.kit.kastel.sdq.artemis4j.ArtemisNetworkException;
+import edu.kit.kastel.sdq.artemis4j.ParallelTasks;
+import edu.kit.kastel.sdq.artemis4j.RateLimiter;
+import edu.kit.kastel.sdq.artemis4j.client.CourseRole;
+import edu.kit.kastel.sdq.artemis4j.client.ParticipationDTO;
+import edu.kit.kastel.sdq.artemis4j.client.ProgrammingExerciseDTO;
+import edu.kit.kastel.sdq.artemis4j.client.UserCreateDTO;
+import edu.kit.kastel.sdq.artemis4j.grading.ArtemisConnection;
+import edu.kit.kastel.sdq.artemis4j.grading.ArtemisConnectionPool;
+import edu.kit.kastel.sdq.artemis4j.grading.BulkOperationReport;
+import edu.kit.kastel.sdq.artemis4j.grading.Course;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Provisions a {@link Scenario} (courses, users, programming exercises and participations) concurrently, e.g. to
+ * set up an environment for load tests. Note that this requires admin permissions.
+ * <p>
+ * The seeder only talks to Artemis via its REST API, so it works against a real Artemis as well as against a local
+ * stand-in server that implements the used endpoints (see {@link edu.kit.kastel.sdq.artemis4j.client.ArtemisInstance}
+ * for plain http URLs).
+ * <p>
+ * Users, courses, exercises and participations are seeded concurrently, but all requests of one
+ * {@link #seed(Scenario)} share the same bound of {@code parallelism} concurrent requests and the same
+ * {@link RateLimiter}, including the user creations, the role assignments and the logins of the students. Only the
+ * lookups of existing users and course members are sent outside the bound.
+ */
+public final class ScenarioSeeder {
+    private static final Logger log = LoggerFactory.getLogger(ScenarioSeeder.class);
+
+    private final ArtemisConnection adminConnection;
+    private final int parallelism;
+    private final RateLimiter rateLimiter;
+
+    /**
+     * @param adminConnection a connection of an admin
+     * @param parallelism     the maximum number of concurrent requests
+     * @param rateLimiter     limits the number of requests that create or change something
+     */
+    public ScenarioSeeder(ArtemisConnection adminConnection, int parallelism, RateLimiter rateLimiter) {
+        this.adminConnection = adminConnection;
+        this.parallelism = parallelism;
+        this.rateLimiter = rateLimiter;
+    }
+
+    /**
+     * Creates everything described by the scenario. Users that already exist are reused (but not torn down later).
+     *
+     * @return the ids of everything that has been created
+     * @throws ScenarioSeedingException if anything failed, containing everything that has been created so far
+     */
+    public SeededScenario seed(Scenario scenario) throws ScenarioSeedingException {
+        var recorder = new Recorder();
+        // Shared by all nesting levels, so that the courses, exercises and students don't multiply the parallelism
+        var requests = new Semaphore(this.parallelism, true);
+        // Students log in once, even if they start participations in several exercises
+        try (var studentConnections = new ArtemisConnectionPool(this.adminConnection.getClient().getInstance())) {
+            this.createUsers(scenario, recorder, requests);
+
+            ParallelTasks.map(scenario.courses(), this.parallelism, spec -> {
+                this.seedCourse(spec, studentConnections, recorder, requests);
+                return null;
+            });
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new ScenarioSeedingException("Failed to seed the scenario", e, recorder.toScenario());
+        }
+
+        var seeded = recorder.toScenario();
+        log.info(
+                "Seeded {} courses, {} exercises, {} users and {} participations",
+                seeded.courseIds().size(),
+                seeded.exerciseIds().size(),
+                seeded.userLogins().size(),
+                seeded.participationIds().size());
+        return seeded;
+    }
+
+    /**
+     * Deletes everything that has been created by {@link #seed(Scenario)}. Exercises are deleted including their
+     * base repositories and build plans.
+     *
+     * @throws ArtemisNetworkException the first failure, after trying to delete everything else
+     */
+    public void teardown(SeededScenario scenario) throws ArtemisNetworkException {
+        ArtemisNetworkException failure = null;
+
+        // The exercises are deleted separately to get rid of the build plans and repositories
+        var exercises = ParallelTasks.mapSettled(scenario.exerciseIds(), this.parallelism, exerciseId -> {
+            this.rateLimiter.acquire();
+            ProgrammingExerciseDTO.delete(this.adminConnection.getClient(), exerciseId, true);
+            return null;
+        });
+        failure = firstFailure(failure, exercises);
+
+        var courses = ParallelTasks.mapSettled(scenario.courseIds(), this.parallelism, courseId -> {
+            this.rateLimiter.acquire();
+            this.adminConnection.deleteCourse(courseId);
+            return null;
+        });
+        failure = firstFailure(failure, courses);
+
+        var users = this.adminConnection.deleteUsers(scenario.userLogins(), this.parallelism, this.rateLimiter);
+        if (failure == null && !users.isSuccessful()) {
+            failure = new ArtemisNetworkException(
+                    "Failed to delete users " + users.failed().stream().map(BulkOperationReport.Item::key).toList());
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void createUsers(Scenario scenario, Recorder recorder, Semaphore requests) throws ArtemisClientException {
+        List<UserCreateDTO> users = new ArrayList<>();
+        for (var course : scenario.courses()) {
+            users.addAll(course.students());
+            users.addAll(course.tutors());
+        }
+
+        var report = this.adminConnection.createUsers(users, requests, this.rateLimiter);
+        for (var item : report.applied()) {
+            recorder.userLogins.add(item.key());
+        }
+        if (!report.isSuccessful()) {
+            throw new ArtemisClientException("Failed to create users", report.failed().getFirst().failure());
+        }
+    }
+
+    private void seedCourse(
+            Scenario.CourseSpec spec, ArtemisConnectionPool studentConnections, Recorder recorder, Semaphore requests)
+            throws Exception {
+        Course course = this.send(requests, () -> this.adminConnection.createCourse(spec.course()));
+        recorder.courseIds.add(course.getId());
+
+        Map<String, CourseRole> roles = new LinkedHashMap<>();
+        for (var student : spec.students()) {
+            roles.put(student.login(), CourseRole.STUDENT);
+        }
+        for (var tutor : spec.tutors()) {
+            roles.put(tutor.login(), CourseRole.TUTOR);
+        }
+        // Each assign request takes its own permit, so the assignments of all courses share the bound
+        var assignments = course.assignUsers(roles, requests, this.rateLimiter);
+        if (!assignments.isSuccessful()) {
+            throw new ArtemisClientException(
+                    "Failed to assign users to course " + course.getId(), assignments.failed().getFirst().failure());
+        }
+
+        ParallelTasks.map(spec.exercises(), this.parallelism, exerciseSpec -> {
+            var exercise = this.send(
+                    requests,
+                    () -> course.createProgrammingExercise(exerciseSpec.exercise(), exerciseSpec.emptyRepositories()));
+            recorder.exerciseIds.add(exercise.getId());
+
+            if (exerciseSpec.startParticipations()) {
+                this.startParticipations(exercise.getId(), spec.students(), studentConnections, recorder, requests);
+            }
+            return null;
+        });
+    }
+
+    private void startParticipations(
+            long exerciseId,
+            List<UserCreateDTO> students,
+            ArtemisConnectionPool studentConnections,
+            Recorder recorder,
+            Semaphore requests)
+            throws Exception {
+        ParallelTasks.map(students, this.parallelism, student -> {
+            if (student.password() == null) {
+                throw new IllegalArgumentException(
+                        "Student %s needs a password to start a participation".formatted(student.login()));
+            }
+
+            // Only logging in sends a request, students who already participate in another exercise are reused
+            var connection = studentConnections.get(student.login()).orElse(null);
+            if (connection == null) {
+                String password = student.password();
+                connection = this.send(
+                        requests, () -> studentConnections.connectWithUsernamePassword(student.login(), password));
+            }
+            var client = connection.getClient();
+            var participation = this.send(requests, () -> ParticipationDTO.startExercise(client, exerciseId));
+            recorder.participationIds.add(participation.id());
+            return null;
+        });
+    }
+
+    /**
+     * Sends a request once the shared bound and the rate limiter permit it. Nested tasks must not be started while
+     * holding a permit, otherwise the seeding could deadlock.
+     */
+    private <T, E extends Exception> T send(Semaphore requests, Request<T, E> request)
+            throws E, InterruptedException {
+        requests.acquire();
+        try {
+            this.rateLimiter.acquire();
+            return request.send();
+        } finally {
+            requests.release();
+        }
+    }
+
+    private static @Nullable ArtemisNetworkException firstFailure(
+            @Nullable ArtemisNetworkException failure, List<ParallelTasks.Outcome<Object>> outcomes) {
+        if (failure != null) {
+            return failure;
+        }
+        for (var outcome : outcomes) {
+            if (!outcome.isSuccessful()) {
+                return outcome.failure() instanceof ArtemisNetworkException networkException
+                        ? networkException
+                        : new ArtemisNetworkException(outcome.failure());
+            }
+        }
+        return null;
+    }
+
+    @FunctionalInterface
+    private interface Request<T, E extends Exception> {
+        T send() throws E;
+    }
+
+    /**
+     * Collects the ids of created entities from concurrent tasks.
+     */
+    private static final class Recorder {
+        private final Queue<Long> courseIds = new ConcurrentLinkedQueue<>();
+        private final Queue<Long> exerciseIds = new ConcurrentLinkedQueue<>();
+        private final Queue<String> userLogins = new ConcurrentLinkedQueue<>();
+        private final Queue<Long> participationIds = new ConcurrentLinkedQueue<>();
+
+        private SeededScenario toScenario() {
+            return new SeededScenario(
+                    List.copyOf(this.courseIds),
+                    List.copyOf(this.exerciseIds),
+                    List.copyOf(this.userLogins),
+                    List.copyOf(this.participationIds));
+        }
+    }
+}
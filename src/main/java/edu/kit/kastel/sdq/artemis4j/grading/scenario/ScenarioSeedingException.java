@@ -0,0 +1,21 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j.grading.scenario;
+
+import edu.kit.kastel.sdq.artemis4j.ArtemisClientException;
+
+/**
+ * Thrown if seeding a scenario failed part-way. Everything that has been created so far is available via
+ * {@link #getPartialScenario()}, so it can be torn down.
+ */
+public class ScenarioSeedingException extends ArtemisClientException {
+    private final transient SeededScenario partialScenario;
+
+    public ScenarioSeedingException(String message, Throwable cause, SeededScenario partialScenario) {
+        super(message, cause);
+        this.partialScenario = partialScenario;
+    }
+
+    public SeededScenario getPartialScenario() {
+        return partialScenario;
+    }
+}
@@ -0,0 +1,23 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j.grading.scenario;
+
+import java.util.List;
+
+/**
+ * The ids of everything a {@link ScenarioSeeder} created, so that it can be removed again with
+ * {@link ScenarioSeeder#teardown(SeededScenario)}. Users that already existed before seeding are not part of it.
+ *
+ * @param courseIds        the ids of the created courses
+ * @param exerciseIds      the ids of the created programming exercises
+ * @param userLogins       the logins of the created users
+ * @param participationIds the ids of the started participations
+ */
+public record SeededScenario(
+        List<Long> courseIds, List<Long> exerciseIds, List<String> userLogins, List<Long> participationIds) {
+    public SeededScenario {
+        courseIds = List.copyOf(courseIds);
+        exerciseIds = List.copyOf(exerciseIds);
+        userLogins = List.copyOf(userLogins);
+        participationIds = List.copyOf(participationIds);
+    }
+}
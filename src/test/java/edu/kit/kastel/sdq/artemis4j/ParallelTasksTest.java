@@ -0,0 +1,90 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class ParallelTasksTest {
+    @Test
+    void testResultsKeepInputOrder() throws ArtemisNetworkException {
+        List<Integer> results = ParallelTasks.map(List.of(5, 1, 3), 2, item -> {
+            sleep(item * 10L);
+            return item * 2;
+        });
+
+        assertEquals(List.of(10, 2, 6), results);
+    }
+
+    @Test
+    void testParallelismIsBounded() {
+        var running = new AtomicInteger();
+        var maxRunning = new AtomicInteger();
+
+        ParallelTasks.map(List.of(1, 2, 3, 4, 5, 6, 7, 8), 3, item -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            sleep(20);
+            running.decrementAndGet();
+            return item;
+        });
+
+        assertTrue(maxRunning.get() <= 3);
+    }
+
+    @Test
+    void testSharedPermitsBoundAllCalls() {
+        var running = new AtomicInteger();
+        var maxRunning = new AtomicInteger();
+        var permits = ParallelTasks.permits(2);
+
+        ParallelTasks.map(List.of(1, 2), 2, call -> ParallelTasks.mapSettled(List.of(1, 2, 3, 4), permits, item -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            sleep(20);
+            running.decrementAndGet();
+            return item;
+        }));
+
+        assertTrue(maxRunning.get() <= 2);
+        assertEquals(2, permits.availablePermits());
+    }
+
+    @Test
+    void testFirstFailureIsRethrown() {
+        var exception = assertThrows(
+                ArtemisNetworkException.class,
+                () -> ParallelTasks.map(List.of(1, 2, 3), 3, item -> {
+                    if (item > 1) {
+                        throw new ArtemisNetworkException("failed " + item);
+                    }
+                    return item;
+                }));
+
+        assertEquals("failed 2", exception.getMessage());
+    }
+
+    @Test
+    void testSettledCapturesFailures() {
+        var outcomes = ParallelTasks.mapSettled(List.of(1, 2), 1, item -> {
+            if (item == 2) {
+                throw new ArtemisNetworkException("failed");
+            }
+            return item;
+        });
+
+        assertTrue(outcomes.get(0).isSuccessful());
+        assertEquals(1, outcomes.get(0).value());
+        assertFalse(outcomes.get(1).isSuccessful());
+        assertInstanceOf(ArtemisNetworkException.class, outcomes.get(1).failure());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
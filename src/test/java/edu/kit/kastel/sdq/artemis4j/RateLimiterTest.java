@@ -0,0 +1,38 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class RateLimiterTest {
+    @Test
+    void testPermitsAreSpacedOut() throws InterruptedException {
+        var limiter = RateLimiter.perSecond(100);
+        Assertions.assertEquals(Duration.ofMillis(10), limiter.getInterval());
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 6; i++) {
+            limiter.acquire();
+        }
+        // The first permit is available immediately, the other five are 10ms apart
+        Assertions.assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofMillis(45)) >= 0);
+    }
+
+    @Test
+    void testUnlimitedDoesNotBlock() throws InterruptedException {
+        var limiter = RateLimiter.unlimited();
+        long start = System.nanoTime();
+        for (int i = 0; i < 1000; i++) {
+            limiter.acquire();
+        }
+        Assertions.assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(1)) < 0);
+    }
+
+    @Test
+    void testInvalidRateIsRejected() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> RateLimiter.perSecond(0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> RateLimiter.perSecond(Double.NaN));
+    }
+}
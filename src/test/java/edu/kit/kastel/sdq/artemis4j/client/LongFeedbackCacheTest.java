@@ -0,0 +1,37 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+class LongFeedbackCacheTest {
+    @Test
+    void testSavingInvalidatesTheParticipation() {
+        var cache = new LongFeedbackCache(16);
+        cache.put(1, 100, "first");
+        cache.put(2, 100, "second");
+        cache.put(3, 200, "other");
+
+        cache.invalidateParticipation(100);
+
+        assertEquals(Optional.empty(), cache.get(1));
+        assertEquals(Optional.empty(), cache.get(2));
+        assertEquals(Optional.of("other"), cache.get(3));
+    }
+
+    @Test
+    void testLeastRecentlyUsedIsEvicted() {
+        var cache = new LongFeedbackCache(2);
+        cache.put(1, 100, "first");
+        cache.put(2, 100, "second");
+        cache.get(1);
+        cache.put(3, 100, "third");
+
+        assertEquals(2, cache.size());
+        assertEquals(Optional.of("first"), cache.get(1));
+        assertEquals(Optional.empty(), cache.get(2));
+    }
+}
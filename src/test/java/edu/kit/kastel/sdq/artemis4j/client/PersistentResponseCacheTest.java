@@ -0,0 +1,126 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+import edu.kit.kastel.sdq.artemis4j.ArtemisClientException;
+import edu.kit.kastel.sdq.artemis4j.ArtemisNetworkException;
+import okhttp3.Request;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PersistentResponseCacheTest {
+    private static final ArtemisInstance INSTANCE = new ArtemisInstance("https://artemis.example.com");
+
+    @TempDir
+    Path root;
+
+    @Test
+    void testRoundTrip() throws ArtemisClientException {
+        var cache = PersistentResponseCache.open(this.root, client("alice"), 1024 * 1024);
+        cache.put("https://artemis.example.com/api/core/courses", "[{\"id\":1}]");
+
+        assertEquals(Optional.of("[{\"id\":1}]"), cache.get("https://artemis.example.com/api/core/courses"));
+        assertEquals(Optional.empty(), cache.get("https://artemis.example.com/api/other"));
+    }
+
+    @Test
+    void testUsersAreSeparated() throws ArtemisClientException {
+        var alice = PersistentResponseCache.open(this.root, client("alice"), 1024 * 1024);
+        var bob = PersistentResponseCache.open(this.root, client("bob"), 1024 * 1024);
+        alice.put("key", "alice's courses");
+
+        assertNotEquals(alice.getDirectory(), bob.getDirectory());
+        assertEquals(Optional.empty(), bob.get("key"));
+    }
+
+    @Test
+    void testSimilarLoginsAreSeparated() throws ArtemisClientException {
+        var dotted = PersistentResponseCache.open(this.root, client("a.b"), 1024 * 1024);
+        var underscored = PersistentResponseCache.open(this.root, client("a_b"), 1024 * 1024);
+
+        assertNotEquals(dotted.getDirectory(), underscored.getDirectory());
+    }
+
+    @Test
+    void testUndecodableCachedResponseIsRefetched() throws ArtemisClientException {
+        var client = client("alice");
+        var cache = PersistentResponseCache.open(this.root, client, 1024 * 1024);
+        client.setResponseCache(cache, url -> {});
+        // Nothing listens there, so the uncached request fails, but only after the entry has been discarded
+        var url = new ArtemisInstance("http://localhost:1").url(List.of("core", "courses"), null);
+        cache.put(url.toString(), "not json");
+
+        var request = new Request.Builder().url(url).get().build();
+        assertThrows(ArtemisNetworkException.class, () -> client.call(request, CourseDTO[].class, true));
+        assertEquals(Optional.empty(), cache.get(url.toString()));
+    }
+
+    @Test
+    void testCorruptEntryIsDiscarded() throws ArtemisClientException, IOException {
+        var cache = PersistentResponseCache.open(this.root, client("alice"), 1024 * 1024);
+        cache.put("key", "value");
+
+        try (var entries = Files.list(cache.getDirectory())) {
+            Path entry = entries.findFirst().orElseThrow();
+            byte[] bytes = Files.readAllBytes(entry);
+            bytes[bytes.length - 1] ^= 0x55;
+            Files.write(entry, bytes);
+        }
+
+        assertEquals(Optional.empty(), cache.get("key"));
+        assertEquals(0, cache.getEntryCount());
+        try (var entries = Files.list(cache.getDirectory())) {
+            assertEquals(0, entries.count());
+        }
+    }
+
+    @Test
+    void testSizeLimitEvictsEntries() throws ArtemisClientException, IOException {
+        var cache = PersistentResponseCache.open(this.root, client("alice"), 600);
+        for (int i = 0; i < 10; i++) {
+            String body = ("entry " + i).repeat(20);
+            cache.put("key" + i, Base64.getEncoder().encodeToString(body.getBytes(StandardCharsets.UTF_8)));
+        }
+
+        long total = 0;
+        try (var entries = Files.list(cache.getDirectory())) {
+            for (Path entry : entries.toList()) {
+                total += Files.size(entry);
+            }
+        }
+        assertTrue(total <= 600, "cache has " + total + " bytes");
+        assertEquals(total, cache.getSizeInBytes());
+        assertTrue(cache.get("key9").isPresent());
+    }
+
+    @Test
+    void testInvalidationRemovesEntry() throws ArtemisClientException {
+        var client = client("alice");
+        var cache = PersistentResponseCache.open(this.root, client, 1024 * 1024);
+        client.setResponseCache(cache, url -> {});
+        String key = INSTANCE.url(List.of("core", "courses", "with-user-stats"), null).toString();
+        cache.put(key, "[]");
+        cache.put("other", "[]");
+
+        CourseDTO.invalidateCached(client);
+
+        assertEquals(Optional.empty(), cache.get(key));
+        assertEquals(Optional.of("[]"), cache.get("other"));
+    }
+
+    private static ArtemisClient client(String login) {
+        String payload = Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(("{\"sub\":\"" + login + "\"}").getBytes(StandardCharsets.UTF_8));
+        return new ArtemisClient(INSTANCE, "header." + payload + ".signature", null);
+    }
+}
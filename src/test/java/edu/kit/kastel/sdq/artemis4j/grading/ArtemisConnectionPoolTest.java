@@ -0,0 +1,78 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j.grading;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import edu.kit.kastel.sdq.artemis4j.LazyNetworkValue;
+import edu.kit.kastel.sdq.artemis4j.client.ArtemisInstance;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ArtemisConnectionPoolTest {
+    private static final ArtemisInstance INSTANCE = new ArtemisInstance("https://artemis.example.com");
+
+    @Test
+    void testConnectionIsReusedPerUser() {
+        try (var pool = new ArtemisConnectionPool(INSTANCE)) {
+            var first = pool.fromToken("alice", "token-a");
+            var second = pool.fromToken("bob", "token-b");
+
+            Assertions.assertSame(first, pool.fromToken("alice", "token-a"));
+            Assertions.assertNotSame(first, second);
+            Assertions.assertEquals(2, pool.size());
+        }
+    }
+
+    @Test
+    void testNewTokenReplacesConnection() {
+        try (var pool = new ArtemisConnectionPool(INSTANCE)) {
+            var old = pool.fromToken("alice", "token-a");
+            var renewed = pool.fromToken("alice", "token-a2");
+
+            Assertions.assertNotSame(old, renewed);
+            Assertions.assertEquals("token-a2", renewed.getClient().getJWTToken());
+            Assertions.assertEquals(1, pool.size());
+        }
+    }
+
+    @Test
+    void testIdleConnectionsAreEvicted() throws InterruptedException {
+        try (var pool = new ArtemisConnectionPool(INSTANCE, Duration.ofHours(1))) {
+            pool.fromToken("alice", "token-a");
+            Assertions.assertEquals(0, pool.evictIdle());
+        }
+
+        try (var pool = new ArtemisConnectionPool(INSTANCE, Duration.ofMillis(10))) {
+            pool.fromToken("alice", "token-a");
+            Thread.sleep(50);
+            pool.evictIdle();
+            Assertions.assertTrue(pool.get("alice").isEmpty());
+        }
+    }
+
+    @Test
+    void testPooledValuesExpire() throws Exception {
+        var fetches = new AtomicInteger();
+        var value = new LazyNetworkValue<>(fetches::incrementAndGet);
+
+        try (var pool = new ArtemisConnectionPool(INSTANCE, Duration.ofHours(1), Duration.ofMillis(10))) {
+            var connection = pool.fromToken("alice", "token-a");
+            Assertions.assertEquals(1, connection.getUnexpired(value));
+            Thread.sleep(50);
+            Assertions.assertEquals(2, connection.getUnexpired(value));
+        }
+
+        // Without a pool, values are kept
+        var connection = ArtemisConnection.fromToken(INSTANCE, "token");
+        Thread.sleep(50);
+        Assertions.assertEquals(2, connection.getUnexpired(value));
+    }
+
+    @Test
+    void testClosedPoolRejectsConnections() {
+        var pool = new ArtemisConnectionPool(INSTANCE);
+        pool.close();
+        Assertions.assertThrows(IllegalStateException.class, () -> pool.fromToken("alice", "token-a"));
+    }
+}
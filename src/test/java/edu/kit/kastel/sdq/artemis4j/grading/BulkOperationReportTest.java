@@ -0,0 +1,39 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j.grading;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import edu.kit.kastel.sdq.artemis4j.ArtemisNetworkException;
+import edu.kit.kastel.sdq.artemis4j.RateLimiter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class BulkOperationReportTest {
+    @Test
+    void testItemsAreReportedInInputOrder() {
+        Set<String> applied = ConcurrentHashMap.newKeySet();
+        var report = BulkOperationReport.execute(
+                List.of("a", "existing", "broken", "b"),
+                "existing"::equals,
+                4,
+                RateLimiter.unlimited(),
+                login -> {
+                    if (login.equals("broken")) {
+                        throw new ArtemisNetworkException("Got response code 400");
+                    }
+                    applied.add(login);
+                    return null;
+                });
+
+        Assertions.assertEquals(
+                List.of("a", "existing", "broken", "b"),
+                report.items().stream().map(BulkOperationReport.Item::key).toList());
+        Assertions.assertEquals(Set.of("a", "b"), applied);
+        Assertions.assertEquals(2, report.applied().size());
+        Assertions.assertEquals("existing", report.skipped().getFirst().key());
+        Assertions.assertInstanceOf(ArtemisNetworkException.class, report.failed().getFirst().failure());
+        Assertions.assertFalse(report.isSuccessful());
+    }
+}
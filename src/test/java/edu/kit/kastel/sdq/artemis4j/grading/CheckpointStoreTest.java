@@ -0,0 +1,202 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j.grading;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import edu.kit.kastel.sdq.artemis4j.ArtemisClientException;
+import edu.kit.kastel.sdq.artemis4j.client.AnnotationSource;
+import edu.kit.kastel.sdq.artemis4j.grading.location.LineColumn;
+import edu.kit.kastel.sdq.artemis4j.grading.metajson.AnnotationDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CheckpointStoreTest {
+    private static final long EXERCISE_ID = 42;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testRoundTrip() throws ArtemisClientException {
+        var annotations = List.of(
+                annotation("jwrongLoc", "src/edu/kit/Main.java", 3, 7),
+                new AnnotationDTO(
+                        "not-a-uuid",
+                        "custom",
+                        new LineColumn(0, 2),
+                        new LineColumn(4, 0),
+                        "src/edu/kit/Main.java",
+                        "Nice try ✓",
+                        -1.5,
+                        AnnotationSource.MANUAL_SECOND_ROUND,
+                        List.of("a", "b"),
+                        3,
+                        null,
+                        "tutor",
+                        null,
+                        "instructor"));
+
+        try (var store = CheckpointStore.open(this.directory, EXERCISE_ID)) {
+            store.save(1, CorrectionRound.SECOND, annotations);
+        }
+
+        try (var store = CheckpointStore.open(this.directory, EXERCISE_ID)) {
+            assertEquals(Set.of(new CheckpointStore.Key(1, CorrectionRound.SECOND)), store.getKeys());
+            assertEquals(annotations, store.loadAnnotations(1, CorrectionRound.SECOND).orElseThrow().annotations());
+            assertTrue(store.loadAnnotations(1, CorrectionRound.FIRST).isEmpty());
+        }
+    }
+
+    @Test
+    void testLatestCheckpointWinsAndRemove() throws ArtemisClientException {
+        try (var store = CheckpointStore.open(this.directory, EXERCISE_ID)) {
+            store.save(1, CorrectionRound.FIRST, List.of(annotation("a", "A.java", 1, 1)));
+            store.save(2, CorrectionRound.FIRST, List.of(annotation("a", "B.java", 2, 2)));
+            store.save(1, CorrectionRound.FIRST, List.of(annotation("b", "A.java", 5, 6)));
+            assertTrue(store.remove(2, CorrectionRound.FIRST));
+            assertFalse(store.remove(2, CorrectionRound.FIRST));
+            assertTrue(store.getOutdatedBytes() > 0);
+        }
+
+        try (var store = CheckpointStore.open(this.directory, EXERCISE_ID)) {
+            assertEquals(Set.of(new CheckpointStore.Key(1, CorrectionRound.FIRST)), store.getKeys());
+            var loaded = store.loadAnnotations(1, CorrectionRound.FIRST).orElseThrow();
+            assertEquals("b", loaded.annotations().getFirst().mistakeTypeId());
+
+            long before = store.getSizeInBytes();
+            store.compact();
+            assertEquals(0, store.getOutdatedBytes());
+            assertTrue(store.getSizeInBytes() < before);
+            assertEquals(loaded, store.loadAnnotations(1, CorrectionRound.FIRST).orElseThrow());
+        }
+    }
+
+    @Test
+    void testTruncatedTailIsDiscarded() throws ArtemisClientException, IOException {
+        Path file;
+        long validSize;
+        try (var store = CheckpointStore.open(this.directory, EXERCISE_ID)) {
+            store.save(1, CorrectionRound.FIRST, List.of(annotation("a", "A.java", 1, 1)));
+            validSize = store.getSizeInBytes();
+            store.save(2, CorrectionRound.FIRST, List.of(annotation("a", "A.java", 1, 1)));
+            file = store.getFile();
+        }
+
+        // Simulate a crash in the middle of the second write
+        try (var channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(file) - 3);
+        }
+
+        try (var store = CheckpointStore.open(this.directory, EXERCISE_ID)) {
+            assertEquals(Set.of(new CheckpointStore.Key(1, CorrectionRound.FIRST)), store.getKeys());
+            assertEquals(validSize, store.getSizeInBytes());
+
+            store.save(3, CorrectionRound.FIRST, List.of(annotation("c", "C.java", 0, 0)));
+            assertEquals(
+                    "c",
+                    store.loadAnnotations(3, CorrectionRound.FIRST)
+                            .orElseThrow()
+                            .annotations()
+                            .getFirst()
+                            .mistakeTypeId());
+        }
+    }
+
+    @Test
+    void testOtherExerciseIsRejected() throws ArtemisClientException, IOException {
+        Path file;
+        try (var store = CheckpointStore.open(this.directory, EXERCISE_ID)) {
+            file = store.getFile();
+        }
+        Files.move(file, file.resolveSibling("exercise-43.checkpoints"));
+
+        assertThrows(ArtemisClientException.class, () -> CheckpointStore.open(this.directory, 43));
+
+        // The failed open must not keep the file open
+        Files.delete(file.resolveSibling("exercise-43.checkpoints"));
+        try (var store = CheckpointStore.open(this.directory, 43)) {
+            assertTrue(store.getKeys().isEmpty());
+        }
+    }
+
+    @Test
+    void testFileCanOnlyBeOpenedOnce() throws ArtemisClientException {
+        try (var store = CheckpointStore.open(this.directory, EXERCISE_ID)) {
+            assertThrows(ArtemisClientException.class, () -> CheckpointStore.open(this.directory, EXERCISE_ID));
+            // Relative paths to the same file are detected as well
+            Path relative = Path.of("").toAbsolutePath().relativize(this.directory.toAbsolutePath());
+            assertThrows(ArtemisClientException.class, () -> CheckpointStore.open(relative, EXERCISE_ID));
+            store.save(1, CorrectionRound.FIRST, List.of(annotation("a", "A.java", 1, 1)));
+        }
+
+        try (var store = CheckpointStore.open(this.directory, EXERCISE_ID)) {
+            assertEquals(Set.of(new CheckpointStore.Key(1, CorrectionRound.FIRST)), store.getKeys());
+        }
+    }
+
+    @Test
+    void testCorruptRecordInTheMiddleIsKept() throws ArtemisClientException, IOException {
+        Path file;
+        try (var store = CheckpointStore.open(this.directory, EXERCISE_ID)) {
+            store.save(1, CorrectionRound.FIRST, List.of(annotation("a", "A.java", 1, 1)));
+            store.save(2, CorrectionRound.FIRST, List.of(annotation("b", "B.java", 1, 1)));
+            file = store.getFile();
+        }
+
+        // Flip a byte in the payload of the first record (the string "a" right after the header)
+        byte[] content = Files.readAllBytes(file);
+        int corrupted = 4 + 2 + 8 + 6;
+        content[corrupted] ^= 0x01;
+        Files.write(file, content);
+
+        assertThrows(ArtemisClientException.class, () -> CheckpointStore.open(this.directory, EXERCISE_ID));
+        assertArrayEquals(content, Files.readAllBytes(file));
+    }
+
+    @Test
+    void testFailedSaveDoesNotCorruptStringTable() throws ArtemisClientException {
+        try (var store = CheckpointStore.open(this.directory, EXERCISE_ID)) {
+            // The end is before the start, so encoding fails after the new strings have been seen
+            assertThrows(
+                    IllegalArgumentException.class,
+                    () -> store.save(1, CorrectionRound.FIRST, List.of(annotation("x", "X.java", 5, 1))));
+            store.save(2, CorrectionRound.FIRST, List.of(annotation("y", "Y.java", 1, 1)));
+        }
+
+        try (var store = CheckpointStore.open(this.directory, EXERCISE_ID)) {
+            assertEquals(Set.of(new CheckpointStore.Key(2, CorrectionRound.FIRST)), store.getKeys());
+            var annotation =
+                    store.loadAnnotations(2, CorrectionRound.FIRST).orElseThrow().annotations().getFirst();
+            assertEquals("y", annotation.mistakeTypeId());
+            assertEquals("Y.java", annotation.classFilePath());
+        }
+    }
+
+    private static AnnotationDTO annotation(String mistakeTypeId, String path, int startLine, int endLine) {
+        return new AnnotationDTO(
+                UUID.randomUUID().toString(),
+                mistakeTypeId,
+                new LineColumn(startLine, Optional.empty()),
+                new LineColumn(endLine, Optional.empty()),
+                path,
+                null,
+                null,
+                AnnotationSource.MANUAL_FIRST_ROUND,
+                List.of(),
+                null,
+                null,
+                "tutor",
+                null,
+                null);
+    }
+}
@@ -0,0 +1,72 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j.grading;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class ExamGradingSnapshotTest {
+    private static final Instant NOW = Instant.parse("2026-03-01T10:00:00Z");
+
+    @Test
+    void testAggregatesOverExercises() {
+        var snapshot = new ExamGradingSnapshot(
+                NOW, List.of(progress(10, List.of(10, 4), 2), progress(30, List.of(15), 3)), 0.0);
+
+        assertEquals(40, snapshot.totalSubmissions());
+        assertEquals(25, snapshot.completedAssessments(0));
+        assertEquals(4, snapshot.completedAssessments(1));
+        assertEquals(29, snapshot.completedAssessments());
+        assertEquals(25 / 40.0, snapshot.completion(0));
+        assertEquals(4 / 40.0, snapshot.completion(1));
+        assertEquals(5, snapshot.outstandingLocks());
+    }
+
+    @Test
+    void testExerciseProgress() {
+        var progress = progress(8, List.of(6), 1);
+
+        assertEquals(6, progress.completedAssessments(0));
+        assertEquals(0, progress.completedAssessments(1));
+        assertEquals(0.75, progress.completion(0));
+        assertEquals(0.0, progress.completion(1));
+    }
+
+    @Test
+    void testNoSubmissionsCountsAsComplete() {
+        var snapshot = new ExamGradingSnapshot(NOW, List.of(progress(0, List.of(), 0)), 0.0);
+
+        assertEquals(1.0, snapshot.completion(0));
+        assertEquals(1.0, snapshot.exercises().getFirst().completion(0));
+    }
+
+    @Test
+    void testThroughputOverWindow() {
+        var throughput = new ExamGradingDashboard.Throughput(Duration.ofHours(1));
+
+        assertEquals(0.0, throughput.record(NOW, 10));
+        assertEquals(0.0, throughput.record(NOW, 10));
+        assertEquals(40.0, throughput.record(NOW.plus(Duration.ofMinutes(15)), 20));
+        assertEquals(20.0, throughput.record(NOW.plus(Duration.ofMinutes(30)), 20));
+    }
+
+    @Test
+    void testThroughputDropsOldSamples() {
+        var throughput = new ExamGradingDashboard.Throughput(Duration.ofHours(1));
+        throughput.record(NOW, 0);
+        throughput.record(NOW.plus(Duration.ofMinutes(90)), 30);
+
+        // The first sample is older than the window now, so the rate is measured from the second one
+        assertEquals(60.0, throughput.record(NOW.plus(Duration.ofMinutes(120)), 60));
+    }
+
+    private static ExamGradingSnapshot.ExerciseProgress progress(
+            int submissions, List<Integer> completedPerRound, int locks) {
+        // The group and exercise are only carried along, so they are not needed for the math
+        return new ExamGradingSnapshot.ExerciseProgress(null, null, submissions, completedPerRound, locks);
+    }
+}
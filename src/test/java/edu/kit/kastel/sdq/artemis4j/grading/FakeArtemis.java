@@ -0,0 +1,82 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j.grading;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpServer;
+import edu.kit.kastel.sdq.artemis4j.client.ArtemisClient;
+import edu.kit.kastel.sdq.artemis4j.client.ArtemisInstance;
+import edu.kit.kastel.sdq.artemis4j.client.CourseDTO;
+import edu.kit.kastel.sdq.artemis4j.client.ProgrammingExerciseDTO;
+
+/**
+ * Answers requests by path with canned responses, and counts them.
+ */
+final class FakeArtemis implements AutoCloseable {
+    private final HttpServer server;
+    private final ArtemisConnection connection;
+    private final Map<String, Response> responses = new ConcurrentHashMap<>();
+    private final Map<String, Response> onceResponses = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> requests = new ConcurrentHashMap<>();
+
+    FakeArtemis() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.server.createContext("/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            this.requests.computeIfAbsent(path, p -> new AtomicInteger()).incrementAndGet();
+
+            var response = this.onceResponses.remove(path);
+            if (response == null) {
+                response = this.responses.getOrDefault(path, new Response(404, ""));
+            }
+            byte[] body = response.body().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(response.status(), body.length == 0 ? -1 : body.length);
+            if (body.length > 0) {
+                exchange.getResponseBody().write(body);
+            }
+            exchange.close();
+        });
+        this.server.start();
+
+        var instance = new ArtemisInstance("http://localhost:" + this.server.getAddress().getPort());
+        this.connection = ArtemisConnection.fromToken(instance, "token");
+    }
+
+    ArtemisConnection connection() {
+        return this.connection;
+    }
+
+    void respond(String path, int status, String body) {
+        this.responses.put(path, new Response(status, body));
+    }
+
+    void respondOnce(String path, int status, String body) {
+        this.onceResponses.put(path, new Response(status, body));
+    }
+
+    int requests(String path) {
+        var count = this.requests.get(path);
+        return count == null ? 0 : count.get();
+    }
+
+    ProgrammingExercise exercise(long id) throws IOException {
+        var course = new Course(ArtemisClient.MAPPER.readValue("{\"id\": 1}", CourseDTO.class), this.connection);
+        var dto = ArtemisClient.MAPPER.readValue(
+                "{\"type\": \"programming\", \"id\": %d, \"shortName\": \"ex\"}".formatted(id),
+                ProgrammingExerciseDTO.class);
+        return new ProgrammingExercise(dto, course);
+    }
+
+    @Override
+    public void close() {
+        this.server.stop(0);
+    }
+
+    private record Response(int status, String body) {}
+}
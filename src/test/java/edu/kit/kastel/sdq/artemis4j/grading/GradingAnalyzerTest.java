@@ -0,0 +1,127 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j.grading;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import edu.kit.kastel.sdq.artemis4j.client.AnnotationSource;
+import edu.kit.kastel.sdq.artemis4j.client.ArtemisClient;
+import edu.kit.kastel.sdq.artemis4j.client.ArtemisInstance;
+import edu.kit.kastel.sdq.artemis4j.client.CourseDTO;
+import edu.kit.kastel.sdq.artemis4j.client.ProgrammingExerciseDTO;
+import edu.kit.kastel.sdq.artemis4j.grading.penalty.GradingConfig;
+import edu.kit.kastel.sdq.artemis4j.grading.penalty.Points;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class GradingAnalyzerTest {
+    private GradingConfig config;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        var connection = ArtemisConnection.fromToken(new ArtemisInstance("https://artemis.example.com"), "token");
+        var course = new Course(ArtemisClient.MAPPER.readValue("{\"id\": 1}", CourseDTO.class), connection);
+        var exercise = new ProgrammingExercise(
+                ArtemisClient.MAPPER.readValue(
+                        "{\"type\": \"programming\", \"id\": 2, \"shortName\": \"ex\"}", ProgrammingExerciseDTO.class),
+                course);
+        this.config =
+                GradingConfig.readFromString(Files.readString(Path.of("src/test/resources/config.json")), exercise);
+    }
+
+    @Test
+    void testHistogramIsImmutableValue() {
+        int[] counts = {1, 2, 3};
+        var histogram = new GradingAnalytics.PointHistogram(0.5, Arrays.stream(counts).boxed().toList(), 4.0);
+        counts[0] = 10;
+
+        assertEquals(new GradingAnalytics.PointHistogram(0.5, List.of(1, 2, 3), 4.0), histogram);
+        assertEquals(6, histogram.total());
+        assertThrows(UnsupportedOperationException.class, () -> histogram.counts().set(0, 5));
+
+        List<Integer> mutable = new ArrayList<>(List.of(1));
+        var copied = new GradingAnalytics.PointHistogram(1.0, mutable, 0.0);
+        mutable.add(2);
+        assertEquals(List.of(1), copied.counts());
+    }
+
+    @Test
+    void testPointsAreBinnedAndClamped() {
+        var accumulator = new GradingAnalyzer.Accumulator(List.of(), 2.0);
+        accumulator.add(summary(0.0, Map.of()));
+        accumulator.add(summary(0.7, Map.of()));
+        accumulator.add(summary(2.0, Map.of()));
+        // Out of range points land in the outer bins
+        accumulator.add(summary(3.0, Map.of()));
+        accumulator.add(summary(-1.0, Map.of()));
+
+        var analytics = accumulator.build(1);
+        assertEquals(5, analytics.analyzedSubmissions());
+        assertEquals(1, analytics.failedSubmissions());
+        assertEquals(List.of(2, 1, 0, 2), analytics.pointDistribution().counts());
+        assertEquals(4.7 / 5, analytics.pointDistribution().mean(), 1e-9);
+        assertEquals(1.5, analytics.pointDistribution().binStart(3));
+    }
+
+    @Test
+    void testStatsAreMergedOverSubmissions() {
+        var mistakeType = this.config.getMistakeTypes().getFirst();
+        var ratingGroup = this.config.getRatingGroups().getFirst();
+        var accumulator = new GradingAnalyzer.Accumulator(this.config.getRatingGroups(), 20.0);
+
+        accumulator.add(new GradingAnalyzer.SubmissionSummary(
+                10.0,
+                Map.of("alice", new GradingAnalytics.AssessorStats(1, 10.0, 3)),
+                Map.of(mistakeType, new GradingAnalytics.MistakeTypeStats(2, 1, -1.0)),
+                Map.of(ratingGroup, new Points(-1.0, false))));
+        accumulator.add(new GradingAnalyzer.SubmissionSummary(
+                16.0,
+                Map.of(
+                        "alice", new GradingAnalytics.AssessorStats(1, 14.0, 1),
+                        "bob", new GradingAnalytics.AssessorStats(1, 16.0, 2)),
+                Map.of(mistakeType, new GradingAnalytics.MistakeTypeStats(1, 1, -3.0)),
+                Map.of(ratingGroup, new Points(-3.0, true))));
+
+        var analytics = accumulator.build(0);
+        assertEquals(new GradingAnalytics.AssessorStats(2, 24.0, 4), analytics.assessors().get("alice"));
+        assertEquals(new GradingAnalytics.AssessorStats(1, 16.0, 2), analytics.assessors().get("bob"));
+        assertEquals(new GradingAnalytics.MistakeTypeStats(3, 2, -4.0), analytics.mistakeTypes().get(mistakeType));
+        assertEquals(new GradingAnalytics.RatingGroupStats(2, 1, -4.0), analytics.ratingGroups().get(ratingGroup));
+        assertEquals(List.of(mistakeType), analytics.mostFrequentMistakeTypes(1));
+    }
+
+    @Test
+    void testUnusedRatingGroupsAreListed() {
+        var accumulator = new GradingAnalyzer.Accumulator(this.config.getRatingGroups(), 20.0);
+        accumulator.add(summary(20.0, Map.of()));
+
+        var analytics = accumulator.build(0);
+        assertEquals(
+                new GradingAnalytics.RatingGroupStats(0, 0, 0.0),
+                analytics.ratingGroups().get(this.config.getRatingGroups().getFirst()));
+        assertTrue(analytics.assessors().isEmpty());
+    }
+
+    @Test
+    void testAnnotationsAreAttributedToTheirCreator() {
+        var rounds = List.of("alice", "bob");
+
+        assertEquals("carol", GradingAnalyzer.attribute(AnnotationSource.MANUAL_SECOND_ROUND, "carol", rounds, "bob"));
+        assertEquals("alice", GradingAnalyzer.attribute(AnnotationSource.MANUAL_FIRST_ROUND, null, rounds, "bob"));
+        assertEquals("bob", GradingAnalyzer.attribute(AnnotationSource.MANUAL_SECOND_ROUND, null, rounds, "bob"));
+        assertEquals("bob", GradingAnalyzer.attribute(AnnotationSource.UNKNOWN, null, rounds, "bob"));
+        assertNull(GradingAnalyzer.attribute(AnnotationSource.AUTOGRADER, "alice", rounds, "bob"));
+        assertNull(GradingAnalyzer.attribute(AnnotationSource.MANUAL_SECOND_ROUND, null, List.of("alice"), "alice"));
+    }
+
+    private static GradingAnalyzer.SubmissionSummary summary(
+            double points, Map<String, GradingAnalytics.AssessorStats> assessors) {
+        return new GradingAnalyzer.SubmissionSummary(points, assessors, Map.of(), Map.of());
+    }
+}
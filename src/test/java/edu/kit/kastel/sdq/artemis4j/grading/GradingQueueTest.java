@@ -0,0 +1,155 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j.grading;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+
+import edu.kit.kastel.sdq.artemis4j.ArtemisClientException;
+import edu.kit.kastel.sdq.artemis4j.ArtemisNetworkException;
+import edu.kit.kastel.sdq.artemis4j.grading.penalty.GradingConfig;
+import org.junit.jupiter.api.Test;
+
+class GradingQueueTest {
+    private static final String LOCK_NEXT =
+            "/api/programming/exercises/2/programming-submission-without-assessment";
+    private static final String RENEW = "/api/programming/programming-submissions/10/lock";
+    private static final String CANCEL = "/api/programming/programming-submissions/10/cancel-assessment";
+    private static final String ACCOUNT = "/api/core/public/account";
+
+    private static final String SUBMISSION =
+            """
+            {"id": %d, "participation": {"id": 5, "participantIdentifier": "student"},
+             "results": [{"id": 20, "assessmentType": "SEMI_AUTOMATIC", "feedbacks": []}]}
+            """;
+
+    @Test
+    void testExhaustedQueueIsEmpty() throws Exception {
+        try (var artemis = new FakeArtemis()) {
+            artemis.respond(LOCK_NEXT, 200, "");
+            var exercise = artemis.exercise(2);
+
+            try (var queue = queue(exercise, 2, Duration.ofHours(1))) {
+                assertTrue(queue.take().isEmpty());
+                assertTrue(queue.isExhausted());
+                assertNull(queue.getFailure());
+            }
+        }
+    }
+
+    @Test
+    void testTransientFailuresAreRetriedAndThenSurfaced() throws Exception {
+        try (var artemis = new FakeArtemis()) {
+            artemis.respond(LOCK_NEXT, 503, "{}");
+            var exercise = artemis.exercise(2);
+
+            try (var queue = queue(exercise, 2, Duration.ofHours(1))) {
+                var thrown = assertThrows(ArtemisClientException.class, queue::take);
+                assertInstanceOf(ArtemisNetworkException.class, thrown.getCause());
+                assertSame(thrown.getCause(), queue.getFailure());
+                // Both workers share the attempts
+                assertEquals(GradingQueue.MAX_LOCK_ATTEMPTS, artemis.requests(LOCK_NEXT));
+                assertThrows(ArtemisClientException.class, queue::take);
+            }
+        }
+    }
+
+    @Test
+    void testClientErrorsAreNotRetried() throws Exception {
+        try (var artemis = new FakeArtemis()) {
+            artemis.respond(LOCK_NEXT, 403, "{}");
+            var exercise = artemis.exercise(2);
+
+            try (var queue = queue(exercise, 2, Duration.ofHours(1))) {
+                var thrown = assertThrows(ArtemisClientException.class, queue::take);
+                assertInstanceOf(ArtemisNetworkException.class, thrown.getCause());
+                assertSame(thrown.getCause(), queue.getFailure());
+                // The other worker sees the failure and doesn't try again
+                assertEquals(1, artemis.requests(LOCK_NEXT));
+            }
+        }
+    }
+
+    @Test
+    void testOtherFailuresAreNotRetried() throws Exception {
+        try (var artemis = new FakeArtemis()) {
+            var exercise = artemis.exercise(2);
+            var configOfOtherExercise = config(artemis.exercise(3));
+
+            try (var queue = new GradingQueue(
+                    exercise,
+                    CorrectionRound.FIRST,
+                    configOfOtherExercise,
+                    1,
+                    Duration.ofHours(1),
+                    GradingQueue.Preparer.openOnly(),
+                    Duration.ofMillis(1))) {
+                var thrown = assertThrows(ArtemisClientException.class, queue::take);
+                assertInstanceOf(IllegalArgumentException.class, thrown.getCause());
+                assertEquals(0, artemis.requests(LOCK_NEXT));
+            }
+        }
+    }
+
+    @Test
+    void testLostLockIsForgotten() throws Exception {
+        try (var artemis = new FakeArtemis()) {
+            artemis.respond(ACCOUNT, 200, "{\"id\": 7, \"login\": \"tutor\"}");
+            artemis.respondOnce(LOCK_NEXT, 200, SUBMISSION.formatted(10));
+            artemis.respond(LOCK_NEXT, 200, "");
+            // Artemis hands out the newer submission of the participation, so the lock on 10 is gone
+            artemis.respond(RENEW, 200, SUBMISSION.formatted(11));
+            var exercise = artemis.exercise(2);
+
+            try (var queue = queue(exercise, 1, Duration.ZERO)) {
+                assertTrue(queue.take().isEmpty());
+                assertEquals(1, artemis.requests(RENEW));
+                assertTrue(exercise.getConnection().diagnostics().openAssessments().isEmpty());
+            }
+            // The lock was lost, so there is nothing to cancel
+            assertEquals(0, artemis.requests(CANCEL));
+        }
+    }
+
+    @Test
+    void testUntakenSubmissionsAreCancelledOnClose() throws Exception {
+        try (var artemis = new FakeArtemis()) {
+            artemis.respond(ACCOUNT, 200, "{\"id\": 7, \"login\": \"tutor\"}");
+            artemis.respondOnce(LOCK_NEXT, 200, SUBMISSION.formatted(10));
+            artemis.respond(LOCK_NEXT, 200, "");
+            artemis.respond(CANCEL, 200, "");
+            var exercise = artemis.exercise(2);
+
+            var queue = queue(exercise, 1, Duration.ofHours(1));
+            while (queue.getReadyCount() == 0) {
+                Thread.sleep(5);
+            }
+            assertEquals(1, exercise.getConnection().diagnostics().openAssessments().size());
+
+            queue.close();
+            assertEquals(1, artemis.requests(CANCEL));
+            assertTrue(exercise.getConnection().diagnostics().openAssessments().isEmpty());
+        }
+    }
+
+    private static GradingQueue queue(ProgrammingExercise exercise, int depth, Duration leaseDuration)
+            throws Exception {
+        return new GradingQueue(
+                exercise,
+                CorrectionRound.FIRST,
+                config(exercise),
+                depth,
+                leaseDuration,
+                GradingQueue.Preparer.openOnly(),
+                Duration.ofMillis(1));
+    }
+
+    private static GradingConfig config(ProgrammingExercise exercise) throws Exception {
+        return GradingConfig.readFromString(
+                """
+                {"shortName": "test", "allowedExercises": [%d], "ratingGroups": [], "mistakeTypes": []}
+                """
+                        .formatted(exercise.getId()),
+                exercise);
+    }
+}
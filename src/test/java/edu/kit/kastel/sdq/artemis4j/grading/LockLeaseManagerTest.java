@@ -0,0 +1,158 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j.grading;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import edu.kit.kastel.sdq.artemis4j.ArtemisNetworkException;
+import edu.kit.kastel.sdq.artemis4j.client.ArtemisInstance;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LockLeaseManagerTest {
+    // Nothing listens there, so every request fails
+    private static final ArtemisInstance UNREACHABLE = new ArtemisInstance("http://localhost:1");
+
+    private static final String LOCKED = "/api/core/courses/1/locked-submissions";
+    private static final String CANCEL = "/api/programming/programming-submissions/10/cancel-assessment";
+    private static final Duration SHORT_TIMEOUT = Duration.ofMillis(200);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testSecondManagerIsRejected() throws Exception {
+        var connection = ArtemisConnection.fromToken(UNREACHABLE, "token");
+        Path journal = this.directory.resolve("locks.journal");
+
+        // Without leases, there is nothing to reconcile
+        try (var manager = LockLeaseManager.start(connection, journal, Duration.ofMinutes(1))) {
+            assertTrue(manager.getLeases().isEmpty());
+            Path otherJournal = this.directory.resolve("other.journal");
+            assertThrows(
+                    IllegalStateException.class,
+                    () -> LockLeaseManager.start(connection, otherJournal, Duration.ofMinutes(1)));
+            assertFalse(Files.exists(otherJournal));
+        }
+
+        LockLeaseManager.start(connection, journal, Duration.ofMinutes(1)).close();
+    }
+
+    @Test
+    void testFailedStartUnregisters() throws Exception {
+        var connection = ArtemisConnection.fromToken(UNREACHABLE, "token");
+        Path journal = this.directory.resolve("locks.journal");
+        Files.writeString(journal, "L 10 FIRST 1 1000\nA 10 2000\n");
+
+        assertThrows(
+                ArtemisNetworkException.class,
+                () -> LockLeaseManager.start(connection, journal, Duration.ofMinutes(1)));
+        // The journal has been rewritten with the last activity, and the lease is still there for the next run
+        assertEquals(List.of("L 10 FIRST 1 1000", "A 10 2000"), Files.readAllLines(journal));
+
+        LockLeaseManager.start(connection, this.directory.resolve("empty.journal"), Duration.ofMinutes(1))
+                .close();
+    }
+
+    @Test
+    void testJournalIsReplayed() throws Exception {
+        try (var artemis = new FakeArtemis()) {
+            artemis.respond(LOCKED, 200, "[{\"type\": \"programming\", \"id\": 10}, {\"id\": 12}]");
+            Path journal = this.directory.resolve("locks.journal");
+            // The last line has been cut off by a crash
+            Files.writeString(
+                    journal,
+                    "L 10 FIRST 1 1000\nL 11 SECOND 1 1500\nA 10 2000\nR 11\nL 12 SECOND 1 3000\nL 13 FIR");
+
+            try (var manager = LockLeaseManager.start(artemis.connection(), journal, Duration.ofDays(365L * 100))) {
+                var leases = manager.getLeases();
+                assertEquals(List.of(10L, 12L), submissionIds(manager));
+                assertEquals(CorrectionRound.SECOND, leases.get(1).correctionRound());
+                assertEquals(Instant.ofEpochMilli(2000), leases.get(0).lastActivity());
+                assertFalse(leases.get(0).attached());
+            }
+
+            assertEquals(List.of("L 10 FIRST 1 1000", "A 10 2000", "L 12 SECOND 1 3000"), Files.readAllLines(journal));
+            assertEquals(0, artemis.requests(CANCEL));
+        }
+    }
+
+    @Test
+    void testIdleLeasesAreCancelled() throws Exception {
+        try (var artemis = new FakeArtemis()) {
+            artemis.respond(LOCKED, 200, "[{\"id\": 10}]");
+            artemis.respond(CANCEL, 200, "");
+            Path journal = this.directory.resolve("locks.journal");
+            Files.writeString(journal, "L 10 FIRST 1 " + System.currentTimeMillis() + "\n");
+
+            try (var manager = LockLeaseManager.start(artemis.connection(), journal, SHORT_TIMEOUT)) {
+                assertEquals(List.of(), manager.sweep());
+                Thread.sleep(SHORT_TIMEOUT.toMillis() * 2);
+
+                assertEquals(List.of(10L), manager.sweep());
+                assertEquals(1, artemis.requests(CANCEL));
+                assertTrue(manager.getLeases().isEmpty());
+                assertEquals(List.of(), manager.sweep());
+            }
+            assertTrue(Files.readAllLines(journal).contains("R 10"));
+        }
+    }
+
+    @Test
+    void testPinnedLeasesAreNotCancelled() throws Exception {
+        try (var artemis = new FakeArtemis()) {
+            artemis.respond(LOCKED, 200, "[{\"id\": 10}]");
+            artemis.respond(CANCEL, 200, "");
+            Path journal = this.directory.resolve("locks.journal");
+            Files.writeString(journal, "L 10 FIRST 1 " + System.currentTimeMillis() + "\n");
+
+            try (var manager = LockLeaseManager.start(artemis.connection(), journal, SHORT_TIMEOUT)) {
+                manager.pin(10);
+                Thread.sleep(SHORT_TIMEOUT.toMillis() * 2);
+                assertEquals(List.of(), manager.sweep());
+                assertTrue(manager.getLeases().getFirst().pinned());
+
+                // The idle timeout starts again when unpinning
+                manager.unpin(10);
+                assertEquals(List.of(), manager.sweep());
+                Thread.sleep(SHORT_TIMEOUT.toMillis() * 2);
+                assertEquals(List.of(10L), manager.sweep());
+                assertEquals(1, artemis.requests(CANCEL));
+            }
+        }
+    }
+
+    @Test
+    void testReconcileDropsReleasedLeases() throws Exception {
+        try (var artemis = new FakeArtemis()) {
+            artemis.respond(LOCKED, 200, "[{\"id\": 10}, {\"id\": 11}]");
+            Path journal = this.directory.resolve("locks.journal");
+            long now = System.currentTimeMillis();
+            Files.writeString(journal, "L 10 FIRST 1 %d\nL 11 FIRST 1 %d\n".formatted(now, now));
+
+            try (var manager = LockLeaseManager.start(artemis.connection(), journal, Duration.ofMinutes(1))) {
+                assertEquals(2, manager.getLeases().size());
+
+                // 11 has been freed by an instructor, 20 has been locked in the web UI
+                artemis.respond(LOCKED, 200, "[{\"id\": 10}, {\"id\": 20}]");
+                var reconciliation = manager.reconcile();
+                assertEquals(List.of(), reconciliation.cancelled());
+                assertEquals(List.of(11L), reconciliation.released());
+                assertEquals(List.of(20L), reconciliation.untracked());
+                assertEquals(List.of(10L), submissionIds(manager));
+            }
+
+            assertTrue(Files.readAllLines(journal).contains("R 11"));
+            assertEquals(0, artemis.requests(CANCEL));
+        }
+    }
+
+    private static List<Long> submissionIds(LockLeaseManager manager) {
+        return manager.getLeases().stream().map(LockLeaseManager.LeaseInfo::submissionId).toList();
+    }
+}
@@ -0,0 +1,51 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j.grading;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import edu.kit.kastel.sdq.artemis4j.client.CourseRole;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class RosterChangeTest {
+    @Test
+    void testRosterInSyncNeedsNoChanges() {
+        var roster = Map.of("alice", CourseRole.STUDENT, "bob", CourseRole.TUTOR);
+        Assertions.assertEquals(List.of(), RosterChange.diff(roster, Set.of("alice"), Set.of("bob")));
+    }
+
+    @Test
+    void testOnlyDeltaIsApplied() {
+        var roster = Map.of(
+                "alice", CourseRole.STUDENT,
+                "carol", CourseRole.STUDENT,
+                "dave", CourseRole.TUTOR);
+
+        var changes = RosterChange.diff(roster, Set.of("alice", "bob", "dave"), Set.of("erin"));
+
+        Assertions.assertEquals(
+                List.of(
+                        new RosterChange("bob", CourseRole.STUDENT, RosterChange.Action.REMOVE),
+                        new RosterChange("dave", CourseRole.STUDENT, RosterChange.Action.REMOVE),
+                        new RosterChange("erin", CourseRole.TUTOR, RosterChange.Action.REMOVE),
+                        new RosterChange("carol", CourseRole.STUDENT, RosterChange.Action.ASSIGN),
+                        new RosterChange("dave", CourseRole.TUTOR, RosterChange.Action.ASSIGN)),
+                changes);
+    }
+
+    @Test
+    void testRolesMissingFromRosterAreUntouched() {
+        var roster = Map.of("alice", CourseRole.STUDENT);
+
+        var changes = RosterChange.diff(roster, Set.of("bob"), Set.of("tutor"));
+
+        Assertions.assertEquals(
+                List.of(
+                        new RosterChange("bob", CourseRole.STUDENT, RosterChange.Action.REMOVE),
+                        new RosterChange("alice", CourseRole.STUDENT, RosterChange.Action.ASSIGN)),
+                changes);
+        Assertions.assertEquals(List.of(), RosterChange.diff(Map.of(), Set.of("bob"), Set.of("tutor")));
+    }
+}
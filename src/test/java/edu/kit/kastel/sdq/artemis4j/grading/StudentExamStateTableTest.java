@@ -0,0 +1,80 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j.grading;
+
+import java.util.List;
+
+import edu.kit.kastel.sdq.artemis4j.client.ArtemisClient;
+import edu.kit.kastel.sdq.artemis4j.client.StudentExamLoginDTO;
+import edu.kit.kastel.sdq.artemis4j.client.StudentExamStateDTO;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class StudentExamStateTableTest {
+    private static StudentExamLoginDTO studentExam(long id, String login, boolean started, boolean submitted) {
+        return new StudentExamLoginDTO(id, submitted, started, new StudentExamLoginDTO.UserLoginDTO(login));
+    }
+
+    @Test
+    void testInitialStateIsAdopted() {
+        var table = new StudentExamStateTable();
+        table.addMissing(List.of(studentExam(3, "c", true, true), studentExam(1, "a", true, false)), true);
+
+        Assertions.assertEquals(2, table.size());
+        Assertions.assertEquals(2, table.countStarted());
+        Assertions.assertEquals(1, table.countSubmitted());
+        Assertions.assertTrue(table.update(List.of(new StudentExamStateDTO(1, false, true))).isEmpty());
+    }
+
+    @Test
+    void testOnlyTransitionsAreReported() {
+        var table = new StudentExamStateTable();
+        table.addMissing(List.of(studentExam(2, "b", false, false), studentExam(1, "a", true, false)), true);
+
+        var transitions = table.update(
+                List.of(new StudentExamStateDTO(1, true, true), new StudentExamStateDTO(2, true, true)));
+
+        Assertions.assertEquals(
+                List.of(
+                        new StudentExamTransition(1, "a", StudentExamTransition.Type.SUBMITTED),
+                        new StudentExamTransition(2, "b", StudentExamTransition.Type.STARTED),
+                        new StudentExamTransition(2, "b", StudentExamTransition.Type.SUBMITTED)),
+                transitions);
+
+        var revoked = table.update(List.of(new StudentExamStateDTO(1, false, true)));
+        Assertions.assertEquals(
+                List.of(new StudentExamTransition(1, "a", StudentExamTransition.Type.UNSUBMITTED)), revoked);
+    }
+
+    @Test
+    void testLateStudentExamsAreReportedOnNextUpdate() {
+        var table = new StudentExamStateTable();
+        table.addMissing(List.of(studentExam(1, "a", false, false)), true);
+
+        var late = new StudentExamStateDTO(5, false, true);
+        Assertions.assertFalse(table.containsAll(List.of(late)));
+
+        table.addMissing(List.of(studentExam(5, "e", true, false)), false);
+        Assertions.assertEquals(
+                List.of(new StudentExamTransition(5, "e", StudentExamTransition.Type.STARTED)),
+                table.update(List.of(late)));
+    }
+
+    @Test
+    void testProjectionOnlyDecodesLogin() throws Exception {
+        String json =
+                """
+                [{"id": 1, "started": true, "submitted": false, "workingTime": 3600,
+                  "user": {"id": 7, "login": "a", "name": "Alice", "groups": ["students"], "vcsAccessToken": "x"}},
+                 {"id": 2, "started": false, "submitted": false}]""";
+        var studentExams = ArtemisClient.MAPPER.readValue(json, StudentExamLoginDTO[].class);
+
+        Assertions.assertEquals("a", studentExams[0].login());
+        Assertions.assertNull(studentExams[1].login());
+
+        var table = new StudentExamStateTable();
+        table.addMissing(List.of(studentExams), false);
+        Assertions.assertEquals(
+                List.of(new StudentExamTransition(1, "a", StudentExamTransition.Type.STARTED)),
+                table.update(List.of(studentExams[0].toState(), studentExams[1].toState())));
+    }
+}
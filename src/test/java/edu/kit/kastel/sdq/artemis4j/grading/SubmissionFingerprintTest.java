@@ -0,0 +1,60 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j.grading;
+
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import edu.kit.kastel.sdq.artemis4j.client.AssessmentType;
+import edu.kit.kastel.sdq.artemis4j.client.ProgrammingSubmissionDTO;
+import edu.kit.kastel.sdq.artemis4j.client.ResultDTO;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class SubmissionFingerprintTest {
+    private static final ZonedDateTime NOW = ZonedDateTime.now();
+
+    private static ResultDTO result(long id, AssessmentType type, ZonedDateTime completionDate) {
+        return new ResultDTO(id, completionDate, true, 100.0, true, List.of(), null, type, 0, 0, 0);
+    }
+
+    private static ProgrammingSubmissionDTO submission(long id, ResultDTO... results) {
+        return new ProgrammingSubmissionDTO(id, null, "abc123", false, Arrays.asList(results), NOW);
+    }
+
+    @Test
+    void testUnchangedSubmissionIsEqual() {
+        var first = SubmissionFingerprint.of(submission(1, result(10, AssessmentType.AUTOMATIC, NOW)));
+        var second = SubmissionFingerprint.of(submission(1, result(10, AssessmentType.AUTOMATIC, NOW)));
+
+        Assertions.assertEquals(first, second);
+        Assertions.assertEquals(first.hashCode(), second.hashCode());
+    }
+
+    @Test
+    void testAddedResultIsDetected() {
+        var before = SubmissionFingerprint.of(submission(1, result(10, AssessmentType.AUTOMATIC, NOW)));
+        var after = SubmissionFingerprint.of(submission(
+                1, result(10, AssessmentType.AUTOMATIC, NOW), result(11, AssessmentType.SEMI_AUTOMATIC, null)));
+
+        Assertions.assertNotEquals(before, after);
+        Assertions.assertFalse(before.hasResult(11));
+        Assertions.assertTrue(after.hasResult(11));
+        Assertions.assertFalse(after.isCompleted(11));
+    }
+
+    @Test
+    void testCompletionIsDetected() {
+        var locked = SubmissionFingerprint.of(submission(1, result(11, AssessmentType.SEMI_AUTOMATIC, null)));
+        var completed = SubmissionFingerprint.of(submission(1, result(11, AssessmentType.SEMI_AUTOMATIC, NOW)));
+
+        Assertions.assertNotEquals(locked, completed);
+        Assertions.assertTrue(completed.isCompleted(11));
+    }
+
+    @Test
+    void testMissingResultsAreHandled() {
+        var fingerprint = SubmissionFingerprint.of(new ProgrammingSubmissionDTO(1, null, "abc123", false, null, NOW));
+        Assertions.assertFalse(fingerprint.hasResult(10));
+    }
+}
@@ -0,0 +1,113 @@
+/* Licensed under EPL-2.0 2026. */
+package edu.kit.kastel.sdq.artemis4j.grading;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class WorkPlanTest {
+    private static final UserIdentifier ALICE = new UserIdentifier("alice");
+    private static final UserIdentifier BOB = new UserIdentifier("bob");
+
+    @Test
+    void testItemsAreDistributedByQuota() {
+        var plan = new WorkPlan();
+        plan.setQuota(ALICE, 4);
+        plan.setQuota(BOB, 2);
+        plan.update(firstRound(6), Map.of(), Instant.now());
+
+        assertEquals(
+                List.of(new WorkDistributor.TutorStatus(ALICE, 4, 0, 4), new WorkDistributor.TutorStatus(BOB, 2, 0, 2)),
+                plan.getStatus());
+        assertEquals(0, plan.getUnassignedCount());
+    }
+
+    @Test
+    void testExistingAssessmentsCountAsLoad() {
+        var plan = new WorkPlan();
+        plan.setQuota(ALICE, 3);
+        plan.setQuota(BOB, 3);
+        plan.update(firstRound(4), Map.of(ALICE, 2), Instant.now());
+
+        var status = plan.getStatus();
+        assertEquals(1, status.get(0).planned());
+        assertEquals(3, status.get(1).planned());
+    }
+
+    @Test
+    void testSecondRoundComesFirstAndSkipsFirstAssessor() {
+        var plan = new WorkPlan();
+        plan.setQuota(ALICE, 10);
+        plan.setQuota(BOB, 10);
+        List<WorkPlan.WorkItem> items = new ArrayList<>(firstRound(2));
+        items.add(new WorkPlan.WorkItem(100, CorrectionRound.SECOND, BOB));
+        plan.update(items, Map.of(BOB, 1), Instant.now());
+
+        var next = plan.next(ALICE).orElseThrow();
+        assertEquals(100, next.submissionId());
+        assertEquals(CorrectionRound.SECOND, next.correctionRound());
+        assertNotEquals(CorrectionRound.SECOND, plan.next(BOB).orElseThrow().correctionRound());
+    }
+
+    @Test
+    void testOverflowIsHandedOutWithoutConflicts() {
+        var plan = new WorkPlan();
+        plan.setQuota(ALICE, 1);
+        plan.setQuota(BOB, 0);
+        plan.update(
+                List.of(
+                        new WorkPlan.WorkItem(1, CorrectionRound.FIRST, null),
+                        new WorkPlan.WorkItem(2, CorrectionRound.SECOND, BOB)),
+                Map.of(),
+                Instant.now());
+
+        assertEquals(1, plan.getUnassignedCount());
+        // The second round item fills Alice's quota, and Bob gets the rest although their quota is met
+        assertEquals(1, plan.next(BOB).orElseThrow().submissionId());
+        assertTrue(plan.next(BOB).isEmpty());
+        assertEquals(2, plan.next(ALICE).orElseThrow().submissionId());
+        assertTrue(plan.next(ALICE).isEmpty());
+        assertEquals(new WorkDistributor.TutorStatus(BOB, 0, 1, 0), plan.getStatus().get(1));
+    }
+
+    @Test
+    void testHandedOutItemsAreNotPlannedAgain() {
+        var plan = new WorkPlan();
+        plan.setQuota(ALICE, 5);
+        plan.setQuota(BOB, 5);
+        var items = firstRound(2);
+        plan.update(items, Map.of(), Instant.now());
+
+        long handedOut = plan.next(ALICE).orElseThrow().submissionId();
+        // A refresh that started before the item was handed out still lists it as open
+        plan.update(items, Map.of(), Instant.now().minusSeconds(60));
+        assertEquals(handedOut == 1 ? 2 : 1, plan.next(BOB).orElseThrow().submissionId());
+        assertTrue(plan.next(ALICE).isEmpty());
+        assertTrue(plan.next(BOB).isEmpty());
+    }
+
+    @Test
+    void testRemovedTutorIsRedistributed() {
+        var plan = new WorkPlan();
+        plan.setQuota(ALICE, 5);
+        plan.setQuota(BOB, 5);
+        plan.update(firstRound(4), Map.of(), Instant.now());
+        assertTrue(plan.removeTutor(BOB));
+
+        assertEquals(List.of(new WorkDistributor.TutorStatus(ALICE, 5, 0, 4)), plan.getStatus());
+        assertThrows(IllegalArgumentException.class, () -> plan.next(BOB));
+    }
+
+    private static List<WorkPlan.WorkItem> firstRound(int count) {
+        List<WorkPlan.WorkItem> items = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            items.add(new WorkPlan.WorkItem(i, CorrectionRound.FIRST, null));
+        }
+        return items;
+    }
+}